@@ -0,0 +1,158 @@
+package org.example.taskmanagementsystem.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.dto.response.CycleTimeStatsDTO;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.util.QuantileSketch;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Время пребывания задач в статусах по приоритетам и исполнителям.
+ * <p>
+ * Каждый переход статуса добавляет длительность прежнего статуса в гистограмму
+ * {@link QuantileSketch} своей комбинации статус/приоритет/исполнитель. Приращения копятся в памяти
+ * и периодически сливаются со строками status_duration_sketches, поэтому квантили для панели
+ * считаются слиянием нескольких гистограмм, а не чтением истории задач. Несохраненные
+ * приращения других узлов станут видны после их очередного сброса.
+ */
+@Component
+@Slf4j
+public class CycleTimeTracker {
+    static final double RELATIVE_ACCURACY = 0.01;
+    private static final long FLUSH_LOCK_KEY = 410_041L;
+    private static final String UPSERT_SQL = "INSERT INTO status_duration_sketches " +
+            "(status, priority, executor_id, sample_count, buckets, updated_at) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (status, priority, executor_id) DO UPDATE SET sample_count = EXCLUDED.sample_count, " +
+            "buckets = EXCLUDED.buckets, updated_at = EXCLUDED.updated_at";
+
+    private record Key(TaskStatus status, TaskPriority priority, long executorId) {
+    }
+
+    private final Map<Key, QuantileSketch> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public CycleTimeTracker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Учитывает пребывание задачи в статусе. Внутри транзакции длительность попадает в гистограмму
+     * только после коммита, чтобы откаченный переход не исказил статистику.
+     */
+    public void record(TaskStatus status, TaskPriority priority, Long executorId, long elapsedMillis) {
+        if (status == null || priority == null || elapsedMillis < 0) {
+            return;
+        }
+        Key key = new Key(status, priority, executorId != null ? executorId : 0L);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key, elapsedMillis);
+                }
+            });
+        } else {
+            add(key, elapsedMillis);
+        }
+    }
+
+    /**
+     * @param priority   null - все приоритеты
+     * @param executorId null - все исполнители, 0 - задачи без исполнителя
+     */
+    public CycleTimeStatsDTO query(TaskStatus status, TaskPriority priority, Long executorId) {
+        StringBuilder sql = new StringBuilder("SELECT buckets FROM status_duration_sketches WHERE status = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(status.name());
+        if (priority != null) {
+            sql.append(" AND priority = ?");
+            args.add(priority.name());
+        }
+        if (executorId != null) {
+            sql.append(" AND executor_id = ?");
+            args.add(executorId);
+        }
+        QuantileSketch merged = new QuantileSketch(RELATIVE_ACCURACY);
+        jdbcTemplate.query(sql.toString(), rs -> {
+            merged.merge(QuantileSketch.fromBytes(rs.getBytes(1)));
+        }, args.toArray());
+        pending.forEach((key, sketch) -> {
+            if (key.status() == status && (priority == null || key.priority() == priority)
+                    && (executorId == null || key.executorId() == executorId)) {
+                merged.merge(sketch);
+            }
+        });
+        return new CycleTimeStatsDTO(status, priority, executorId, merged.count(),
+                merged.quantile(0.5), merged.quantile(0.9), merged.quantile(0.99));
+    }
+
+    @Scheduled(initialDelayString = "${cycle-time.flush-interval-ms}", fixedDelayString = "${cycle-time.flush-interval-ms}")
+    public void flush() {
+        Map<Key, QuantileSketch> deltas = new ConcurrentHashMap<>();
+        for (Key key : pending.keySet()) {
+            QuantileSketch sketch = pending.remove(key);
+            if (sketch != null) {
+                deltas.put(key, sketch);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Чтение-слияние-запись строк сериализуется между узлами
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+                }, FLUSH_LOCK_KEY);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                deltas.forEach((key, delta) -> {
+                    QuantileSketch sketch = new QuantileSketch(RELATIVE_ACCURACY);
+                    jdbcTemplate.query("SELECT buckets FROM status_duration_sketches " +
+                                    "WHERE status = ? AND priority = ? AND executor_id = ?",
+                            rs -> {
+                                sketch.merge(QuantileSketch.fromBytes(rs.getBytes(1)));
+                            }, key.status().name(), key.priority().name(), key.executorId());
+                    sketch.merge(delta);
+                    jdbcTemplate.update(UPSERT_SQL, key.status().name(), key.priority().name(), key.executorId(),
+                            sketch.count(), sketch.toBytes(), now);
+                });
+            });
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить статистику времени в статусах, повтор при следующем сбросе", e);
+            deltas.forEach((key, delta) -> pending.merge(key, delta, (current, restored) -> {
+                current.merge(restored);
+                return current;
+            }));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void add(Key key, long elapsedMillis) {
+        // compute держит замок ключа, поэтому flush не заберет гистограмму посреди добавления
+        pending.compute(key, (k, sketch) -> {
+            QuantileSketch current = sketch != null ? sketch : new QuantileSketch(RELATIVE_ACCURACY);
+            current.add(elapsedMillis);
+            return current;
+        });
+    }
+}
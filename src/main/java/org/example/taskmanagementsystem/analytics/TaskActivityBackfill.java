@@ -0,0 +1,142 @@
+package org.example.taskmanagementsystem.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Заполняет дневную статистику по данным, появившимся до {@link TaskActivityRollup#liveSince()}:
+ * созданным задачам, переходам в COMPLETED из журнала изменений и комментариям.
+ * <p>
+ * Период разбивается на отрезки по {@code task-activity.backfill-chunk-days} дней, которые считаются
+ * параллельно, каждый в своей транзакции. Заполнение выполняет один узел (аренда в строке состояния);
+ * прерванное заполнение начинается заново с удаления строк BACKFILL. Кроме запуска при старте, каждый
+ * узел периодически пробует взять аренду, поэтому упавшее заполнение повторится после её истечения без
+ * перезапуска; после завершения попытка сводится к одному UPDATE без затронутых строк.
+ */
+@Component
+@Slf4j
+public class TaskActivityBackfill implements CommandLineRunner {
+    private static final String CHUNK_SQL =
+            "INSERT INTO task_activity_daily (day, executor_id, created_count, completed_count, commented_count, source) " +
+            "SELECT day, executor_id, SUM(created), SUM(completed), SUM(commented), 'BACKFILL' FROM (" +
+            "SELECT CAST(created_at AS date) AS day, COALESCE(executor_id, 0) AS executor_id, " +
+            "1 AS created, 0 AS completed, 0 AS commented FROM tasks WHERE created_at >= ? AND created_at < ? " +
+            "UNION ALL SELECT CAST(h.changed_at AS date), COALESCE(t.executor_id, 0), 0, 1, 0 " +
+            "FROM task_history h JOIN tasks t ON t.id = h.task_id " +
+            "WHERE h.field = 'status' AND h.new_value = 'COMPLETED' AND h.changed_at >= ? AND h.changed_at < ? " +
+            "UNION ALL SELECT CAST(c.created_at AS date), COALESCE(t.executor_id, 0), 0, 0, 1 " +
+            "FROM comments c JOIN tasks t ON t.id = c.task_id WHERE c.created_at >= ? AND c.created_at < ?" +
+            ") activity GROUP BY day, executor_id";
+    private static final String EARLIEST_SQL = "SELECT LEAST(" +
+            "(SELECT MIN(created_at) FROM tasks), " +
+            "(SELECT MIN(changed_at) FROM task_history WHERE field = 'status'), " +
+            "(SELECT MIN(created_at) FROM comments))";
+
+    private final TaskActivityRollup taskActivityRollup;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkDays;
+    private final int threads;
+    private final Duration lease;
+
+    public TaskActivityBackfill(TaskActivityRollup taskActivityRollup,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${task-activity.backfill-chunk-days}") int chunkDays,
+                                @Value("${task-activity.backfill-threads}") int threads,
+                                @Value("${task-activity.backfill-lease}") Duration lease) {
+        this.taskActivityRollup = taskActivityRollup;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkDays = chunkDays;
+        this.threads = threads;
+        this.lease = lease;
+    }
+
+    @Override
+    public void run(String... args) {
+        taskActivityRollup.liveSince();
+        Thread thread = new Thread(this::backfill, "activity-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Scheduled(initialDelayString = "${task-activity.backfill-retry-ms}", fixedDelayString = "${task-activity.backfill-retry-ms}")
+    public void retryBackfill() {
+        backfill();
+    }
+
+    /**
+     * @return true, если заполнение выполнено этим вызовом
+     */
+    public boolean backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = jdbcTemplate.update("UPDATE task_activity_state SET backfill_started_at = ? WHERE id = 1 " +
+                        "AND backfilled_at IS NULL AND (backfill_started_at IS NULL OR backfill_started_at < ?)",
+                Timestamp.valueOf(now), Timestamp.valueOf(now.minus(lease)));
+        if (claimed == 0) {
+            return false;
+        }
+        try {
+            LocalDateTime liveSince = taskActivityRollup.liveSince();
+            jdbcTemplate.update("DELETE FROM task_activity_daily WHERE source = 'BACKFILL'");
+            Timestamp earliest = jdbcTemplate.queryForObject(EARLIEST_SQL, Timestamp.class);
+            int chunks = earliest != null ? runChunks(earliest.toLocalDateTime().toLocalDate().atStartOfDay(), liveSince) : 0;
+            jdbcTemplate.update("UPDATE task_activity_state SET backfilled_at = ? WHERE id = 1",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            log.info("Дневная статистика заполнена по существующим данным: {} отрезков", chunks);
+            return true;
+        } catch (RuntimeException e) {
+            // Аренда истечет, и заполнение повторит плановая попытка этого или другого узла
+            log.error("Не удалось заполнить дневную статистику", e);
+            return false;
+        }
+    }
+
+    private int runChunks(LocalDateTime from, LocalDateTime until) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "activity-backfill-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (LocalDateTime start = from; start.isBefore(until); start = start.plusDays(chunkDays)) {
+                LocalDateTime end = start.plusDays(chunkDays).isBefore(until) ? start.plusDays(chunkDays) : until;
+                Timestamp lower = Timestamp.valueOf(start);
+                Timestamp upper = Timestamp.valueOf(end);
+                futures.add(pool.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(CHUNK_SQL, lower, upper, lower, upper, lower, upper))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return futures.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Заполнение дневной статистики прервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Отрезок заполнения завершился ошибкой", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.taskmanagementsystem.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.example.taskmanagementsystem.events.TaskEventSink;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Дневная статистика задач (создано, завершено, прокомментировано) по исполнителям.
+ * <p>
+ * Как синк событий задач, добавляет в {@code task_activity_daily} по одной строке-приращению на день
+ * и исполнителя из пачки. Вставка идет в транзакции ретранслятора вместе с пометкой событий
+ * опубликованными, поэтому каждое событие учитывается ровно один раз. Строки прошедших дней
+ * периодически сливаются, чтобы чтение диапазона суммировало по одной строке на день и исполнителя.
+ */
+@Component
+@Slf4j
+public class TaskActivityRollup implements TaskEventSink {
+    static final String INSERT_SQL = "INSERT INTO task_activity_daily " +
+            "(day, executor_id, created_count, completed_count, commented_count, source) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String COMPACT_SQL =
+            "WITH merged AS (DELETE FROM task_activity_daily WHERE day >= ? AND day < ? " +
+            "RETURNING day, executor_id, created_count, completed_count, commented_count) " +
+            "INSERT INTO task_activity_daily (day, executor_id, created_count, completed_count, commented_count, source) " +
+            "SELECT day, executor_id, SUM(created_count), SUM(completed_count), SUM(commented_count), 'COMPACTED' " +
+            "FROM merged GROUP BY day, executor_id";
+
+    private record DayKey(LocalDate day, long executorId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile LocalDateTime liveSince;
+
+    public TaskActivityRollup(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void publish(List<TaskEvent> events) {
+        LocalDateTime since = liveSince();
+        Map<DayKey, int[]> deltas = new HashMap<>();
+        for (TaskEvent event : events) {
+            // Более ранние события уже учтены заполнением по существующим данным
+            if (event.createdAt().isBefore(since)) {
+                continue;
+            }
+            int column = switch (event.type()) {
+                case TASK_CREATED -> 0;
+                case STATUS_CHANGED -> event.status() == TaskStatus.COMPLETED ? 1 : -1;
+                case COMMENT_ADDED -> 2;
+                default -> -1;
+            };
+            if (column < 0) {
+                continue;
+            }
+            DayKey key = new DayKey(event.createdAt().toLocalDate(), event.executorId() != null ? event.executorId() : 0L);
+            deltas.computeIfAbsent(key, k -> new int[3])[column]++;
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, counts) -> rows.add(new Object[]{
+                Date.valueOf(key.day()), key.executorId(), counts[0], counts[1], counts[2], "LIVE"}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * @param executorId null - по всем исполнителям, 0 - задачи без исполнителя
+     * @return значения по дням диапазона [from, to], включая дни без активности
+     */
+    public List<TaskActivityDayDTO> read(LocalDate from, LocalDate to, Long executorId) {
+        StringBuilder sql = new StringBuilder("SELECT day, SUM(created_count), SUM(completed_count), SUM(commented_count) " +
+                "FROM task_activity_daily WHERE day >= ? AND day <= ?");
+        List<Object> args = new ArrayList<>(List.of(Date.valueOf(from), Date.valueOf(to)));
+        if (executorId != null) {
+            sql.append(" AND executor_id = ?");
+            args.add(executorId);
+        }
+        sql.append(" GROUP BY day");
+        Map<LocalDate, TaskActivityDayDTO> byDay = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            LocalDate day = rs.getDate(1).toLocalDate();
+            byDay.put(day, new TaskActivityDayDTO(day, rs.getLong(2), rs.getLong(3), rs.getLong(4)));
+        }, args.toArray());
+        List<TaskActivityDayDTO> series = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.add(byDay.getOrDefault(day, new TaskActivityDayDTO(day, 0, 0, 0)));
+        }
+        return series;
+    }
+
+    /**
+     * Граница между заполнением и потоком событий; фиксируется при первом обращении и больше не меняется.
+     */
+    public LocalDateTime liveSince() {
+        LocalDateTime since = liveSince;
+        if (since == null) {
+            jdbcTemplate.update("INSERT INTO task_activity_state (id, live_since) VALUES (1, ?) ON CONFLICT (id) DO NOTHING",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            since = jdbcTemplate.queryForObject("SELECT live_since FROM task_activity_state WHERE id = 1",
+                    Timestamp.class).toLocalDateTime();
+            liveSince = since;
+        }
+        return since;
+    }
+
+    @Scheduled(cron = "${task-activity.compaction-cron}")
+    public void compact() {
+        liveSince();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Строка состояния блокируется: слияние не пересекается с другим узлом и с заполнением
+            Map<String, Object> state = jdbcTemplate.queryForMap("SELECT backfilled_at, compacted_before " +
+                    "FROM task_activity_state WHERE id = 1 FOR UPDATE");
+            if (state.get("backfilled_at") == null) {
+                return;
+            }
+            LocalDate today = LocalDate.now();
+            LocalDate from = state.get("compacted_before") != null
+                    ? ((Date) state.get("compacted_before")).toLocalDate() : LocalDate.EPOCH;
+            if (!from.isBefore(today)) {
+                return;
+            }
+            int merged = jdbcTemplate.update(COMPACT_SQL, Date.valueOf(from), Date.valueOf(today));
+            jdbcTemplate.update("UPDATE task_activity_state SET compacted_before = ? WHERE id = 1", Date.valueOf(today));
+            log.info("Дневная статистика слита до {}: {} строк", today, merged);
+        });
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.taskmanagementsystem.analytics;
+
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Счетчики задач по статусу и приоритету - общие и по исполнителям - в таблице {@code task_counters}.
+ * <p>
+ * Изменения задач корректируют счетчики в своей транзакции. Каждый ключ разбит на полосы:
+ * задача всегда попадает в полосу {@code id % shards}, поэтому параллельные изменения разных задач
+ * обновляют разные строки и не выстраиваются в очередь на одной горячей строке общего счетчика.
+ * Чтение суммирует не больше shards строк на комбинацию и не зависит от числа задач.
+ */
+@Component
+public class TaskCounters {
+    public static final long GLOBAL = -1L;
+    public static final long NO_EXECUTOR = 0L;
+    // Предел строк в одном INSERT: число параметров запроса ограничено 32767
+    private static final int MAX_UPSERT_ROWS = 1000;
+    private static final String UPSERT_SQL_PREFIX =
+            "INSERT INTO task_counters (executor_id, status, priority, shard, task_count) VALUES ";
+    private static final String UPSERT_SQL_SUFFIX =
+            " ON CONFLICT (executor_id, status, priority, shard) DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count";
+    private static final String BACKFILL_SQL =
+            "INSERT INTO task_counters (executor_id, status, priority, shard, task_count) " +
+            "SELECT COALESCE(executor_id, 0), status, priority, 0, count(*) FROM tasks " +
+            "WHERE status IS NOT NULL AND priority IS NOT NULL GROUP BY 1, 2, 3 " +
+            "UNION ALL SELECT -1, status, priority, 0, count(*) FROM tasks " +
+            "WHERE status IS NOT NULL AND priority IS NOT NULL GROUP BY 2, 3";
+
+    /**
+     * Исполнитель, статус и приоритет задачи, определяющие её счетчики.
+     */
+    public record Key(Long executorId, TaskStatus status, TaskPriority priority) {
+    }
+
+    private record Row(long executorId, TaskStatus status, TaskPriority priority) {
+    }
+
+    private static final Comparator<Row> ROW_ORDER = Comparator.comparingLong(Row::executorId)
+            .thenComparing(Row::status).thenComparing(Row::priority);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shards;
+
+    public TaskCounters(JdbcTemplate jdbcTemplate, @Value("${task-counters.shards}") int shards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+    }
+
+    /**
+     * Переносит задачу из счетчиков before в счетчики after.
+     *
+     * @param before прежнее состояние; null - задача создана
+     * @param after  новое состояние; null - задача удалена
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(long taskId, Key before, Key after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        // Строки сортируются, чтобы транзакции блокировали полосы в одном порядке и не взаимоблокировались
+        Map<Row, Long> deltas = new TreeMap<>(ROW_ORDER);
+        if (before != null) {
+            addDelta(deltas, before, -1);
+        }
+        if (after != null) {
+            addDelta(deltas, after, 1);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        int shard = (int) Math.floorMod(taskId, (long) shards);
+        StringBuilder sql = new StringBuilder(UPSERT_SQL_PREFIX);
+        List<Object> args = new ArrayList<>();
+        deltas.forEach((row, delta) -> {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?)");
+            args.add(row.executorId());
+            args.add(row.status().name());
+            args.add(row.priority().name());
+            args.add(shard);
+            args.add(delta);
+        });
+        sql.append(UPSERT_SQL_SUFFIX);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Добавляет в счетчики пачку созданных задач: дельты суммируются по строкам и полосам,
+     * поэтому запросов столько, сколько различных строк, а не задач.
+     *
+     * @param keysByTaskId состояние каждой созданной задачи
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addCreated(Map<Long, Key> keysByTaskId) {
+        // Тот же порядок блокировок, что в move: по строке, затем по полосе
+        Map<Row, long[]> deltas = new TreeMap<>(ROW_ORDER);
+        keysByTaskId.forEach((taskId, key) -> {
+            Map<Row, Long> rows = new TreeMap<>(ROW_ORDER);
+            addDelta(rows, key, 1);
+            int shard = (int) Math.floorMod(taskId, (long) shards);
+            rows.forEach((row, delta) -> deltas.computeIfAbsent(row, r -> new long[shards])[shard] += delta);
+        });
+        StringBuilder sql = new StringBuilder(UPSERT_SQL_PREFIX);
+        List<Object> args = new ArrayList<>();
+        deltas.forEach((row, byShard) -> {
+            for (int shard = 0; shard < shards; shard++) {
+                if (byShard[shard] == 0) {
+                    continue;
+                }
+                if (args.size() >= MAX_UPSERT_ROWS * 5) {
+                    jdbcTemplate.update(sql.append(UPSERT_SQL_SUFFIX).toString(), args.toArray());
+                    sql.setLength(UPSERT_SQL_PREFIX.length());
+                    args.clear();
+                }
+                if (!args.isEmpty()) {
+                    sql.append(", ");
+                }
+                sql.append("(?, ?, ?, ?, ?)");
+                args.add(row.executorId());
+                args.add(row.status().name());
+                args.add(row.priority().name());
+                args.add(shard);
+                args.add(byShard[shard]);
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.update(sql.append(UPSERT_SQL_SUFFIX).toString(), args.toArray());
+        }
+    }
+
+    /**
+     * @param executorId {@link #GLOBAL} - по всем задачам
+     */
+    public Map<TaskStatus, Map<TaskPriority, Long>> read(long executorId) {
+        Map<TaskStatus, Map<TaskPriority, Long>> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+            for (TaskPriority priority : TaskPriority.values()) {
+                byPriority.put(priority, 0L);
+            }
+            counts.put(status, byPriority);
+        }
+        jdbcTemplate.query("SELECT status, priority, SUM(task_count) FROM task_counters WHERE executor_id = ? " +
+                "GROUP BY status, priority", rs -> {
+            counts.get(TaskStatus.valueOf(rs.getString(1))).put(TaskPriority.valueOf(rs.getString(2)), rs.getLong(3));
+        }, executorId);
+        return counts;
+    }
+
+    /**
+     * Однократно заполняет пустую таблицу по текущим задачам. Таблица tasks блокируется от записи
+     * на время пересчета, чтобы ни одно изменение не проскочило между подсчетом и включением счетчиков.
+     */
+    @Transactional
+    public boolean backfillIfEmpty() {
+        if (!isEmpty()) {
+            return false;
+        }
+        // Тот же порядок блокировок, что у изменений задач: сначала tasks, потом task_counters
+        jdbcTemplate.execute("LOCK TABLE tasks IN SHARE MODE");
+        jdbcTemplate.execute("LOCK TABLE task_counters IN EXCLUSIVE MODE");
+        if (!isEmpty()) {
+            return false;
+        }
+        jdbcTemplate.update(BACKFILL_SQL);
+        return true;
+    }
+
+    private boolean isEmpty() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM task_counters)", Boolean.class));
+    }
+
+    private static void addDelta(Map<Row, Long> deltas, Key key, long delta) {
+        // Как и при заполнении, задачи без статуса или приоритета не считаются
+        if (key.status() == null || key.priority() == null) {
+            return;
+        }
+        long executorId = key.executorId() != null ? key.executorId() : NO_EXECUTOR;
+        deltas.merge(new Row(GLOBAL, key.status(), key.priority()), delta, Long::sum);
+        deltas.merge(new Row(executorId, key.status(), key.priority()), delta, Long::sum);
+    }
+}
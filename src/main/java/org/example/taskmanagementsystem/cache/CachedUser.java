@@ -0,0 +1,25 @@
+package org.example.taskmanagementsystem.cache;
+
+import org.example.taskmanagementsystem.entity.Role;
+import org.example.taskmanagementsystem.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Неизменяемый снимок пользователя для кэша: только поля, нужные аутентификации и
+ * авторизации. Управляемые JPA-сущности в кэше не хранятся.
+ */
+public record CachedUser(Long id, String email, String password, Role role, boolean verified) {
+
+    public static CachedUser from(User user) {
+        return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                Boolean.TRUE.equals(user.getIsVerified()));
+    }
+
+    public Collection<? extends GrantedAuthority> authorities() {
+        return Collections.singleton(new SimpleGrantedAuthority(role.name()));
+    }
+}
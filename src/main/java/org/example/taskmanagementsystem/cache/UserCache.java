@@ -0,0 +1,84 @@
+package org.example.taskmanagementsystem.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskmanagementsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Кэш пользователей по email (естественному ключу).
+ * <p>
+ * Промахи загружаются через {@link UserRepository#findByEmail}; отсутствие пользователя
+ * не кэшируется. Записи, меняющие пользователя, должны вызывать {@link #invalidate(String)}:
+ * запись удаляется сразу и повторно после завершения транзакции, чтобы параллельный
+ * промах не вернул в кэш незакоммиченное старое состояние.
+ * Кэш локален для узла: {@link #invalidate(String)} очищает запись только здесь, другие узлы
+ * увидят изменение не позже {@code user-cache.expire-after-write}. Поэтому из кэша читаются только
+ * поиски по токену (JwtFilter, текущий пользователь); вход проверяет пароль и верификацию по БД.
+ * Статистика публикуется в Micrometer как {@code cache.*{cache=users.by-email}}.
+ */
+@Component
+public class UserCache {
+    static final String CACHE_NAME = "users.by-email";
+
+    private final UserRepository userRepository;
+    private final Cache<String, CachedUser> byEmail;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${user-cache.maximum-size}") long maximumSize,
+                     @Value("${user-cache.expire-after-write}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", byEmail, cache -> cache.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public Optional<CachedUser> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byEmail.get(email, key -> userRepository.findByEmail(key)
+                .map(CachedUser::from)
+                .orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        byEmail.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    byEmail.invalidate(email);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        byEmail.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return byEmail.stats();
+    }
+}
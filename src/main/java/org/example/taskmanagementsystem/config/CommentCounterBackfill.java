@@ -0,0 +1,24 @@
+package org.example.taskmanagementsystem.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.repository.TaskRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentCounterBackfill implements CommandLineRunner {
+    private final TaskRepository taskRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        int updated = taskRepository.backfillCommentCounters();
+        if (updated > 0) {
+            log.info("Пересчитаны счетчики комментариев для {} задач", updated);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.taskmanagementsystem.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Единая таблица маршрутов для SecurityConfiguration и JwtFilter.
+ * <p>
+ * Шаблоны компилируются в префиксное дерево при старте; классификация URI — один проход
+ * по символам пути без аллокаций. Поддерживаются точные пути, {@code /prefix/**} и
+ * {@code /prefix/*}; при нескольких совпадениях побеждает самый длинный шаблон.
+ * Context path ({@code server.servlet.context-path}) отбрасывается по смещению.
+ * <p>
+ * Классифицируется тот же путь, по которому диспетчеризует Spring MVC: URI с процент-кодированием
+ * или параметрами через ';' сначала декодируется и очищается {@link UrlPathHelper}, иначе
+ * {@code /%61dmin/**} обошел бы правило для {@code /admin/**}. Обычный URI проверяется без аллокаций.
+ */
+@Component
+public class RouteClassifier {
+    public enum RouteType {
+        PUBLIC, ADMIN, AUTHENTICATED
+    }
+
+    static final String[] PUBLIC_ROUTES = {
+            "/v2/api-docs",
+            "/v3/api-docs",
+            "/v3/api-docs/**",
+            "/swagger-resources",
+            "/swagger-resources/**",
+            "/swagger-ui/**",
+            "/webjars/**",
+            "/swagger-ui.html",
+            "/auth/**",
+            "/actuator/**"
+    };
+
+    static final String[] ADMIN_ROUTES = {
+            "/admin/**"
+    };
+
+    /** SSE-поток изменений задач; его async-диспетчеризации пропускаются без повторной проверки токена. */
+    static final String EVENT_STREAM_ROUTE = "/tasks/stream";
+
+    private static final int ALPHABET = 128;
+
+    private static final class Node {
+        private final Node[] children = new Node[ALPHABET];
+        private RouteType exact;
+        private RouteType subtree;
+        private RouteType singleSegment;
+    }
+
+    private final Node root = new Node();
+
+    public RouteClassifier() {
+        this(PUBLIC_ROUTES, ADMIN_ROUTES);
+    }
+
+    public RouteClassifier(String[] publicRoutes, String[] adminRoutes) {
+        for (String route : publicRoutes) {
+            add(route, RouteType.PUBLIC);
+        }
+        for (String route : adminRoutes) {
+            add(route, RouteType.ADMIN);
+        }
+    }
+
+    public RouteType classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.indexOf('%') >= 0 || uri.indexOf(';') >= 0) {
+            return classify(UrlPathHelper.defaultInstance.getPathWithinApplication(request), 0);
+        }
+        String contextPath = request.getContextPath();
+        int offset = 0;
+        if (contextPath != null && !contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            offset = contextPath.length();
+        }
+        return classify(uri, offset);
+    }
+
+    public boolean isPublic(HttpServletRequest request) {
+        return classify(request) == RouteType.PUBLIC;
+    }
+
+    public boolean isAdmin(HttpServletRequest request) {
+        return classify(request) == RouteType.ADMIN;
+    }
+
+    public boolean isEventStream(HttpServletRequest request) {
+        return EVENT_STREAM_ROUTE.equals(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    public RouteType classify(String path, int offset) {
+        Node node = root;
+        RouteType match = null;
+        int length = path.length();
+        for (int i = offset; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '/') {
+                if (node.subtree != null) {
+                    match = node.subtree;
+                }
+                if (node.singleSegment != null && path.indexOf('/', i + 1) < 0) {
+                    match = node.singleSegment;
+                }
+            }
+            if (c >= ALPHABET || (node = node.children[c]) == null) {
+                return match != null ? match : RouteType.AUTHENTICATED;
+            }
+        }
+        if (node.exact != null) {
+            return node.exact;
+        }
+        if (node.subtree != null) {
+            return node.subtree;
+        }
+        return match != null ? match : RouteType.AUTHENTICATED;
+    }
+
+    private void add(String pattern, RouteType type) {
+        String prefix = pattern;
+        boolean subtree = false;
+        boolean singleSegment = false;
+        if (pattern.endsWith("/**")) {
+            prefix = pattern.substring(0, pattern.length() - 3);
+            subtree = true;
+        } else if (pattern.endsWith("/*")) {
+            prefix = pattern.substring(0, pattern.length() - 2);
+            singleSegment = true;
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (c >= ALPHABET || c == '*') {
+                throw new IllegalArgumentException("Unsupported route pattern: " + pattern);
+            }
+            if (node.children[c] == null) {
+                node.children[c] = new Node();
+            }
+            node = node.children[c];
+        }
+        if (subtree) {
+            node.subtree = type;
+        } else if (singleSegment) {
+            node.singleSegment = type;
+        } else {
+            node.exact = type;
+        }
+    }
+}
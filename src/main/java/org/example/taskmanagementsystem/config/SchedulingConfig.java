@@ -0,0 +1,25 @@
+package org.example.taskmanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Пул для задач {@code @Scheduled}. Без него они выполняются в одном потоке, и долгие задачи
+ * (дайджест, отчеты, GC вложений, компактизация) задерживают тик напоминаний, relay outbox и heartbeat SSE.
+ * <p>
+ * Бин объявлен явно под именем {@code taskScheduler}: {@code @EnableWebSocket} регистрирует свой
+ * TaskScheduler, из-за которого автоконфигурация Spring Boot пул не создает.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${scheduling.pool-size}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+}
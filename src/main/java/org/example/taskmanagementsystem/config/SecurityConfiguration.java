@@ -1,6 +1,7 @@
 package org.example.taskmanagementsystem.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -30,19 +31,7 @@ import java.util.Map;
 public class SecurityConfiguration {
     private final JwtFilter jwtFilter;
     private final CustomAuthenticationProvider customAuthenticationProvider;
-
-    private static final String[] WHITE_LIST_URL = {
-            "/v2/api-docs",
-            "/v3/api-docs",
-            "/v3/api-docs/**",
-            "/swagger-resources",
-            "/swagger-resources/**",
-            "/swagger-ui/**",
-            "/webjars/**",
-            "/swagger-ui.html",
-            "/auth/**",
-            "/actuator/**"
-    };
+    private final RouteClassifier routeClassifier;
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -62,8 +51,12 @@ public class SecurityConfiguration {
         http.csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
-                        .requestMatchers(WHITE_LIST_URL).permitAll()
+                        // Повторная async-диспетчеризация SSE-ответа: запрос уже прошел авторизацию.
+                        // Остальные async-ответы проверяются как обычно
+                        .requestMatchers(request -> request.getDispatcherType() == DispatcherType.ASYNC
+                                && routeClassifier.isEventStream(request)).permitAll()
+                        .requestMatchers(routeClassifier::isAdmin).hasRole("ADMIN")
+                        .requestMatchers(routeClassifier::isPublic).permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.analytics.TaskCounters;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCounterBackfill implements CommandLineRunner {
+    private final TaskCounters taskCounters;
+
+    @Override
+    public void run(String... args) {
+        if (taskCounters.backfillIfEmpty()) {
+            log.info("Счетчики задач заполнены по текущему содержимому таблицы tasks");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.taskmanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.dto.response.ReportJobDTO;
+import org.example.taskmanagementsystem.service.ReportService;
+import org.example.taskmanagementsystem.util.ZeroCopyFileSender;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin/reports")
+@Tag(name = "Отчеты", description = "Асинхронное построение отчетов администратором")
+@RequiredArgsConstructor
+public class AdminReportController {
+    private final ReportService reportService;
+
+    @PostMapping("/tasks")
+    @Operation(
+            summary = "Заказ отчета по задачам",
+            description = "Ставит в очередь CSV-отчет по задачам, созданным в [from, to]: исполнитель, статус, " +
+                    "приоритет и количество комментариев. Состояние задания опрашивается по возвращенному id.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Задание принято"),
+                    @ApiResponse(responseCode = "400", description = "Некорректный диапазон"),
+                    @ApiResponse(responseCode = "429", description = "Очередь отчетов переполнена")
+            }
+    )
+    public ResponseEntity<ReportJobDTO> submitTaskReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportService.submitTaskReport(from, to));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Состояние отчета",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние получено"),
+                    @ApiResponse(responseCode = "404", description = "Отчет не найден")
+            }
+    )
+    public ResponseEntity<ReportJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reportService.getJob(id));
+    }
+
+    @GetMapping("/{id}/file")
+    @Operation(
+            summary = "Скачивание отчета",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Файл отчета"),
+                    @ApiResponse(responseCode = "404", description = "Отчет не найден"),
+                    @ApiResponse(responseCode = "409", description = "Отчет еще не готов"),
+                    @ApiResponse(responseCode = "410", description = "Файл недоступен на этом узле")
+            }
+    )
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ZeroCopyFileSender.send(request, response, reportService.getReportFile(id), "text/csv;charset=UTF-8",
+                "tasks-report-" + id + ".csv");
+    }
+}
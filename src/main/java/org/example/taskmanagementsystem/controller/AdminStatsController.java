@@ -0,0 +1,74 @@
+package org.example.taskmanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.dto.response.CycleTimeStatsDTO;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.dto.response.TaskCountersDTO;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.StatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/stats")
+@Tag(name = "Статистика", description = "Аналитика по задачам для администратора")
+@RequiredArgsConstructor
+public class AdminStatsController {
+    private final StatsService statsService;
+
+    @GetMapping
+    @Operation(
+            summary = "Счетчики задач",
+            description = "Количество задач по статусам и приоритетам: по всем задачам или по исполнителю " +
+                    "(executorId=0 - задачи без исполнителя). Читается из поддерживаемых счетчиков без подсчета по tasks.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Счетчики получены")
+            }
+    )
+    public ResponseEntity<TaskCountersDTO> getTaskCounters(@RequestParam(required = false) Long executorId) {
+        return ResponseEntity.ok(statsService.getTaskCounters(executorId));
+    }
+
+    @GetMapping("/cycle-time")
+    @Operation(
+            summary = "Время в статусе",
+            description = "Квантили p50/p90/p99 времени пребывания задач в статусе (в миллисекундах). " +
+                    "Без priority и executorId - по всем приоритетам и исполнителям; executorId=0 - задачи без исполнителя.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика получена")
+            }
+    )
+    public ResponseEntity<CycleTimeStatsDTO> getCycleTime(@RequestParam TaskStatus status,
+                                                          @RequestParam(required = false) TaskPriority priority,
+                                                          @RequestParam(required = false) Long executorId) {
+        return ResponseEntity.ok(statsService.getCycleTimeStats(status, priority, executorId));
+    }
+
+    @GetMapping("/timeseries")
+    @Operation(
+            summary = "Активность по дням",
+            description = "Количество созданных, завершенных и прокомментированных задач за каждый день диапазона " +
+                    "[from, to] по всем исполнителям или по одному (executorId). Даты в формате yyyy-MM-dd.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика получена"),
+                    @ApiResponse(responseCode = "400", description = "Некорректный или слишком длинный диапазон")
+            }
+    )
+    public ResponseEntity<List<TaskActivityDayDTO>> getTimeseries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long executorId) {
+        return ResponseEntity.ok(statsService.getActivityTimeseries(from, to, executorId));
+    }
+}
@@ -14,6 +14,7 @@ import org.example.taskmanagementsystem.dto.response.AuthDTO;
 import org.example.taskmanagementsystem.entity.User;
 import org.example.taskmanagementsystem.exceptions.UserAlreadyExistsException;
 import org.example.taskmanagementsystem.service.AuthService;
+import org.example.taskmanagementsystem.service.AuthThrottleService;
 import org.example.taskmanagementsystem.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,6 +34,7 @@ import java.util.stream.Collectors;
 public class AuthController {
     private final UserService userService;
     private final AuthService authService;
+    private final AuthThrottleService authThrottleService;
 
     @PostMapping("/signup")
     @Operation(
@@ -86,10 +88,12 @@ public class AuthController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Код успешно переотправлен!"),
                     @ApiResponse(responseCode = "404", description = "Пользователь с указанным адресом электронной почты не найден"),
+                    @ApiResponse(responseCode = "429", description = "Слишком много попыток"),
                     @ApiResponse(responseCode = "500", description = "Ошибка при отправлении кода в почту")
             }
     )
-    public ResponseEntity<String> resendCode(@RequestBody EmailDTO emailDTO) {
+    public ResponseEntity<String> resendCode(@RequestBody EmailDTO emailDTO, HttpServletRequest request) {
+        authThrottleService.checkAttempt(request.getRemoteAddr(), emailDTO.getEmail());
         userService.resentCode(emailDTO.getEmail());
         return ResponseEntity.ok("Код успешно переотправлен!");
     }
@@ -102,10 +106,12 @@ public class AuthController {
                     @ApiResponse(responseCode = "200", description = "Вход выполнен успешно, токен доступа возвращен",
                             content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthDTO.class))),
                     @ApiResponse(responseCode = "401", description = "Неправильная почта или пароль!"),
-                    @ApiResponse(responseCode = "403", description = "Это пользователь еще не верифицирован!")
+                    @ApiResponse(responseCode = "403", description = "Это пользователь еще не верифицирован!"),
+                    @ApiResponse(responseCode = "429", description = "Слишком много попыток")
             }
     )
-    public ResponseEntity<AuthDTO> login(@RequestBody LoginDTO loginDTO) {
+    public ResponseEntity<AuthDTO> login(@RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        authThrottleService.checkAttempt(request.getRemoteAddr(), loginDTO.getEmail());
         AuthDTO authDTO = authService.login(loginDTO);
         return ResponseEntity.ok(authDTO);
     }
@@ -174,10 +180,12 @@ public class AuthController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Код верифицирован!"),
                     @ApiResponse(responseCode = "400", description = "Неправильный код"),
-                    @ApiResponse(responseCode = "404", description = "Почта не найдена")
+                    @ApiResponse(responseCode = "404", description = "Почта не найдена"),
+                    @ApiResponse(responseCode = "429", description = "Слишком много попыток")
             }
     )
-    public ResponseEntity<String> verifyCode(@RequestBody CodeDTO codeDTO) {
+    public ResponseEntity<String> verifyCode(@RequestBody CodeDTO codeDTO, HttpServletRequest request) {
+        authThrottleService.checkAttempt(request.getRemoteAddr(), codeDTO.getEmail());
         userService.verifyResetCode(codeDTO.getEmail(), codeDTO.getCode());
         return ResponseEntity.ok("Код верифицирован!");
     }
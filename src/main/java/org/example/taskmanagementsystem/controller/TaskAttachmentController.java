@@ -0,0 +1,94 @@
+package org.example.taskmanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.service.AttachmentService;
+import org.example.taskmanagementsystem.storage.AttachmentContent;
+import org.example.taskmanagementsystem.util.ZeroCopyFileSender;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/tasks/{taskId}/attachments")
+@Tag(name = "Вложения", description = "Файлы, прикрепленные к задачам")
+@RequiredArgsConstructor
+public class TaskAttachmentController {
+    private final AttachmentService attachmentService;
+
+    @GetMapping
+    @Operation(
+            summary = "Список вложений задачи",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Список получен"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            }
+    )
+    public ResponseEntity<List<AttachmentDTO>> getAttachments(@PathVariable Long taskId) {
+        return ResponseEntity.ok(attachmentService.getAttachments(taskId));
+    }
+
+    /**
+     * Тело запроса - содержимое файла целиком (не multipart): оно читается потоком прямо в хранилище.
+     */
+    @PostMapping(consumes = {"!multipart/form-data", "!application/x-www-form-urlencoded"})
+    @Operation(
+            summary = "Загрузка вложения",
+            description = "Автор или исполнитель прикрепляет файл к задаче. Тело запроса - содержимое файла, " +
+                    "Content-Type - тип файла, имя передается параметром fileName. Необязательный заголовок " +
+                    "X-Content-SHA256 проверяет целостность; если такое содержимое уже хранится, повторная копия на диск не пишется.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Файл прикреплен"),
+                    @ApiResponse(responseCode = "400", description = "Содержимое не совпадает с X-Content-SHA256"),
+                    @ApiResponse(responseCode = "403", description = "Пользователь не участник задачи"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+                    @ApiResponse(responseCode = "413", description = "Файл превышает допустимый размер")
+            }
+    )
+    public ResponseEntity<AttachmentDTO> upload(@PathVariable Long taskId, @RequestParam String fileName,
+                                                @RequestHeader(value = "X-Content-SHA256", required = false) String sha256,
+                                                HttpServletRequest request) throws IOException {
+        AttachmentDTO attachment = attachmentService.upload(taskId, fileName, request.getContentType(),
+                request.getContentLengthLong(), sha256, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    @GetMapping("/{attachmentId}")
+    @Operation(
+            summary = "Скачивание вложения",
+            description = "Поддерживает заголовок Range для докачки и частичного чтения.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Файл целиком"),
+                    @ApiResponse(responseCode = "206", description = "Запрошенный диапазон"),
+                    @ApiResponse(responseCode = "404", description = "Вложение не найдено"),
+                    @ApiResponse(responseCode = "416", description = "Диапазон за пределами файла")
+            }
+    )
+    public void download(@PathVariable Long taskId, @PathVariable Long attachmentId,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        AttachmentContent content = attachmentService.getAttachmentContent(taskId, attachmentId);
+        ZeroCopyFileSender.sendWithRanges(request, response, content.file(), content.contentType(), content.fileName());
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    @Operation(
+            summary = "Удаление вложения",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Вложение удалено"),
+                    @ApiResponse(responseCode = "403", description = "Пользователь не участник задачи"),
+                    @ApiResponse(responseCode = "404", description = "Вложение не найдено")
+            }
+    )
+    public ResponseEntity<String> deleteAttachment(@PathVariable Long taskId, @PathVariable Long attachmentId) {
+        attachmentService.deleteAttachment(taskId, attachmentId);
+        return ResponseEntity.ok("Вложение удалено");
+    }
+}
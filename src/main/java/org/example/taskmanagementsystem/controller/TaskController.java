@@ -9,15 +9,23 @@ import org.example.taskmanagementsystem.dto.request.TaskCreateDTO;
 import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
 import org.example.taskmanagementsystem.dto.request.CommentDTO;
 import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangesDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryPageDTO;
 import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
 import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEventStreamHub;
 import org.example.taskmanagementsystem.service.TaskService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/tasks")
@@ -25,6 +33,15 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
+    private final UserService userService;
+    private final TaskEventStreamHub taskEventStreamHub;
+
+    @Value("${sync.max-changes-limit}")
+    private int maxChangesLimit;
+    @Value("${task-history.max-page-size}")
+    private int maxHistoryPageSize;
+    @Value("${task-hierarchy.max-subtree-size}")
+    private int maxSubtreeSize;
 
     @PostMapping("/create")
     @Operation(
@@ -67,6 +84,48 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/unblocked")
+    @Operation(
+            summary = "Разблокированные задачи исполнителя",
+            description = "Возвращает незавершенные задачи, где текущий пользователь исполнитель и все блокирующие задачи завершены",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Список задач")
+            }
+    )
+    public ResponseEntity<Page<TaskResponseDTO>> getMyUnblockedTasks(@PageableDefault Pageable pageable) {
+        return ResponseEntity.ok(taskService.getMyUnblockedTasks(pageable));
+    }
+
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Изменения задач после курсора",
+            description = "Возвращает изменения задач и комментариев, а также удаления задач в порядке номера изменения. " +
+                    "Первый запрос выполняется с since=0, следующие - с nextSince из предыдущего ответа.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Список изменений"),
+                    @ApiResponse(responseCode = "410", description = "Курсор устарел, нужна полная синхронизация")
+            }
+    )
+    public ResponseEntity<TaskChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, maxChangesLimit));
+        return ResponseEntity.ok(taskService.getChanges(since, boundedLimit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Поток изменений задач (SSE)",
+            description = "Отправляет события задач, в которых текущий пользователь автор или исполнитель. " +
+                    "При разрыве соединения пропущенное дочитывается через /tasks/changes.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток событий"),
+                    @ApiResponse(responseCode = "429", description = "Слишком много открытых подписок")
+            }
+    )
+    public SseEmitter streamChanges() {
+        return taskEventStreamHub.subscribe(userService.getCurrentUserId());
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Получение задачи по ID",
@@ -81,6 +140,55 @@ public class TaskController {
         return ResponseEntity.ok(taskResponseDTO);
     }
 
+    @GetMapping("/{id}/history")
+    @Operation(
+            summary = "История изменений задачи",
+            description = "Возвращает изменения статуса, приоритета, исполнителя, названия и описания от новых к старым. " +
+                    "Следующая страница запрашивается с before=nextCursor.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Страница истории"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            }
+    )
+    public ResponseEntity<TaskHistoryPageDTO> getTaskHistory(@PathVariable Long id,
+                                                             @RequestParam(required = false) Long before,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, maxHistoryPageSize));
+        return ResponseEntity.ok(taskService.getTaskHistory(id, before, boundedLimit));
+    }
+
+    @GetMapping("/{id}/subtree")
+    @Operation(
+            summary = "Поддерево задачи",
+            description = "Возвращает задачу и её подзадачи всех уровней по возрастанию глубины (не больше limit) " +
+                    "и долю завершенных подзадач по всему поддереву.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поддерево задачи"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена")
+            }
+    )
+    public ResponseEntity<TaskSubtreeDTO> getSubtree(@PathVariable Long id,
+                                                     @RequestParam(defaultValue = "200") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, maxSubtreeSize));
+        return ResponseEntity.ok(taskService.getSubtree(id, boundedLimit));
+    }
+
+    @PatchMapping("/{taskId}/parent")
+    @Operation(
+            summary = "Перенос задачи в иерархии",
+            description = "Автор переносит задачу вместе с подзадачами под другую задачу; без parentId задача становится задачей верхнего уровня.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Задача перенесена"),
+                    @ApiResponse(responseCode = "403", description = "Вы не можете переносить задачу другого пользователя"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+                    @ApiResponse(responseCode = "409", description = "Нельзя перенести задачу в её собственное поддерево")
+            }
+    )
+    public ResponseEntity<TaskResponseDTO> moveTask(@PathVariable Long taskId,
+                                                    @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.ok(taskService.moveTask(taskId, parentId));
+    }
+
     @PutMapping("/edit/{id}")
     @Operation(
             summary = "Обновление задачи",
@@ -141,6 +249,38 @@ public class TaskController {
         return ResponseEntity.ok(updatedTask);
     }
 
+    @PostMapping("/{taskId}/blockers/{blockerId}")
+    @Operation(
+            summary = "Добавление блокирующей задачи",
+            description = "Автор задачи указывает задачу, которая должна быть завершена раньше. Связь, замыкающая цикл, отклоняется.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Зависимость добавлена"),
+                    @ApiResponse(responseCode = "400", description = "Задача не может блокировать саму себя"),
+                    @ApiResponse(responseCode = "403", description = "Вы не можете изменять зависимости задачи другого пользователя"),
+                    @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+                    @ApiResponse(responseCode = "409", description = "Зависимость образует цикл")
+            }
+    )
+    public ResponseEntity<String> addBlocker(@PathVariable Long taskId, @PathVariable Long blockerId) {
+        taskService.addBlocker(taskId, blockerId);
+        return ResponseEntity.ok("Зависимость добавлена");
+    }
+
+    @DeleteMapping("/{taskId}/blockers/{blockerId}")
+    @Operation(
+            summary = "Удаление блокирующей задачи",
+            description = "Автор задачи удаляет зависимость от другой задачи",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Зависимость удалена"),
+                    @ApiResponse(responseCode = "403", description = "Вы не можете изменять зависимости задачи другого пользователя"),
+                    @ApiResponse(responseCode = "404", description = "Задача или зависимость не найдена")
+            }
+    )
+    public ResponseEntity<String> removeBlocker(@PathVariable Long taskId, @PathVariable Long blockerId) {
+        taskService.removeBlocker(taskId, blockerId);
+        return ResponseEntity.ok("Зависимость удалена");
+    }
+
     @PostMapping("/{taskId}/add-comment")
     @Operation(
             summary = "Добавление комментария к задаче(Автор либо исполнитель)",
@@ -0,0 +1,63 @@
+package org.example.taskmanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.dto.request.TaskTemplateCreateDTO;
+import org.example.taskmanagementsystem.dto.response.TaskTemplateDTO;
+import org.example.taskmanagementsystem.service.TaskTemplateService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/task-templates")
+@Tag(name = "Повторяющиеся задачи", description = "Шаблоны задач, создаваемых по расписанию")
+@RequiredArgsConstructor
+public class TaskTemplateController {
+    private final TaskTemplateService taskTemplateService;
+
+    @PostMapping
+    @Operation(
+            summary = "Создание шаблона повторяющейся задачи",
+            description = "Задача повторяется каждые interval дней (DAILY) или недель (WEEKLY), начиная со startAt. " +
+                    "Задачи создаются заранее на горизонт планирования; dueAfterMinutes задает срок каждой задачи.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Шаблон создан"),
+                    @ApiResponse(responseCode = "400", description = "Ошибка валидации")
+            }
+    )
+    public ResponseEntity<TaskTemplateDTO> createTemplate(@RequestBody @Valid TaskTemplateCreateDTO templateCreateDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(taskTemplateService.createTemplate(templateCreateDTO));
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Шаблоны текущего пользователя",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Список шаблонов")
+            }
+    )
+    public ResponseEntity<List<TaskTemplateDTO>> getMyTemplates() {
+        return ResponseEntity.ok(taskTemplateService.getMyTemplates());
+    }
+
+    @DeleteMapping("/{templateId}")
+    @Operation(
+            summary = "Удаление шаблона",
+            description = "Новые задачи по шаблону больше не создаются; уже созданные остаются.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Шаблон удален"),
+                    @ApiResponse(responseCode = "403", description = "Шаблон другого пользователя"),
+                    @ApiResponse(responseCode = "404", description = "Шаблон не найден")
+            }
+    )
+    public ResponseEntity<String> deleteTemplate(@PathVariable Long templateId) {
+        taskTemplateService.deleteTemplate(templateId);
+        return ResponseEntity.ok("Шаблон удален");
+    }
+}
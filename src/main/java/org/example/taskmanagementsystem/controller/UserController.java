@@ -0,0 +1,33 @@
+package org.example.taskmanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/users")
+@Tag(name = "Пользователи", description = "Настройки текущего пользователя")
+@RequiredArgsConstructor
+public class UserController {
+    private final UserService userService;
+
+    @PutMapping("/me/digest")
+    @Operation(
+            summary = "Ежедневная сводка",
+            description = "Включает или отключает ежедневное письмо со списком открытых задач пользователя как исполнителя.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Настройка сохранена")
+            }
+    )
+    public ResponseEntity<String> setDigestEnabled(@RequestParam boolean enabled) {
+        userService.setDigestEnabled(enabled);
+        return ResponseEntity.ok(enabled ? "Ежедневная сводка включена" : "Ежедневная сводка отключена");
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.taskmanagementsystem.dependencies;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Граф зависимостей задач (ребро blocker -> blocked) с поддерживаемым топологическим порядком.
+ * <p>
+ * Добавление ребра проверяет цикл по алгоритму Пирса-Келли: если порядок концов уже правильный,
+ * проверка стоит O(1); иначе обходятся только вершины между концами в текущем порядке, и порядок
+ * переставляется лишь внутри этого участка. Поэтому стоимость зависит от затронутой области,
+ * а не от размера графа. Не потокобезопасен.
+ */
+public class DependencyGraph {
+    private final Map<Long, Set<Long>> successors = new HashMap<>();
+    private final Map<Long, Set<Long>> predecessors = new HashMap<>();
+    private final Map<Long, Integer> order = new HashMap<>();
+    private int nextOrder;
+
+    /**
+     * Строит граф по списку ребер {blocker, blocked}; начальный порядок - сортировка Кана.
+     */
+    public static DependencyGraph of(Collection<long[]> edges) {
+        DependencyGraph graph = new DependencyGraph();
+        Map<Long, Integer> inDegree = new HashMap<>();
+        for (long[] edge : edges) {
+            if (graph.successors.computeIfAbsent(edge[0], k -> new HashSet<>()).add(edge[1])) {
+                graph.predecessors.computeIfAbsent(edge[1], k -> new HashSet<>()).add(edge[0]);
+                inDegree.merge(edge[1], 1, Integer::sum);
+                inDegree.putIfAbsent(edge[0], 0);
+            }
+        }
+        ArrayDeque<Long> ready = new ArrayDeque<>();
+        inDegree.forEach((node, degree) -> {
+            if (degree == 0) {
+                ready.add(node);
+            }
+        });
+        while (!ready.isEmpty()) {
+            long node = ready.poll();
+            graph.order.put(node, graph.nextOrder++);
+            for (long next : graph.successors.getOrDefault(node, Set.of())) {
+                if (inDegree.merge(next, -1, Integer::sum) == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        // Цикл в сохраненных данных невозможен при проверке на входе; вершины цикла получают любой порядок
+        inDegree.keySet().forEach(node -> graph.order.computeIfAbsent(node, k -> graph.nextOrder++));
+        return graph;
+    }
+
+    public boolean hasEdge(long from, long to) {
+        return successors.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /**
+     * @return false, если ребро замкнуло бы цикл; граф в этом случае не меняется
+     */
+    public boolean addEdge(long from, long to) {
+        if (from == to) {
+            return false;
+        }
+        if (hasEdge(from, to)) {
+            return true;
+        }
+        int upper = orderOf(from);
+        int lower = orderOf(to);
+        if (lower < upper) {
+            List<Long> forward = new ArrayList<>();
+            if (!collect(to, successors, node -> order.get(node) <= upper, from, forward)) {
+                return false;
+            }
+            List<Long> backward = new ArrayList<>();
+            collect(from, predecessors, node -> order.get(node) >= lower, null, backward);
+            reorder(backward, forward);
+        }
+        successors.computeIfAbsent(from, k -> new HashSet<>()).add(to);
+        predecessors.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+        return true;
+    }
+
+    public void removeEdge(long from, long to) {
+        Set<Long> next = successors.get(from);
+        if (next != null && next.remove(to)) {
+            predecessors.get(to).remove(from);
+        }
+    }
+
+    public void removeNode(long node) {
+        for (long next : successors.getOrDefault(node, Set.of())) {
+            predecessors.get(next).remove(node);
+        }
+        for (long previous : predecessors.getOrDefault(node, Set.of())) {
+            successors.get(previous).remove(node);
+        }
+        successors.remove(node);
+        predecessors.remove(node);
+        order.remove(node);
+    }
+
+    /**
+     * Топологический номер вершины; новая вершина ставится в конец порядка.
+     */
+    int orderOf(long node) {
+        return order.computeIfAbsent(node, k -> nextOrder++);
+    }
+
+    private interface Bound {
+        boolean inside(long node);
+    }
+
+    /**
+     * Итеративный обход от start по edges в пределах bound.
+     *
+     * @return false, если встретилась вершина forbidden
+     */
+    private boolean collect(long start, Map<Long, Set<Long>> edges, Bound bound, Long forbidden, List<Long> visited) {
+        Set<Long> seen = new HashSet<>();
+        ArrayDeque<Long> stack = new ArrayDeque<>();
+        stack.push(start);
+        seen.add(start);
+        while (!stack.isEmpty()) {
+            long node = stack.pop();
+            visited.add(node);
+            for (long next : edges.getOrDefault(node, Set.of())) {
+                if (forbidden != null && next == forbidden) {
+                    return false;
+                }
+                if (bound.inside(next) && seen.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ставит вершины, ведущие к началу нового ребра, перед вершинами, достижимыми из его конца,
+     * используя те же номера, что они занимали.
+     */
+    private void reorder(List<Long> backward, List<Long> forward) {
+        Comparator<Long> byOrder = Comparator.comparingInt(order::get);
+        backward.sort(byOrder);
+        forward.sort(byOrder);
+        List<Integer> slots = new ArrayList<>(backward.size() + forward.size());
+        backward.forEach(node -> slots.add(order.get(node)));
+        forward.forEach(node -> slots.add(order.get(node)));
+        slots.sort(null);
+        int i = 0;
+        for (long node : backward) {
+            order.put(node, slots.get(i++));
+        }
+        for (long node : forward) {
+            order.put(node, slots.get(i++));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.taskmanagementsystem.dependencies;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Зависимости задач в {@code task_dependencies} и флаг {@code tasks.unblocked}.
+ * <p>
+ * Проверка цикла идет по графу в памяти ({@link DependencyGraph}), а не обходом таблицы. Изменения
+ * связей сериализуются транзакционной advisory-блокировкой; под ней граф дочитывает связи, добавленные
+ * другими узлами (id растут в порядке блокировки). Удаления с других узлов граф может не знать: лишнее
+ * ребро делает проверку только строже, поэтому найденный цикл перепроверяется по графу, заново
+ * загруженному из таблицы. Недостающих ребер в графе не бывает: удаление убирает ребро под блокировкой,
+ * а при откате транзакции граф сбрасывается и загружается заново.
+ * <p>
+ * Флаг unblocked пересчитывается запросом для задач, чьи блокирующие задачи изменились, так что
+ * выборка разблокированных задач не обходит граф. Добавление связи держит строку блокирующей задачи
+ * FOR SHARE: смена её статуса (FOR UPDATE) либо завершится раньше и пересчет связи увидит новый статус,
+ * либо дождется фиксации связи и сама пересчитает зависимую задачу.
+ */
+@Component
+public class TaskDependencies {
+    private static final long DEPENDENCY_LOCK_KEY = 490_049L;
+    private static final String REFRESH_UNBLOCKED_SQL =
+            "WITH target AS (SELECT t.id, NOT EXISTS (SELECT 1 FROM task_dependencies d JOIN tasks b ON b.id = d.blocker_id " +
+            "WHERE d.blocked_id = t.id AND b.status <> 'COMPLETED') AS unblocked FROM tasks t WHERE t.id = ANY (?)) " +
+            "UPDATE tasks t SET unblocked = target.unblocked, change_seq = NULL FROM target " +
+            "WHERE t.id = target.id AND t.unblocked <> target.unblocked";
+
+    private final JdbcTemplate jdbcTemplate;
+    private DependencyGraph graph;
+    private long loadedUpToId;
+
+    public TaskDependencies(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Добавляет связь "blockerId блокирует blockedId" и пересчитывает флаг blockedId.
+     *
+     * @throws ResponseStatusException 404, если блокирующей задачи нет; 409, если связь замкнула бы цикл
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(long blockerId, long blockedId) {
+        if (blockerId == blockedId) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Задача не может блокировать саму себя");
+        }
+        if (jdbcTemplate.queryForList("SELECT id FROM tasks WHERE id = ? FOR SHARE", Long.class, blockerId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Блокирующая задача не найдена");
+        }
+        lock();
+        synchronized (this) {
+            loadNewEdges();
+            if (!graph.addEdge(blockerId, blockedId)) {
+                reload();
+                if (!graph.addEdge(blockerId, blockedId)) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Зависимость образует цикл");
+                }
+            }
+            // Ребро уже в графе; если транзакция откатится, лишнее ребро лишь сделает проверку строже
+            List<Long> inserted = jdbcTemplate.queryForList("INSERT INTO task_dependencies (blocker_id, blocked_id, created_at) " +
+                            "VALUES (?, ?, ?) ON CONFLICT (blocker_id, blocked_id) DO NOTHING RETURNING id", Long.class,
+                    blockerId, blockedId, Timestamp.valueOf(LocalDateTime.now()));
+            inserted.forEach(id -> loadedUpToId = Math.max(loadedUpToId, id));
+        }
+        refreshUnblocked(List.of(blockedId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(long blockerId, long blockedId) {
+        lock();
+        int deleted = jdbcTemplate.update("DELETE FROM task_dependencies WHERE blocker_id = ? AND blocked_id = ?",
+                blockerId, blockedId);
+        if (deleted == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Зависимость не найдена");
+        }
+        updateGraph(graph -> graph.removeEdge(blockerId, blockedId));
+        refreshUnblocked(List.of(blockedId));
+    }
+
+    /**
+     * Удаляет связи задачи перед её удалением; задачи, которые она блокировала, пересчитываются.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeTask(long taskId) {
+        // Удаление задач без связей не ждет общую блокировку; связь к задаче, удаляемой под блокировкой
+        // строки, параллельно добавить нельзя - вставку остановит внешний ключ
+        Boolean linked = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM task_dependencies " +
+                "WHERE blocker_id = ? OR blocked_id = ?)", Boolean.class, taskId, taskId);
+        if (!Boolean.TRUE.equals(linked)) {
+            return;
+        }
+        lock();
+        List<Long> dependents = jdbcTemplate.queryForList("DELETE FROM task_dependencies WHERE blocker_id = ? OR blocked_id = ? " +
+                "RETURNING CASE WHEN blocker_id = ? THEN blocked_id END", Long.class, taskId, taskId, taskId);
+        dependents.removeIf(id -> id == null);
+        updateGraph(graph -> graph.removeNode(taskId));
+        refreshUnblocked(dependents);
+    }
+
+    /**
+     * Пересчитывает флаг задач, которые блокирует blockerId: вызывается, когда задача становится
+     * завершенной или перестает ею быть. Статус blockerId должен быть уже записан в БД.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshDependents(long blockerId) {
+        refreshUnblocked(jdbcTemplate.queryForList("SELECT blocked_id FROM task_dependencies WHERE blocker_id = ?",
+                Long.class, blockerId));
+    }
+
+    private void refreshUnblocked(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        Long[] ids = taskIds.toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(REFRESH_UNBLOCKED_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    private void loadNewEdges() {
+        if (graph == null) {
+            reload();
+            return;
+        }
+        List<long[]> edges = jdbcTemplate.query("SELECT id, blocker_id, blocked_id FROM task_dependencies WHERE id > ? ORDER BY id",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)}, loadedUpToId);
+        for (long[] edge : edges) {
+            // Ребро не встает только из-за ребер, удаленных другим узлом: граф устарел
+            if (!graph.addEdge(edge[1], edge[2])) {
+                reload();
+                return;
+            }
+            loadedUpToId = edge[0];
+        }
+    }
+
+    private void reload() {
+        long[] maxId = {0};
+        List<long[]> edges = jdbcTemplate.query("SELECT id, blocker_id, blocked_id FROM task_dependencies", (rs, rowNum) -> {
+            maxId[0] = Math.max(maxId[0], rs.getLong(1));
+            return new long[]{rs.getLong(2), rs.getLong(3)};
+        });
+        graph = DependencyGraph.of(edges);
+        loadedUpToId = maxId[0];
+    }
+
+    private void lock() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+        }, DEPENDENCY_LOCK_KEY);
+    }
+
+    /**
+     * Меняет граф сразу, под блокировкой; если транзакция не зафиксируется, граф сбрасывается.
+     */
+    private synchronized void updateGraph(Consumer<DependencyGraph> change) {
+        if (graph != null) {
+            change.accept(graph);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (TaskDependencies.this) {
+                        graph = null;
+                    }
+                }
+            }
+        });
+    }
+}
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 
+import java.time.LocalDateTime;
+
 @Data
 public class TaskCreateDTO {
     @NotBlank
@@ -16,5 +18,8 @@ public class TaskCreateDTO {
     @NotNull
     @Email
     private String executorEmail;
+    private LocalDateTime dueAt;
+    /** Родительская задача для подзадачи. */
+    private Long parentId;
 }
 
@@ -0,0 +1,34 @@
+package org.example.taskmanagementsystem.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TaskTemplateCreateDTO {
+    @NotBlank
+    private String title;
+    private String description;
+    @NotNull
+    private TaskPriority priority;
+    @NotNull
+    @Email
+    private String executorEmail;
+    @NotNull
+    private RecurrenceFrequency frequency;
+    @Min(1)
+    @Max(366)
+    private int interval = 1;
+    @NotNull
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    @Min(1)
+    private Integer dueAfterMinutes;
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 import org.example.taskmanagementsystem.entity.TaskStatus;
 
+import java.time.LocalDateTime;
+
 @Data
 public class TaskUpdateDTO {
     @NotBlank
@@ -18,4 +20,5 @@ public class TaskUpdateDTO {
     @NotNull
     @Email
     private String executorEmail;
+    private LocalDateTime dueAt;
 }
@@ -0,0 +1,19 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDTO {
+    private Long id;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String uploadedByEmail;
+    private LocalDateTime createdAt;
+}
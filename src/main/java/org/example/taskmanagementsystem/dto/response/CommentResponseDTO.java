@@ -1,8 +1,12 @@
 package org.example.taskmanagementsystem.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentResponseDTO {
     private Long id;
     private String content;
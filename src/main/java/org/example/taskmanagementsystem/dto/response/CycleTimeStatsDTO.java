@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleTimeStatsDTO {
+    private TaskStatus status;
+    private TaskPriority priority;
+    private Long executorId;
+    /** Число завершенных пребываний в статусе, по которым посчитаны квантили. */
+    private long count;
+    private long p50Millis;
+    private long p90Millis;
+    private long p99Millis;
+}
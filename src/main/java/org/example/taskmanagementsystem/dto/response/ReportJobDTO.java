@@ -0,0 +1,25 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskmanagementsystem.entity.ReportJobStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private Long id;
+    private ReportJobStatus status;
+    private LocalDate from;
+    private LocalDate to;
+    /** Количество строк готового отчета; null, пока отчет строится. */
+    private Long rowCount;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,17 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskActivityDayDTO {
+    private LocalDate day;
+    private long created;
+    private long completed;
+    private long commented;
+}
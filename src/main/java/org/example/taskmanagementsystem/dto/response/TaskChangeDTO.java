@@ -0,0 +1,22 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskChangeDTO {
+    public enum Type {
+        TASK_UPSERT, COMMENT_UPSERT, TASK_DELETED
+    }
+
+    private long seq;
+    private Type type;
+    private Long taskId;
+    private TaskResponseDTO task;
+    private CommentResponseDTO comment;
+}
@@ -0,0 +1,17 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesDTO {
+    private List<TaskChangeDTO> changes;
+    /** Значение since для следующего запроса. */
+    private long nextSince;
+    private boolean hasMore;
+}
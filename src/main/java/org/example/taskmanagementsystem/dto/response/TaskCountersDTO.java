@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCountersDTO {
+    /** null - по всем задачам. */
+    private Long executorId;
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<TaskPriority, Long> byPriority;
+    private Map<TaskStatus, Map<TaskPriority, Long>> byStatusAndPriority;
+}
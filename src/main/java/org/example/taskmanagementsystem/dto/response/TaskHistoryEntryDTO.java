@@ -0,0 +1,20 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryEntryDTO {
+    private Long id;
+    private String field;
+    private String oldValue;
+    private String newValue;
+    private Long actorId;
+    private String actorEmail;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,16 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryPageDTO {
+    private List<TaskHistoryEntryDTO> entries;
+    /** Значение before для следующей страницы; null, если записей больше нет. */
+    private Long nextCursor;
+}
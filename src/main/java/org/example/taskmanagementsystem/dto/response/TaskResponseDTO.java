@@ -1,9 +1,11 @@
 package org.example.taskmanagementsystem.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 import org.example.taskmanagementsystem.entity.TaskStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -15,6 +17,11 @@ public class TaskResponseDTO {
     private TaskPriority priority;
     private String authorEmail;
     private String executorEmail;
+    private Long parentId;
+    private LocalDateTime dueAt;
+    private int commentCount;
+    private LocalDateTime lastCommentAt;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<CommentResponseDTO> comments;
 
     public TaskResponseDTO(Long id, String title, String description, TaskStatus status, TaskPriority priority, String authorEmail, String executorEmail, List<CommentResponseDTO> comments) {
@@ -27,5 +34,12 @@ public class TaskResponseDTO {
         this.executorEmail = executorEmail;
         this.comments = comments;
     }
+    public TaskResponseDTO(Long id, String title, String description, TaskStatus status, TaskPriority priority, String authorEmail, String executorEmail, Long parentId, LocalDateTime dueAt, int commentCount, LocalDateTime lastCommentAt) {
+        this(id, title, description, status, priority, authorEmail, executorEmail, null);
+        this.parentId = parentId;
+        this.dueAt = dueAt;
+        this.commentCount = commentCount;
+        this.lastCommentAt = lastCommentAt;
+    }
     public TaskResponseDTO() {}
 }
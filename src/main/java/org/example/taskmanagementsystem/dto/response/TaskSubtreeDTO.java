@@ -0,0 +1,23 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSubtreeDTO {
+    private Long taskId;
+    /** Число подзадач всех уровней. */
+    private long total;
+    private long completed;
+    /** Доля завершенных подзадач; у задачи без подзадач - 100 или 0 по её собственному статусу. */
+    private int completionPercent;
+    /** Корень и подзадачи по возрастанию глубины. */
+    private List<TaskSubtreeNodeDTO> nodes;
+    /** Поддерево не поместилось в limit. */
+    private boolean truncated;
+}
@@ -0,0 +1,20 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSubtreeNodeDTO {
+    private Long id;
+    private Long parentId;
+    /** Глубина относительно корня поддерева; у самого корня 0. */
+    private int depth;
+    private String title;
+    private TaskStatus status;
+    private TaskPriority priority;
+}
@@ -0,0 +1,26 @@
+package org.example.taskmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTemplateDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private TaskPriority priority;
+    private String executorEmail;
+    private RecurrenceFrequency frequency;
+    private int interval;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private Integer dueAfterMinutes;
+    private LocalDateTime nextRunAt;
+}
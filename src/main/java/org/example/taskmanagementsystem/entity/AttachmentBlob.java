@@ -0,0 +1,34 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Содержимое вложения, адресуемое SHA-256. ref_count - число строк task_attachments с этим хешем;
+ * содержимое с нулевым счетчиком дольше {@code attachments.gc-grace} удаляет сборщик мусора.
+ */
+@Entity
+@Table(name = "attachment_blobs", indexes = @Index(name = "idx_attachment_blobs_zero_since", columnList = "zero_since"))
+@Getter
+@Setter
+public class AttachmentBlob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Момент, когда счетчик ссылок стал нулевым; NULL, пока ссылки есть. */
+    @Column(name = "zero_since")
+    private LocalDateTime zeroSince;
+}
@@ -1,13 +1,19 @@
 package org.example.taskmanagementsystem.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
-@Data
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_task_id", columnList = "task_id"),
+        @Index(name = "idx_comments_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_comments_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,5 +29,17 @@ public class Comment {
     @JoinColumn(name = "task_id", nullable = false)
     private Task task;
 
+    @Column(name = "task_id", insertable = false, updatable = false)
+    private Long taskId;
+
     private LocalDateTime createdAt;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @PrePersist
+    @PreUpdate
+    void resetChangeSeq() {
+        changeSeq = null;
+    }
 }
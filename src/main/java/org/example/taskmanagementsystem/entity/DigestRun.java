@@ -0,0 +1,29 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Отметка о ежедневной сводке за день. last_executor_id сдвигается в той же транзакции, что и
+ * запись пачки писем в outbox, поэтому повторный запуск в тот же день продолжает после последнего
+ * обработанного исполнителя, а после completed_at не отправляет ничего.
+ */
+@Entity
+@Table(name = "digest_runs")
+@Getter
+@Setter
+public class DigestRun {
+    @Id
+    @Column(name = "run_date")
+    private LocalDate runDate;
+
+    @Column(name = "last_executor_id")
+    private Long lastExecutorId;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanagementsystem.entity;
+
+public enum EmailOutboxStatus {
+    PENDING, SENDING, SENT, FAILED
+}
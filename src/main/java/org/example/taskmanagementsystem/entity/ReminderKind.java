@@ -0,0 +1,6 @@
+package org.example.taskmanagementsystem.entity;
+
+public enum ReminderKind {
+    BEFORE_DUE,
+    DUE
+}
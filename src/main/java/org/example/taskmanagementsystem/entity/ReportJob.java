@@ -0,0 +1,56 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Задание на построение отчета "задачи по исполнителям с количеством комментариев" за период
+ * [period_from, period_to]. Готовый файл лежит на узле {@code node}, который выполнял задание.
+ */
+@Entity
+@Table(name = "report_jobs")
+@Getter
+@Setter
+public class ReportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReportJobStatus status;
+
+    @Column(name = "period_from", nullable = false)
+    private LocalDate periodFrom;
+
+    @Column(name = "period_to", nullable = false)
+    private LocalDate periodTo;
+
+    @Column(name = "requested_by", nullable = false)
+    private Long requestedBy;
+
+    @Column(nullable = false)
+    private String node;
+
+    @Column(name = "file_path")
+    private String filePath;
+
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
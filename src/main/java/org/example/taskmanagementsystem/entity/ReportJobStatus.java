@@ -0,0 +1,5 @@
+package org.example.taskmanagementsystem.entity;
+
+public enum ReportJobStatus {
+    QUEUED, RUNNING, COMPLETED, FAILED
+}
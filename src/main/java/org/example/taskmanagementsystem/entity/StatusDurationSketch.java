@@ -0,0 +1,42 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сохраненная гистограмма времени пребывания задач в статусе для одной комбинации
+ * статус/приоритет/исполнитель. executor_id = 0 - задачи без исполнителя.
+ * Пишется {@link org.example.taskmanagementsystem.analytics.CycleTimeTracker}.
+ */
+@Entity
+@Table(name = "status_duration_sketches", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_status_duration_sketches_key", columnNames = {"status", "priority", "executor_id"})
+})
+@Getter
+@Setter
+public class StatusDurationSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(nullable = false, length = 32)
+    private String priority;
+
+    @Column(name = "executor_id", nullable = false)
+    private long executorId;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private byte[] buckets;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
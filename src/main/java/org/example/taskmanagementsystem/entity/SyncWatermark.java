@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Единственная строка: наибольший change_seq удаленных по сроку хранения следов.
+ * Курсор ниже этой отметки мог пропустить удаления.
+ */
+@Entity
+@Table(name = "sync_watermark")
+@Getter
+@Setter
+public class SyncWatermark {
+    @Id
+    private Integer id;
+
+    @Column(name = "purged_seq", nullable = false)
+    private long purgedSeq;
+}
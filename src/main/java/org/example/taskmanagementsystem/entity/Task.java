@@ -1,14 +1,24 @@
 package org.example.taskmanagementsystem.entity;
 
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
-@Data
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_executor_id", columnList = "executor_id"),
+        @Index(name = "idx_tasks_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_tasks_created_at", columnList = "created_at"),
+        @Index(name = "idx_tasks_due_at", columnList = "due_at"),
+        @Index(name = "idx_tasks_executor_unblocked", columnList = "executor_id, unblocked"),
+        @Index(name = "idx_tasks_parent_id", columnList = "parent_id")
+}, uniqueConstraints = @UniqueConstraint(name = "uk_tasks_template_occurrence", columnNames = {"template_id", "occurrence_at"}))
+@Getter
+@Setter
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,14 +35,88 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private TaskPriority priority;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
-    @ManyToOne
+    @Column(name = "author_id", insertable = false, updatable = false)
+    private Long authorId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "executor_id")
     private User executor;
 
+    @Column(name = "executor_id", insertable = false, updatable = false)
+    private Long executorId;
+
+    /**
+     * Родительская задача; NULL у задач верхнего уровня. Задается при создании, переносы и
+     * переподчинение при удалении родителя выполняет {@link org.example.taskmanagementsystem.hierarchy.TaskHierarchy}
+     * вместе с таблицей замыкания, поэтому из сущности колонка не обновляется.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id", updatable = false)
+    private Task parent;
+
+    @Column(name = "parent_id", insertable = false, updatable = false)
+    private Long parentId;
+
+    /** У задач, созданных до появления колонки, равен NULL. */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /** Срок выполнения; NULL - без срока. */
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    /**
+     * Все блокирующие задачи завершены (или их нет). Поддерживается только запросами
+     * {@link org.example.taskmanagementsystem.dependencies.TaskDependencies}, поэтому не обновляется из сущности.
+     */
+    @Column(name = "unblocked", nullable = false, updatable = false, columnDefinition = "boolean default true")
+    private boolean unblocked = true;
+
+    /**
+     * Шаблон и момент повторения, из которых создана задача; у обычных задач NULL. Уникальность
+     * пары делает повторное создание того же повторения пустой операцией.
+     */
+    @Column(name = "template_id")
+    private Long templateId;
+
+    @Column(name = "occurrence_at")
+    private LocalDateTime occurrenceAt;
+
+    /**
+     * Денормализованные счетчики комментариев. Меняются только атомарным UPDATE
+     * {@link org.example.taskmanagementsystem.repository.TaskRepository#incrementCommentCount}, поэтому из
+     * сущности не обновляются: сохранение задачи не должно затирать параллельно добавленный комментарий.
+     */
+    @Column(name = "comment_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int commentCount;
+
+    @Column(name = "last_comment_at", updatable = false)
+    private LocalDateTime lastCommentAt;
+
+    /**
+     * Момент перехода в текущий статус; по нему считается время пребывания в статусе.
+     * У задач, созданных до появления колонки, равен NULL.
+     */
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    /**
+     * Позиция последнего изменения в ленте синхронизации. NULL - изменение еще не упорядочено,
+     * номер проставляет {@link org.example.taskmanagementsystem.sync.ChangeSequencer}.
+     */
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void resetChangeSeq() {
+        changeSeq = null;
+    }
 }
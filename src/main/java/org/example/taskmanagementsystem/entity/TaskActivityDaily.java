@@ -0,0 +1,40 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Приращение дневной активности исполнителя. Строки только добавляются; значение за день -
+ * сумма строк дня. source: LIVE - из событий задач, BACKFILL - из существующих данных,
+ * COMPACTED - слитые строки прошедших дней. executor_id = 0 - задачи без исполнителя.
+ */
+@Entity
+@Table(name = "task_activity_daily", indexes = @Index(name = "idx_task_activity_daily_day_executor", columnList = "day, executor_id"))
+@Getter
+@Setter
+public class TaskActivityDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "executor_id", nullable = false)
+    private long executorId;
+
+    @Column(name = "created_count", nullable = false)
+    private int createdCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private int completedCount;
+
+    @Column(name = "commented_count", nullable = false)
+    private int commentedCount;
+
+    @Column(nullable = false, length = 16)
+    private String source;
+}
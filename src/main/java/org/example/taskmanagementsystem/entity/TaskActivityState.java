@@ -0,0 +1,34 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Единственная строка состояния дневной статистики. События до live_since учитывает
+ * заполнение по существующим данным, события начиная с live_since - поток событий задач.
+ */
+@Entity
+@Table(name = "task_activity_state")
+@Getter
+@Setter
+public class TaskActivityState {
+    @Id
+    private Integer id;
+
+    @Column(name = "live_since", nullable = false)
+    private LocalDateTime liveSince;
+
+    @Column(name = "backfill_started_at")
+    private LocalDateTime backfillStartedAt;
+
+    @Column(name = "backfilled_at")
+    private LocalDateTime backfilledAt;
+
+    /** Дни раньше этой даты уже слиты в одну строку на исполнителя. */
+    @Column(name = "compacted_before")
+    private LocalDate compactedBefore;
+}
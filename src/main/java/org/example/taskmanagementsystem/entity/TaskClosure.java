@@ -0,0 +1,36 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Строка таблицы замыкания иерархии задач: descendant находится в поддереве ancestor на глубине depth.
+ * Хранятся только пары с depth >= 1, сама задача в своё поддерево не записывается. Поддерживается
+ * {@link org.example.taskmanagementsystem.hierarchy.TaskHierarchy}.
+ */
+@Entity
+@Table(name = "task_closure",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_closure_ancestor_descendant", columnNames = {"ancestor_id", "descendant_id"}),
+        indexes = {
+                @Index(name = "idx_task_closure_ancestor_depth", columnList = "ancestor_id, depth, descendant_id"),
+                @Index(name = "idx_task_closure_descendant_id", columnList = "descendant_id")
+        })
+@Getter
+@Setter
+public class TaskClosure {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id", nullable = false)
+    private Task ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id", nullable = false)
+    private Task descendant;
+
+    @Column(nullable = false)
+    private int depth;
+}
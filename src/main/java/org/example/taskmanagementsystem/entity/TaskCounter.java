@@ -0,0 +1,37 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Одна полоса счетчика задач по исполнителю, статусу и приоритету. Значение счетчика -
+ * сумма всех полос (shard) ключа. executor_id = -1 - общий счетчик, 0 - задачи без исполнителя.
+ * Поддерживается {@link org.example.taskmanagementsystem.analytics.TaskCounters}.
+ */
+@Entity
+@Table(name = "task_counters", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_counters_key", columnNames = {"executor_id", "status", "priority", "shard"})
+})
+@Getter
+@Setter
+public class TaskCounter {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "executor_id", nullable = false)
+    private long executorId;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(nullable = false, length = 32)
+    private String priority;
+
+    @Column(nullable = false)
+    private int shard;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+}
@@ -0,0 +1,50 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка outbox-таблицы событий задач. Пишется и читается через JDBC
+ * ({@link org.example.taskmanagementsystem.events.TaskEventLog}), сущность описывает схему.
+ */
+@Entity
+@Table(name = "task_events", indexes = @Index(name = "idx_task_events_published_at_id", columnList = "published_at, id"))
+@Getter
+@Setter
+public class TaskEventEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 32)
+    private TaskEventType type;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "author_id")
+    private Long authorId;
+
+    @Column(name = "executor_id")
+    private Long executorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16)
+    private TaskStatus status;
+
+    @Column(name = "payload", columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
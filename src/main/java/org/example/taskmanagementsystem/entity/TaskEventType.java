@@ -0,0 +1,5 @@
+package org.example.taskmanagementsystem.entity;
+
+public enum TaskEventType {
+    TASK_CREATED, TASK_UPDATED, TASK_DELETED, STATUS_CHANGED, PRIORITY_CHANGED, COMMENT_ADDED
+}
@@ -0,0 +1,35 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запланированное напоминание исполнителю о сроке задачи. Строка существует, пока напоминание
+ * не отправлено: отправка удаляет её в одной транзакции с записью письма в outbox.
+ */
+@Entity
+@Table(name = "task_reminders", indexes = {
+        @Index(name = "idx_task_reminders_fire_at", columnList = "fire_at, id"),
+        @Index(name = "idx_task_reminders_task_id", columnList = "task_id")
+})
+@Getter
+@Setter
+public class TaskReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    private Task task;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReminderKind kind;
+
+    @Column(name = "fire_at", nullable = false)
+    private LocalDateTime fireAt;
+}
@@ -0,0 +1,69 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Шаблон повторяющейся задачи: повторения с шагом interval_count дней или недель от start_at.
+ * Задачи создаются заранее на горизонт планирования; next_run_at - первое еще не созданное
+ * повторение, NULL - повторения закончились.
+ */
+@Entity
+@Table(name = "task_templates", indexes = {
+        @Index(name = "idx_task_templates_next_run_at", columnList = "next_run_at"),
+        @Index(name = "idx_task_templates_author_id", columnList = "author_id")
+})
+@Getter
+@Setter
+public class TaskTemplate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(length = 5000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    @Column(name = "author_id", insertable = false, updatable = false)
+    private Long authorId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "executor_id", nullable = false)
+    private User executor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RecurrenceFrequency frequency;
+
+    @Column(name = "interval_count", nullable = false)
+    private int intervalCount;
+
+    @Column(name = "start_at", nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(name = "end_at")
+    private LocalDateTime endAt;
+
+    /** Срок созданной задачи в минутах от момента повторения; NULL - без срока. */
+    @Column(name = "due_after_minutes")
+    private Integer dueAfterMinutes;
+
+    @Column(name = "next_run_at")
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
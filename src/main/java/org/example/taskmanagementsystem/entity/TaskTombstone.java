@@ -0,0 +1,26 @@
+package org.example.taskmanagementsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * След удаленной задачи для ленты синхронизации; хранится {@code sync.tombstone-retention}.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = @Index(name = "idx_task_tombstones_change_seq", columnList = "change_seq"))
+@Getter
+@Setter
+public class TaskTombstone {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
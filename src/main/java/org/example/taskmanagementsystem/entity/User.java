@@ -46,6 +46,9 @@ public class User implements UserDetails {
 
     @Column(name = "code_sent_at")
     private LocalDateTime codeSentAt;
+
+    @Column(name = "digest_enabled", nullable = false, columnDefinition = "boolean default false")
+    private boolean digestEnabled;
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -0,0 +1,27 @@
+package org.example.taskmanagementsystem.events;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Публикует события внутри процесса: подписчики используют {@code @EventListener} на {@link TaskEvent}.
+ * <p>
+ * Живые подписки (SSE в {@link TaskEventStreamHub}, WebSocket досок) получают событие только на том узле,
+ * чей ретранслятор захватил пачку: захват идет с SKIP LOCKED, и узлы делят события, а не копируют их.
+ * Поэтому живая доставка рассчитана на один узел приложения. При нескольких узлах клиент, подключенный
+ * к другому узлу, увидит изменение только при дочитывании через {@code /tasks/changes}; для живой
+ * доставки там понадобится рассылка на все узлы (например, LISTEN/NOTIFY после фиксации пачки).
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventTaskEventSink implements TaskEventSink {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<TaskEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
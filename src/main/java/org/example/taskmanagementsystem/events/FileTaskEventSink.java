@@ -0,0 +1,49 @@
+package org.example.taskmanagementsystem.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в локальный файл в формате JSON Lines, по строке на событие.
+ */
+@Component
+@ConditionalOnProperty(name = "task-events.file.enabled", havingValue = "true", matchIfMissing = true)
+public class FileTaskEventSink implements TaskEventSink {
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileTaskEventSink(ObjectMapper objectMapper,
+                             @Value("${task-events.file.path}") Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<TaskEvent> events) throws IOException {
+        for (TaskEvent event : events) {
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.taskmanagementsystem.events;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Опубликованное событие задачи. {@code status} - статус задачи после изменения (null для удаления),
+ * {@code payload} - компактный JSON с деталями изменения.
+ */
+public record TaskEvent(long id,
+                        long taskId,
+                        TaskEventType type,
+                        Long actorId,
+                        Long authorId,
+                        Long executorId,
+                        TaskStatus status,
+                        @JsonRawValue String payload,
+                        LocalDateTime createdAt) {
+}
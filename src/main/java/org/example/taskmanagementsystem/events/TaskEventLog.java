@@ -0,0 +1,125 @@
+package org.example.taskmanagementsystem.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись и выборка событий задач в таблице {@code task_events}.
+ * <p>
+ * Событие добавляется одним INSERT в транзакции изменения (без сущности и flush контекста Hibernate),
+ * поэтому оно фиксируется ровно тогда, когда фиксируется само изменение.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskEventLog {
+    private static final String INSERT_SQL =
+            "INSERT INTO task_events (task_id, type, actor_id, author_id, executor_id, status, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Участники берутся из строки задачи, когда сервис их не загружал (условный UPDATE статуса)
+    private static final String INSERT_FROM_TASK_SQL =
+            "INSERT INTO task_events (task_id, type, actor_id, author_id, executor_id, status, payload, created_at) " +
+            "SELECT t.id, ?, ?, t.author_id, t.executor_id, t.status, ?, ? FROM tasks t WHERE t.id = ?";
+    private static final String CLAIM_SQL =
+            "SELECT id, task_id, type, actor_id, author_id, executor_id, status, payload, created_at FROM task_events " +
+            "WHERE published_at IS NULL ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Событие для пакетной записи {@link #appendAll(List)}.
+     */
+    public record NewEvent(Long taskId, Long authorId, Long executorId, TaskStatus status,
+                           TaskEventType type, Long actorId, Map<String, ?> payload) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long taskId, Long authorId, Long executorId, TaskStatus status,
+                       TaskEventType type, Long actorId, Map<String, ?> payload) {
+        jdbcTemplate.update(INSERT_SQL, taskId, type.name(), actorId, authorId, executorId,
+                status != null ? status.name() : null, toJson(payload), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Пакетная запись событий одним JDBC-батчем (драйвер переписывает его в многострочные INSERT).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<NewEvent> events) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, BATCH_SIZE, (ps, event) -> {
+            ps.setLong(1, event.taskId());
+            ps.setString(2, event.type().name());
+            ps.setObject(3, event.actorId());
+            ps.setObject(4, event.authorId());
+            ps.setObject(5, event.executorId());
+            ps.setString(6, event.status() != null ? event.status().name() : null);
+            ps.setString(7, toJson(event.payload()));
+            ps.setTimestamp(8, createdAt);
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendForTask(Long taskId, TaskEventType type, Long actorId, Map<String, ?> payload) {
+        jdbcTemplate.update(INSERT_FROM_TASK_SQL, type.name(), actorId,
+                toJson(payload), Timestamp.valueOf(LocalDateTime.now()), taskId);
+    }
+
+    /**
+     * Блокирует пачку неопубликованных событий до конца текущей транзакции; строки,
+     * захваченные другим узлом, пропускаются.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TaskEvent> claimUnpublished(int limit) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new TaskEvent(
+                rs.getLong("id"),
+                rs.getLong("task_id"),
+                TaskEventType.valueOf(rs.getString("type")),
+                rs.getObject("actor_id", Long.class),
+                rs.getObject("author_id", Long.class),
+                rs.getObject("executor_id", Long.class),
+                rs.getString("status") != null ? TaskStatus.valueOf(rs.getString("status")) : null,
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime()), limit);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markPublished(List<TaskEvent> events, LocalDateTime publishedAt) {
+        Long[] ids = events.stream().map(TaskEvent::id).toArray(Long[]::new);
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement("UPDATE task_events SET published_at = ? WHERE id = ANY (?)");
+            statement.setTimestamp(1, Timestamp.valueOf(publishedAt));
+            statement.setArray(2, connection.createArrayOf("bigint", ids));
+            return statement;
+        });
+    }
+
+    @Transactional
+    public int deletePublishedBefore(LocalDateTime publishedBefore) {
+        return jdbcTemplate.update("DELETE FROM task_events WHERE published_at < ?", Timestamp.valueOf(publishedBefore));
+    }
+
+    private String toJson(Map<String, ?> payload) {
+        if (payload == null || payload.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать событие задачи", e);
+        }
+    }
+}
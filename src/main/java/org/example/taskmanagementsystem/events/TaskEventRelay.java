@@ -0,0 +1,82 @@
+package org.example.taskmanagementsystem.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Публикует события из {@code task_events} во все {@link TaskEventSink} пачками.
+ * <p>
+ * Пачка захватывается, публикуется и помечается в одной транзакции: ошибка синка откатывает
+ * пометку, и пачка будет доставлена повторно ("как минимум один раз").
+ */
+@Component
+@Slf4j
+public class TaskEventRelay {
+    private final TaskEventLog taskEventLog;
+    private final List<TaskEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public TaskEventRelay(TaskEventLog taskEventLog,
+                          List<TaskEventSink> sinks,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${task-events.batch-size}") int batchSize,
+                          @Value("${task-events.retention}") Duration retention) {
+        this.taskEventLog = taskEventLog;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${task-events.poll-interval-ms}", fixedDelayString = "${task-events.poll-interval-ms}")
+    public void relay() {
+        int published;
+        try {
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Ошибка публикации событий задач, пачка будет повторена", e);
+        }
+    }
+
+    /**
+     * @return количество опубликованных событий
+     */
+    public int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<TaskEvent> events = taskEventLog.claimUnpublished(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            for (TaskEventSink sink : sinks) {
+                try {
+                    sink.publish(events);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Синк " + sink.getClass().getSimpleName() + " не принял события", e);
+                }
+            }
+            taskEventLog.markPublished(events, LocalDateTime.now());
+            return events.size();
+        });
+        return published != null ? published : 0;
+    }
+
+    @Scheduled(fixedRateString = "${task-events.cleanup-interval-ms}")
+    public void removePublishedEvents() {
+        int deleted = taskEventLog.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено {} опубликованных событий задач", deleted);
+        }
+    }
+}
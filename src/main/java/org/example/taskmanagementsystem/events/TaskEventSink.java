@@ -0,0 +1,11 @@
+package org.example.taskmanagementsystem.events;
+
+import java.util.List;
+
+/**
+ * Получатель событий задач. Пачка передается в порядке id; если синк бросает исключение,
+ * пачка не помечается опубликованной и будет доставлена повторно.
+ */
+public interface TaskEventSink {
+    void publish(List<TaskEvent> events) throws Exception;
+}
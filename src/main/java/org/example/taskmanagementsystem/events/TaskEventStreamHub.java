@@ -0,0 +1,196 @@
+package org.example.taskmanagementsystem.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка событий задач по SSE-подпискам автора и исполнителя.
+ * <p>
+ * Соединение держится асинхронным сервлетом ({@link SseEmitter}) и не занимает поток, пока
+ * событий нет. Публикация только кладет событие в ограниченный буфер подписки; запись в сокет
+ * делает небольшой пул писателей. Если буфер переполнен, клиент читает слишком медленно:
+ * соединение закрывается, и клиент дочитывает пропущенное через {@code /tasks/changes}.
+ * Подписки локальны для узла; см. {@link ApplicationEventTaskEventSink} об ограничении одним узлом.
+ */
+@Component
+@Slf4j
+public class TaskEventStreamHub {
+    // Маркер пинга в буфере подписки; события строятся при записи, SseEventBuilder не потокобезопасен
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService writers;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final int maxConnectionsPerUser;
+    private final Counter dropped;
+
+    public TaskEventStreamHub(MeterRegistry meterRegistry,
+                              @Value("${sse.buffer-size}") int bufferSize,
+                              @Value("${sse.writer-threads}") int writerThreads,
+                              @Value("${sse.timeout}") Duration timeout,
+                              @Value("${sse.max-connections-per-user}") int maxConnectionsPerUser) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-writer-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("sse.connections", connections, AtomicInteger::get).register(meterRegistry);
+        this.dropped = Counter.builder("sse.dropped").description("Закрытые медленные SSE-подписки").register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(userId, emitter);
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<Subscription> current = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            if (current.size() >= maxConnectionsPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Слишком много открытых подписок");
+            }
+            current.add(subscription);
+            return current;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(subscription::remove);
+        emitter.onTimeout(subscription::remove);
+        emitter.onError(error -> subscription.remove());
+        return emitter;
+    }
+
+    @EventListener
+    public void onTaskEvent(TaskEvent event) {
+        deliver(event.authorId(), event);
+        if (event.executorId() != null && !event.executorId().equals(event.authorId())) {
+            deliver(event.executorId(), event);
+        }
+    }
+
+    /**
+     * Комментарий-пинг: прокси не закрывают простаивающие соединения, а оборванные обнаруживаются при записи.
+     */
+    @Scheduled(fixedRateString = "${sse.heartbeat-interval-ms}")
+    public void heartbeat() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription ->
+                subscription.offer(HEARTBEAT)));
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private void deliver(Long userId, TaskEvent event) {
+        if (userId == null) {
+            return;
+        }
+        Set<Subscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        userSubscriptions.forEach(subscription -> subscription.offer(event));
+    }
+
+    private static SseEmitter.SseEventBuilder toSseEvent(Object message) {
+        if (message instanceof TaskEvent event) {
+            return SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.type().name())
+                    .data(event);
+        }
+        return SseEmitter.event().comment("ping");
+    }
+
+    private final class Subscription {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Object message) {
+            if (removed.get()) {
+                return;
+            }
+            if (!buffer.offer(message)) {
+                dropped.increment();
+                log.debug("SSE-подписка пользователя {} не успевает читать события и будет закрыта", userId);
+                remove();
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        // Не более одного писателя на подписку: порядок событий сохраняется
+        private void drain() {
+            try {
+                Object message;
+                while (!removed.get() && (message = buffer.poll()) != null) {
+                    emitter.send(toSseEvent(message));
+                }
+            } catch (IOException | IllegalStateException e) {
+                remove();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!buffer.isEmpty() && !removed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+                subscriptions.computeIfPresent(userId, (id, userSubscriptions) -> {
+                    userSubscriptions.remove(this);
+                    return userSubscriptions.isEmpty() ? null : userSubscriptions;
+                });
+            }
+        }
+    }
+}
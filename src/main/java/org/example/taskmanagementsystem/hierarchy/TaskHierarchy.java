@@ -0,0 +1,147 @@
+package org.example.taskmanagementsystem.hierarchy;
+
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeNodeDTO;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Иерархия задач (родитель - подзадачи) в таблице замыкания {@code task_closure}.
+ * <p>
+ * Для каждой задачи хранятся пары со всеми её предками, поэтому поддерево любой глубины и сводный
+ * прогресс читаются одним запросом по индексу (ancestor_id, depth), без рекурсивного обхода. Перенос
+ * поддерева удаляет пары "внешний предок - узел поддерева" и вставляет произведение новых предков на
+ * узлы поддерева. Переносы и переподчинение при удалении родителя берут исключительную advisory-блокировку,
+ * вставка новых задач - разделяемую: вставка копирует строки предков родителя и не должна пересечься
+ * с их перестройкой.
+ */
+@Component
+public class TaskHierarchy {
+    private static final long HIERARCHY_LOCK_KEY = 500_050L;
+    private static final String DETACH_SQL =
+            "DELETE FROM task_closure WHERE ancestor_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ?) " +
+            "AND (descendant_id = ? OR descendant_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = ?))";
+    private static final String ATTACH_SQL =
+            "WITH up AS (SELECT ancestor_id AS id, depth FROM task_closure WHERE descendant_id = ? " +
+            "UNION ALL SELECT CAST(? AS bigint), 0), " +
+            "down AS (SELECT descendant_id AS id, depth FROM task_closure WHERE ancestor_id = ? " +
+            "UNION ALL SELECT CAST(? AS bigint), 0) " +
+            "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+            "SELECT up.id, down.id, up.depth + down.depth + 1 FROM up CROSS JOIN down";
+    private static final String SUBTREE_SQL =
+            "SELECT * FROM (SELECT t.id, t.parent_id, 0 AS depth, t.title, t.status, t.priority FROM tasks t WHERE t.id = ? " +
+            "UNION ALL (SELECT t.id, t.parent_id, c.depth, t.title, t.status, t.priority FROM task_closure c " +
+            "JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = ? ORDER BY c.depth, c.descendant_id LIMIT ?)) s " +
+            "ORDER BY depth, id";
+    private static final String ROLLUP_SQL =
+            "SELECT count(*), count(*) FILTER (WHERE t.status = 'COMPLETED') FROM task_closure c " +
+            "JOIN tasks t ON t.id = c.descendant_id WHERE c.ancestor_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskHierarchy(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Записывает пары предков только что созданной подзадачи.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void attachNew(long taskId, long parentId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> {
+        }, HIERARCHY_LOCK_KEY);
+        jdbcTemplate.update(ATTACH_SQL, parentId, parentId, taskId, taskId);
+    }
+
+    /**
+     * Переносит задачу вместе с поддеревом под newParentId; null делает её задачей верхнего уровня.
+     *
+     * @return false, если задача уже находится под этим родителем
+     * @throws ResponseStatusException 409, если новый родитель лежит в поддереве задачи
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean move(long taskId, Long newParentId) {
+        lockExclusive();
+        if (newParentId != null) {
+            Boolean insideSubtree = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM task_closure " +
+                    "WHERE ancestor_id = ? AND descendant_id = ?)", Boolean.class, taskId, newParentId);
+            if (newParentId == taskId || Boolean.TRUE.equals(insideSubtree)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Нельзя перенести задачу в её собственное поддерево");
+            }
+        }
+        Long currentParentId = jdbcTemplate.queryForObject("SELECT parent_id FROM tasks WHERE id = ?", Long.class, taskId);
+        if (Objects.equals(currentParentId, newParentId)) {
+            return false;
+        }
+        jdbcTemplate.update(DETACH_SQL, taskId, taskId, taskId);
+        if (newParentId != null) {
+            jdbcTemplate.update(ATTACH_SQL, newParentId, newParentId, taskId, taskId);
+        }
+        jdbcTemplate.update("UPDATE tasks SET parent_id = ?, change_seq = NULL WHERE id = ?", newParentId, taskId);
+        return true;
+    }
+
+    /**
+     * Убирает задачу из иерархии перед её удалением. Подзадачи переходят к её родителю, глубина
+     * их поддеревьев относительно прежних предков уменьшается на единицу.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeTask(long taskId) {
+        Boolean hasChildren = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM tasks WHERE parent_id = ?)",
+                Boolean.class, taskId);
+        if (!Boolean.TRUE.equals(hasChildren)) {
+            // У листа удаляются только его строки; разделяемая блокировка не дает пересечься с переносом предков
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?)", rs -> {
+            }, HIERARCHY_LOCK_KEY);
+            jdbcTemplate.update("DELETE FROM task_closure WHERE descendant_id = ?", taskId);
+            return;
+        }
+        lockExclusive();
+        jdbcTemplate.update("UPDATE task_closure SET depth = depth - 1 " +
+                "WHERE ancestor_id IN (SELECT ancestor_id FROM task_closure WHERE descendant_id = ?) " +
+                "AND descendant_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = ?)", taskId, taskId);
+        jdbcTemplate.update("DELETE FROM task_closure WHERE ancestor_id = ? OR descendant_id = ?", taskId, taskId);
+        jdbcTemplate.update("UPDATE tasks SET parent_id = (SELECT parent_id FROM tasks WHERE id = ?), change_seq = NULL " +
+                "WHERE parent_id = ?", taskId, taskId);
+    }
+
+    /**
+     * Корень и не больше limit подзадач по возрастанию глубины вместе со сводным прогрессом всего поддерева.
+     */
+    public TaskSubtreeDTO subtree(long taskId, int limit) {
+        List<TaskSubtreeNodeDTO> nodes = jdbcTemplate.query(SUBTREE_SQL, (rs, rowNum) -> new TaskSubtreeNodeDTO(
+                rs.getLong("id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getInt("depth"),
+                rs.getString("title"),
+                rs.getString("status") != null ? TaskStatus.valueOf(rs.getString("status")) : null,
+                rs.getString("priority") != null ? TaskPriority.valueOf(rs.getString("priority")) : null),
+                taskId, taskId, limit + 1);
+        if (nodes.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена");
+        }
+        boolean truncated = nodes.size() > limit + 1;
+        if (truncated) {
+            nodes = nodes.subList(0, limit + 1);
+        }
+        long[] rollup = jdbcTemplate.queryForObject(ROLLUP_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, taskId);
+        int percent = rollup[0] > 0
+                ? (int) (rollup[1] * 100 / rollup[0])
+                : nodes.get(0).getStatus() == TaskStatus.COMPLETED ? 100 : 0;
+        return new TaskSubtreeDTO(taskId, rollup[0], rollup[1], percent, nodes, truncated);
+    }
+
+    private void lockExclusive() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+        }, HIERARCHY_LOCK_KEY);
+    }
+}
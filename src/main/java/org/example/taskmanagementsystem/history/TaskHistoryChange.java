@@ -0,0 +1,12 @@
+package org.example.taskmanagementsystem.history;
+
+/**
+ * Изменение одного поля задачи; значения хранятся строками (для исполнителя - id пользователя).
+ */
+public record TaskHistoryChange(String field, String oldValue, String newValue) {
+    public static TaskHistoryChange of(String field, Object oldValue, Object newValue) {
+        return new TaskHistoryChange(field,
+                oldValue != null ? oldValue.toString() : null,
+                newValue != null ? newValue.toString() : null);
+    }
+}
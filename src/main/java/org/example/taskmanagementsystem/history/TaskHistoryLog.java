@@ -0,0 +1,59 @@
+package org.example.taskmanagementsystem.history;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryEntryDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Журнал изменений задач: только вставки, в транзакции самого изменения.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskHistoryLog {
+    private static final String INSERT_SQL =
+            "INSERT INTO task_history (task_id, field, old_value, new_value, actor_id, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+    // Курсор по id: страница не зависит от сдвигов, как OFFSET, и читается по индексу (task_id, id)
+    private static final String PAGE_SQL =
+            "SELECT h.id, h.field, h.old_value, h.new_value, h.actor_id, u.email, h.changed_at " +
+            "FROM task_history h LEFT JOIN users u ON u.id = h.actor_id " +
+            "WHERE h.task_id = ? AND h.id < ? ORDER BY h.id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long taskId, Long actorId, List<TaskHistoryChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, taskId);
+            ps.setString(2, change.field());
+            ps.setString(3, change.oldValue());
+            ps.setString(4, change.newValue());
+            ps.setObject(5, actorId);
+            ps.setTimestamp(6, changedAt);
+        });
+    }
+
+    /**
+     * @param before id, с которого начинается страница (не включительно); null - с последней записи
+     */
+    public List<TaskHistoryEntryDTO> findPage(Long taskId, Long before, int limit) {
+        return jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> new TaskHistoryEntryDTO(
+                rs.getLong("id"),
+                rs.getString("field"),
+                rs.getString("old_value"),
+                rs.getString("new_value"),
+                rs.getObject("actor_id", Long.class),
+                rs.getString("email"),
+                rs.getTimestamp("changed_at").toLocalDateTime()), taskId, before != null ? before : Long.MAX_VALUE, limit);
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.taskmanagementsystem.history;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Схема {@code task_history}: таблица секционирована по месяцам (RANGE по changed_at), поэтому
+ * вставка затрагивает только небольшую текущую секцию, а старые месяцы можно отсоединить целиком.
+ * Hibernate не создает секционированные таблицы, поэтому DDL выполняется здесь.
+ * <p>
+ * Секция по умолчанию принимает строки, для месяца которых секции еще нет (обслуживание не
+ * запускалось, часы узла ушли вперед), вместо ошибки вставки в транзакции изменения задачи.
+ * При создании секции месяца такие строки переносятся в неё.
+ */
+@Component
+@Slf4j
+public class TaskHistoryPartitions {
+    private static final Pattern PARTITION_NAME = Pattern.compile("task_history_y(\\d{4})m(\\d{2})");
+    private static final String DEFAULT_PARTITION = "task_history_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int detachAfterMonths;
+
+    public TaskHistoryPartitions(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${task-history.months-ahead}") int monthsAhead,
+                                 @Value("${task-history.detach-after-months}") int detachAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS task_history (" +
+                "id bigserial NOT NULL, " +
+                "task_id bigint NOT NULL, " +
+                "field varchar(32) NOT NULL, " +
+                "old_value varchar(5000), " +
+                "new_value varchar(5000), " +
+                "actor_id bigint, " +
+                "changed_at timestamp NOT NULL, " +
+                "PRIMARY KEY (id, changed_at)" +
+                ") PARTITION BY RANGE (changed_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_history_task_id_id ON task_history (task_id, id)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF task_history DEFAULT");
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${task-history.maintenance-cron}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            ensurePartition(current.plusMonths(i));
+        }
+        if (detachAfterMonths > 0) {
+            detachBefore(current.minusMonths(detachAfterMonths));
+        }
+    }
+
+    /**
+     * Создает секцию месяца, если её еще нет. Строки этого месяца, попавшие в секцию по умолчанию,
+     * переносятся в новую секцию одной транзакцией: PostgreSQL не создает секцию поверх них.
+     */
+    public void ensurePartition(YearMonth month) {
+        String partition = partitionName(month);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        try {
+            Boolean stray = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION +
+                    " WHERE changed_at >= ? AND changed_at < ?)", Boolean.class,
+                    Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+            if (!Boolean.TRUE.equals(stray)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF task_history" + bounds);
+                return;
+            }
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE task_history INCLUDING DEFAULTS)");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE changed_at >= ? AND changed_at < ? RETURNING *) INSERT INTO " + partition +
+                        " SELECT * FROM moved", Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+                jdbcTemplate.execute("ALTER TABLE task_history ATTACH PARTITION " + partition + bounds);
+                return rows;
+            });
+            log.warn("Секция истории {} создана, из секции по умолчанию перенесено строк: {}", partition, moved);
+        } catch (DataAccessException e) {
+            // Другой узел создал секцию одновременно с нами; строки по умолчанию перенесет следующий запуск
+            log.debug("Секция {} не создана: {}", partition, e.getMessage());
+        }
+    }
+
+    /**
+     * Отсоединенная секция остается обычной таблицей: её можно выгрузить в архив и удалить отдельно.
+     */
+    private void detachBefore(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'task_history'::regclass", String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE task_history DETACH PARTITION " + partition);
+                log.info("Секция истории {} отсоединена", partition);
+            }
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("task_history_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
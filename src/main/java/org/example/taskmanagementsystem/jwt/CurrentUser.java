@@ -0,0 +1,19 @@
+package org.example.taskmanagementsystem.jwt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Текущий пользователь запроса. Заполняется в JwtFilter из claims access токена,
+ * поэтому id пользователя доступен без запроса к таблице users.
+ */
+@Component
+@RequestScope
+@Getter
+@Setter
+public class CurrentUser {
+    private Long id;
+    private String email;
+}
@@ -1,10 +1,12 @@
 package org.example.taskmanagementsystem.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.config.RouteClassifier;
 import org.example.taskmanagementsystem.service.TokenBlacklistService;
 import org.example.taskmanagementsystem.service.UserService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,7 +17,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -23,25 +24,12 @@ public class JwtFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserService userService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final RouteClassifier routeClassifier;
+    private final CurrentUser currentUser;
 
-    private static final List<String> PUBLIC_URLS = List.of(
-            "/v2/api-docs",
-            "/v3/api-docs",
-            "/v3/api-docs/**",
-            "/swagger-resources",
-            "/swagger-resources/**",
-            "/swagger-ui/**",
-            "/swagger-ui.html",
-            "/api/auth/**"
-    );
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String requestUri = request.getRequestURI();
-
-        boolean isPublicUrl = PUBLIC_URLS.stream()
-                .anyMatch(publicUrl -> publicUrl.equals(requestUri) || matchWithWildcard(publicUrl, requestUri));
-
-        if (isPublicUrl) {
+        if (routeClassifier.isPublic(request)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -55,18 +43,20 @@ public class JwtFilter extends OncePerRequestFilter {
                     response.getWriter().write("Token is invalid (logged out)");
                     return;
                 }
-                String username = jwtService.extractUsername(token);
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Claims claims = jwtService.parseClaims(token);
+                String username = claims.getSubject();
+                if (username != null && jwtService.isAccessToken(claims)
+                        && SecurityContextHolder.getContext().getAuthentication() == null) {
                     UserDetails userDetails = userService.loadUserByUsername(username);
-                    if (jwtService.validateToken(token, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    currentUser.setId(jwtService.extractUserId(claims));
+                    currentUser.setEmail(username);
                 }
             } catch (Exception e) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -76,15 +66,4 @@ public class JwtFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-    private boolean matchWithWildcard(String pattern, String requestUri) {
-        if (pattern.endsWith("/**")) {
-            String basePattern = pattern.substring(0, pattern.length() - 3);
-            return requestUri.startsWith(basePattern);
-        }
-        if (pattern.endsWith("/*")) {
-            String basePattern = pattern.substring(0, pattern.length() - 2);
-            return requestUri.startsWith(basePattern) && !requestUri.substring(basePattern.length()).contains("/");
-        }
-        return false;
-    }
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package org.example.taskmanagementsystem.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,6 +25,16 @@ public class JwtService {
     @Value("${jwt.secret}")
     private String secret;
 
+    private Key signKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        signKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -51,9 +63,10 @@ public class JwtService {
                 .compact();
     }
 
-    public Map<String, String> generateTokens(String userName, String role) {
+    public Map<String, String> generateTokens(Long userId, String userName, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        claims.put("uid", userId);
         String accessToken = createToken(claims, userName, ACCESS_TOKEN_VALIDITY, "access");
         String refreshToken = createToken(claims, userName, REFRESH_TOKEN_VALIDITY, "refresh");
         Map<String, String> tokens = new HashMap<>();
@@ -62,11 +75,15 @@ public class JwtService {
         return tokens;
     }
 
+    /**
+     * Разбирает токен один раз: проверяет подпись и срок действия и возвращает все claims.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -84,12 +101,20 @@ public class JwtService {
     }
 
 
+    public boolean isAccessToken(Claims claims) {
+        return "access".equals(claims.get("typ", String.class));
+    }
+
+    public Long extractUserId(Claims claims) {
+        Number userId = claims.get("uid", Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
     public Boolean validateRefreshToken(String token) {
         return !isTokenExpired(token);
     }
     private Key getSignKey() {
-        byte[] keyBytes= Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signKey;
     }
 
     @Bean
@@ -0,0 +1,18 @@
+package org.example.taskmanagementsystem.mail;
+
+/**
+ * Итог отправки письма через {@link EmailDispatcher}. Вызывается в потоке воркера.
+ */
+public interface EmailDeliveryCallback {
+    EmailDeliveryCallback NONE = new EmailDeliveryCallback() {
+    };
+
+    default void onDelivered() {
+    }
+
+    /**
+     * Все попытки исчерпаны либо письмо отброшено.
+     */
+    default void onFailed(Exception cause) {
+    }
+}
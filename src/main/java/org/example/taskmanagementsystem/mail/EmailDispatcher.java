@@ -0,0 +1,267 @@
+package org.example.taskmanagementsystem.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Неблокирующая отправка писем: ограниченная очередь и пул воркеров.
+ * <p>
+ * Каждый воркер держит собственное SMTP-соединение и переиспользует его для всех писем,
+ * пока оно живо; простаивающее дольше {@code idle-connection-timeout} соединение закрывается.
+ * Неудачная отправка повторяется с экспоненциальной задержкой (с джиттером) до
+ * {@code max-attempts} попыток. Метрики: {@code email.queue.depth}, {@code email.send.latency},
+ * {@code email.sent}, {@code email.retried}, {@code email.failed}.
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+    private final JavaMailSenderImpl mailSender;
+    private final String from;
+    private final int workers;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long idleConnectionTimeoutMillis;
+    private final BlockingQueue<Envelope> queue;
+    private final ScheduledExecutorService retryScheduler;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private final Timer sendLatency;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private volatile boolean running;
+
+    private record Envelope(EmailMessage message, EmailDeliveryCallback callback, int attempt) {
+    }
+
+    public EmailDispatcher(JavaMailSenderImpl mailSender,
+                           MeterRegistry meterRegistry,
+                           @Value("${spring.mail.username:}") String from,
+                           @Value("${email.dispatch.queue-capacity}") int queueCapacity,
+                           @Value("${email.dispatch.workers}") int workers,
+                           @Value("${email.dispatch.max-attempts}") int maxAttempts,
+                           @Value("${email.dispatch.initial-backoff}") Duration initialBackoff,
+                           @Value("${email.dispatch.max-backoff}") Duration maxBackoff,
+                           @Value("${email.dispatch.idle-connection-timeout}") Duration idleConnectionTimeout) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.idleConnectionTimeoutMillis = idleConnectionTimeout.toMillis();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("email.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.sendLatency = Timer.builder("email.send.latency").register(meterRegistry);
+        this.sent = Counter.builder("email.sent").register(meterRegistry);
+        this.retried = Counter.builder("email.retried").register(meterRegistry);
+        this.failed = Counter.builder("email.failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::runWorker, "email-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workerThreads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerThreads.forEach(Thread::interrupt);
+        for (Thread thread : workerThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ставит письмо в очередь, не блокируясь.
+     *
+     * @return false, если очередь переполнена
+     */
+    public boolean submit(EmailMessage message) {
+        return submit(message, EmailDeliveryCallback.NONE);
+    }
+
+    /**
+     * Ставит письмо в очередь и сообщает итог отправки через {@code callback}.
+     *
+     * @return false, если очередь переполнена (callback в этом случае не вызывается)
+     */
+    public boolean submit(EmailMessage message, EmailDeliveryCallback callback) {
+        return queue.offer(new Envelope(message, callback, 1));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    private void runWorker() {
+        Transport transport = null;
+        try {
+            while (running) {
+                Envelope envelope = queue.poll(idleConnectionTimeoutMillis, TimeUnit.MILLISECONDS);
+                if (envelope == null) {
+                    transport = close(transport);
+                    continue;
+                }
+                transport = deliver(transport, envelope);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(transport);
+        }
+    }
+
+    /**
+     * Отправляет письмо через открытое соединение воркера. Если переиспользуемое соединение
+     * оказалось закрыто сервером, письмо сразу повторяется через новое соединение.
+     *
+     * @return соединение для следующего письма (null, если его пришлось закрыть)
+     */
+    private Transport deliver(Transport transport, Envelope envelope) {
+        boolean reused = transport != null;
+        long start = System.nanoTime();
+        try {
+            if (transport == null) {
+                transport = connect();
+            }
+            send(transport, envelope, start);
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            transport = close(transport);
+            if (!reused) {
+                scheduleRetry(envelope, e);
+                return null;
+            }
+        }
+        try {
+            transport = connect();
+            send(transport, envelope, start);
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            scheduleRetry(envelope, e);
+            return close(transport);
+        }
+    }
+
+    private void send(Transport transport, Envelope envelope, long start) throws MessagingException {
+        MimeMessage mimeMessage = toMimeMessage(envelope.message());
+        transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+        sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sent.increment();
+        report(envelope, null);
+    }
+
+    private void report(Envelope envelope, Exception failure) {
+        try {
+            if (failure == null) {
+                envelope.callback().onDelivered();
+            } else {
+                envelope.callback().onFailed(failure);
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка в обработчике результата отправки письма на {}", envelope.message().to(), e);
+        }
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return transport;
+    }
+
+    private Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Ошибка при закрытии SMTP-соединения", e);
+            }
+        }
+        return null;
+    }
+
+    private MimeMessage toMimeMessage(EmailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+        if (from != null && !from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(message.to());
+        helper.setSubject(message.subject());
+        helper.setText(message.text());
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private void scheduleRetry(Envelope envelope, Exception cause) {
+        if (envelope.attempt() >= maxAttempts || !running) {
+            failed.increment();
+            log.error("Не удалось отправить письмо на {} после {} попыток", envelope.message().to(), envelope.attempt(), cause);
+            report(envelope, cause);
+            return;
+        }
+        long delay = backoffMillis(envelope.attempt());
+        log.warn("Ошибка отправки письма на {} (попытка {}), повтор через {} мс: {}",
+                envelope.message().to(), envelope.attempt(), delay, cause.getMessage());
+        retried.increment();
+        Envelope next = new Envelope(envelope.message(), envelope.callback(), envelope.attempt() + 1);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(next)) {
+                failed.increment();
+                log.error("Очередь писем переполнена, письмо на {} отброшено", next.message().to());
+                report(next, new IllegalStateException("Очередь писем переполнена"));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private long backoffMillis(int attempt) {
+        long exponential = initialBackoffMillis << Math.min(attempt - 1, 30);
+        long capped = Math.min(exponential <= 0 ? maxBackoffMillis : exponential, maxBackoffMillis);
+        long jitter = capped / 5;
+        return capped - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+    }
+}
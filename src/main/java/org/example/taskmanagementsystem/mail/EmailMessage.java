@@ -0,0 +1,4 @@
+package org.example.taskmanagementsystem.mail;
+
+public record EmailMessage(String to, String subject, String text) {
+}
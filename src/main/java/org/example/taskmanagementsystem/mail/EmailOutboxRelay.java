@@ -0,0 +1,102 @@
+package org.example.taskmanagementsystem.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.entity.EmailOutbox;
+import org.example.taskmanagementsystem.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Переносит письма из таблицы {@code email_outbox} в {@link EmailDispatcher}.
+ * <p>
+ * Строки захватываются пачками с арендой {@code lease}: если узел упадет, не дождавшись
+ * результата, после истечения аренды письмо заберет другой узел. Доставка поэтому
+ * "как минимум один раз". Аренда должна превышать время всех повторов диспетчера.
+ */
+@Component
+@Slf4j
+public class EmailOutboxRelay {
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retention;
+
+    public EmailOutboxRelay(EmailOutboxRepository emailOutboxRepository,
+                            EmailDispatcher emailDispatcher,
+                            @Value("${email.outbox.batch-size}") int batchSize,
+                            @Value("${email.outbox.lease}") Duration lease,
+                            @Value("${email.outbox.retention}") Duration retention) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailDispatcher = emailDispatcher;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${email.outbox.poll-interval-ms}", fixedDelayString = "${email.outbox.poll-interval-ms}")
+    public void relay() {
+        int claimed;
+        do {
+            claimed = relayBatch();
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * @return количество захваченных строк
+     */
+    int relayBatch() {
+        // Не берем больше, чем поместится в очередь диспетчера, чтобы строки не висели в аренде зря
+        int limit = Math.min(batchSize, emailDispatcher.remainingCapacity());
+        if (limit <= 0) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.claimBatch(now, now.plus(lease), limit);
+        List<Long> rejected = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            EmailMessage message = new EmailMessage(email.getRecipient(), email.getSubject(), email.getBody());
+            if (!emailDispatcher.submit(message, new OutboxCallback(email.getId()))) {
+                rejected.add(email.getId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            emailOutboxRepository.release(rejected);
+            return 0;
+        }
+        return batch.size();
+    }
+
+    @Scheduled(fixedRateString = "${email.outbox.cleanup-interval-ms}")
+    public void removeSentEmails() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Удалено {} отправленных писем из outbox", deleted);
+        }
+    }
+
+    private class OutboxCallback implements EmailDeliveryCallback {
+        private final Long id;
+
+        OutboxCallback(Long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void onDelivered() {
+            emailOutboxRepository.markSent(id, LocalDateTime.now());
+        }
+
+        @Override
+        public void onFailed(Exception cause) {
+            String error = String.valueOf(cause.getMessage());
+            emailOutboxRepository.markFailed(id, error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+    }
+}
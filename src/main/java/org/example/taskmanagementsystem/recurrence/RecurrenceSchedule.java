@@ -0,0 +1,30 @@
+package org.example.taskmanagementsystem.recurrence;
+
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Повторения шаблона: start, start + period, start + 2 * period, ... где period - interval дней или недель.
+ */
+public final class RecurrenceSchedule {
+    private RecurrenceSchedule() {
+    }
+
+    public static long periodDays(RecurrenceFrequency frequency, int interval) {
+        return (long) frequency.getDays() * interval;
+    }
+
+    /**
+     * Первое повторение не раньше notBefore. Считается без перебора, поэтому давний start ничего не стоит.
+     */
+    public static LocalDateTime firstNotBefore(LocalDateTime start, long periodDays, LocalDateTime notBefore) {
+        if (!start.isBefore(notBefore)) {
+            return start;
+        }
+        long periods = ChronoUnit.DAYS.between(start, notBefore) / periodDays;
+        LocalDateTime occurrence = start.plusDays(periods * periodDays);
+        return occurrence.isBefore(notBefore) ? occurrence.plusDays(periodDays) : occurrence;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.taskmanagementsystem.recurrence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.analytics.TaskCounters;
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEventLog;
+import org.example.taskmanagementsystem.reminders.TaskReminders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Создает задачи по шаблонам повторения на {@code recurrence.horizon} вперед.
+ * <p>
+ * Берутся только шаблоны, чье следующее повторение попадает в горизонт (индекс по next_run_at),
+ * пачками с SKIP LOCKED, так что узлы делят работу. Повторения пачки вставляются запросами по
+ * {@code recurrence.insert-batch-size} строк: поля шаблона подставляет сама вставка через JOIN,
+ * а от приложения передаются три массива (шаблон, момент, срок). Счетчики, события и напоминания
+ * созданных задач пишутся такими же пакетами в той же транзакции, что и сдвиг next_run_at.
+ */
+@Component
+@Slf4j
+public class TaskTemplateMaterializer {
+    private static final String CLAIM_SQL =
+            "SELECT id, frequency, interval_count, end_at, due_after_minutes, next_run_at " +
+            "FROM task_templates WHERE next_run_at < ? ORDER BY next_run_at LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (title, description, status, priority, author_id, executor_id, created_at, " +
+            "status_changed_at, due_at, comment_count, template_id, occurrence_at) " +
+            "SELECT tt.title, tt.description, 'WAITING', tt.priority, tt.author_id, tt.executor_id, ?, ?, o.due_at, 0, " +
+            "tt.id, o.occurrence_at FROM unnest(?, ?, ?) AS o(template_id, occurrence_at, due_at) " +
+            "JOIN task_templates tt ON tt.id = o.template_id " +
+            "ON CONFLICT (template_id, occurrence_at) DO NOTHING " +
+            "RETURNING id, template_id, author_id, executor_id, priority, due_at";
+
+    private record Template(long id, RecurrenceFrequency frequency, int interval, LocalDateTime endAt, Integer dueAfterMinutes, LocalDateTime nextRunAt) {
+    }
+
+    private record Occurrence(long templateId, LocalDateTime occurrenceAt, LocalDateTime dueAt) {
+    }
+
+    private record Created(long taskId, long templateId, long authorId, long executorId, TaskPriority priority, LocalDateTime dueAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskCounters taskCounters;
+    private final TaskEventLog taskEventLog;
+    private final TaskReminders taskReminders;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int templateBatchSize;
+    private final int insertBatchSize;
+
+    public TaskTemplateMaterializer(JdbcTemplate jdbcTemplate,
+                                    TaskCounters taskCounters,
+                                    TaskEventLog taskEventLog,
+                                    TaskReminders taskReminders,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${recurrence.horizon}") Duration horizon,
+                                    @Value("${recurrence.template-batch-size}") int templateBatchSize,
+                                    @Value("${recurrence.insert-batch-size}") int insertBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskCounters = taskCounters;
+        this.taskEventLog = taskEventLog;
+        this.taskReminders = taskReminders;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.templateBatchSize = templateBatchSize;
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    @Scheduled(initialDelayString = "${recurrence.interval-ms}", fixedDelayString = "${recurrence.interval-ms}")
+    public void materialize() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        int claimed;
+        int created = 0;
+        do {
+            int[] batch = transactionTemplate.execute(status -> materializeBatch(until));
+            claimed = batch[0];
+            created += batch[1];
+        } while (claimed == templateBatchSize);
+        if (created > 0) {
+            log.info("Создано задач по шаблонам повторения: {}", created);
+        }
+    }
+
+    /**
+     * @return количество захваченных шаблонов и созданных задач
+     */
+    private int[] materializeBatch(LocalDateTime until) {
+        List<Template> templates = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new Template(
+                rs.getLong("id"),
+                RecurrenceFrequency.valueOf(rs.getString("frequency")),
+                rs.getInt("interval_count"),
+                rs.getTimestamp("end_at") != null ? rs.getTimestamp("end_at").toLocalDateTime() : null,
+                rs.getObject("due_after_minutes", Integer.class),
+                rs.getTimestamp("next_run_at").toLocalDateTime()), Timestamp.valueOf(until), templateBatchSize);
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        List<Object[]> nextRuns = new ArrayList<>(templates.size());
+        for (Template template : templates) {
+            long periodDays = RecurrenceSchedule.periodDays(template.frequency(), template.interval());
+            LocalDateTime occurrence = template.nextRunAt();
+            while (occurrence.isBefore(until) && (template.endAt() == null || !occurrence.isAfter(template.endAt()))) {
+                LocalDateTime dueAt = template.dueAfterMinutes() != null
+                        ? occurrence.plusMinutes(template.dueAfterMinutes()) : null;
+                occurrences.add(new Occurrence(template.id(), occurrence, dueAt));
+                occurrence = occurrence.plusDays(periodDays);
+            }
+            boolean finished = template.endAt() != null && occurrence.isAfter(template.endAt());
+            nextRuns.add(new Object[]{new SqlParameterValue(Types.TIMESTAMP, finished ? null : Timestamp.valueOf(occurrence)),
+                    template.id()});
+        }
+
+        int created = 0;
+        for (int from = 0; from < occurrences.size(); from += insertBatchSize) {
+            created += insert(occurrences.subList(from, Math.min(from + insertBatchSize, occurrences.size())));
+        }
+        if (!nextRuns.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE task_templates SET next_run_at = ? WHERE id = ?", nextRuns);
+        }
+        return new int[]{templates.size(), created};
+    }
+
+    private int insert(List<Occurrence> occurrences) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long[] templateIds = new Long[occurrences.size()];
+        Timestamp[] occurrenceAts = new Timestamp[occurrences.size()];
+        Timestamp[] dueAts = new Timestamp[occurrences.size()];
+        for (int i = 0; i < occurrences.size(); i++) {
+            Occurrence occurrence = occurrences.get(i);
+            templateIds[i] = occurrence.templateId();
+            occurrenceAts[i] = Timestamp.valueOf(occurrence.occurrenceAt());
+            dueAts[i] = occurrence.dueAt() != null ? Timestamp.valueOf(occurrence.dueAt()) : null;
+        }
+        // Повторения, уже созданные раньше, пропускает ON CONFLICT и не возвращает RETURNING
+        List<Created> created = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(INSERT_SQL);
+            statement.setTimestamp(1, now);
+            statement.setTimestamp(2, now);
+            statement.setArray(3, connection.createArrayOf("bigint", templateIds));
+            statement.setArray(4, connection.createArrayOf("timestamp", occurrenceAts));
+            statement.setArray(5, connection.createArrayOf("timestamp", dueAts));
+            return statement;
+        }, (rs, rowNum) -> new Created(
+                rs.getLong("id"),
+                rs.getLong("template_id"),
+                rs.getLong("author_id"),
+                rs.getLong("executor_id"),
+                TaskPriority.valueOf(rs.getString("priority")),
+                rs.getTimestamp("due_at") != null ? rs.getTimestamp("due_at").toLocalDateTime() : null));
+        if (created.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, TaskCounters.Key> counterKeys = new HashMap<>();
+        Map<Long, LocalDateTime> dueAtByTaskId = new LinkedHashMap<>();
+        List<TaskEventLog.NewEvent> events = new ArrayList<>(created.size());
+        for (Created task : created) {
+            counterKeys.put(task.taskId(), new TaskCounters.Key(task.executorId(), TaskStatus.WAITING, task.priority()));
+            if (task.dueAt() != null) {
+                dueAtByTaskId.put(task.taskId(), task.dueAt());
+            }
+            events.add(new TaskEventLog.NewEvent(task.taskId(), task.authorId(), task.executorId(), TaskStatus.WAITING,
+                    TaskEventType.TASK_CREATED, task.authorId(),
+                    Map.of("status", TaskStatus.WAITING, "priority", task.priority(), "templateId", task.templateId())));
+        }
+        taskCounters.addCreated(counterKeys);
+        taskEventLog.appendAll(events);
+        if (!dueAtByTaskId.isEmpty()) {
+            taskReminders.scheduleCreated(dueAtByTaskId);
+        }
+        return created.size();
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.taskmanagementsystem.reminders;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.entity.ReminderKind;
+import org.example.taskmanagementsystem.mail.EmailMessage;
+import org.example.taskmanagementsystem.service.EmailService;
+import org.example.taskmanagementsystem.util.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Отправляет напоминания из {@code task_reminders} в срок.
+ * <p>
+ * Напоминания ближайшего окна {@code reminders.window} лежат в памяти в иерархическом колесе таймеров,
+ * поэтому тик стоит O(1) независимо от числа ожидающих напоминаний. Окно дочитывается по индексу
+ * (fire_at, id) с курсора, на котором остановилась прошлая загрузка: таблица целиком не опрашивается,
+ * а в памяти не больше {@code reminders.max-loaded} напоминаний.
+ * <p>
+ * Каждый узел загружает одни и те же строки. Отправка захватывает строку, удаляя её с SKIP LOCKED
+ * в одной транзакции с записью письма в outbox, поэтому письмо уходит ровно с одного узла.
+ * Строки, добавленные другим узлом позади курсора, и напоминания, чья отправка не удалась,
+ * подбирает проверка просроченных: строки старше {@code reminders.overdue-grace} по индексу fire_at.
+ */
+@Component
+@Slf4j
+public class ReminderScheduler {
+    private static final String SUBJECT = "Task Management System Reminder";
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String LOAD_FIRST_SQL =
+            "SELECT id, fire_at FROM task_reminders WHERE fire_at < ? ORDER BY fire_at, id LIMIT ?";
+    private static final String LOAD_NEXT_SQL =
+            "SELECT id, fire_at FROM task_reminders WHERE (fire_at, id) > (?, ?) AND fire_at < ? ORDER BY fire_at, id LIMIT ?";
+    private static final String OVERDUE_SQL =
+            "SELECT id FROM task_reminders WHERE fire_at < ? ORDER BY fire_at, id LIMIT ?";
+    private static final String CLAIM_SQL =
+            "WITH claimed AS (DELETE FROM task_reminders WHERE id IN (" +
+            "SELECT id FROM task_reminders WHERE id = ANY (?) AND fire_at <= ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING task_id, kind) " +
+            "SELECT c.kind, t.id, t.title, t.due_at, u.email FROM claimed c " +
+            "JOIN tasks t ON t.id = c.task_id JOIN users u ON u.id = t.executor_id " +
+            "WHERE t.status <> 'COMPLETED' AND u.is_verified = true";
+
+    /**
+     * Напоминание, загруженное или только что запланированное.
+     */
+    public record Reminder(long id, LocalDateTime fireAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Duration window;
+    private final Duration overdueGrace;
+    private final int loadBatchSize;
+    private final int maxLoaded;
+    private final int claimBatchSize;
+    // Курсор загрузки: все строки до него включительно уже в колесе или отправлены
+    private LocalDateTime cursorFireAt;
+    private long cursorId;
+
+    public ReminderScheduler(JdbcTemplate jdbcTemplate,
+                             EmailService emailService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${reminders.tick-ms}") long tickMillis,
+                             @Value("${reminders.wheel-size}") int wheelSize,
+                             @Value("${reminders.wheel-levels}") int wheelLevels,
+                             @Value("${reminders.window}") Duration window,
+                             @Value("${reminders.overdue-grace}") Duration overdueGrace,
+                             @Value("${reminders.load-batch-size}") int loadBatchSize,
+                             @Value("${reminders.max-loaded}") int maxLoaded,
+                             @Value("${reminders.claim-batch-size}") int claimBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, wheelLevels, System.currentTimeMillis());
+        if (window.toMillis() > wheel.spanMillis()) {
+            throw new IllegalArgumentException("reminders.window превышает охват колеса таймеров");
+        }
+        this.window = window;
+        this.overdueGrace = overdueGrace;
+        this.loadBatchSize = loadBatchSize;
+        this.maxLoaded = maxLoaded;
+        this.claimBatchSize = claimBatchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.tick-ms}")
+    public void tick() {
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        deliver(due);
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.load-interval-ms}")
+    public void load() {
+        deliverOverdue();
+        LocalDateTime horizon = LocalDateTime.now().plus(window);
+        List<Reminder> batch;
+        do {
+            LocalDateTime fromFireAt;
+            long fromId;
+            synchronized (this) {
+                if (wheel.size() >= maxLoaded) {
+                    return;
+                }
+                fromFireAt = cursorFireAt;
+                fromId = cursorId;
+            }
+            batch = fromFireAt == null
+                    ? jdbcTemplate.query(LOAD_FIRST_SQL, this::mapReminder, Timestamp.valueOf(horizon), loadBatchSize)
+                    : jdbcTemplate.query(LOAD_NEXT_SQL, this::mapReminder,
+                            Timestamp.valueOf(fromFireAt), fromId, Timestamp.valueOf(horizon), loadBatchSize);
+            List<Long> due = new ArrayList<>();
+            synchronized (this) {
+                for (Reminder reminder : batch) {
+                    if (!wheel.add(toEpochMillis(reminder.fireAt()), reminder.id())) {
+                        due.add(reminder.id());
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    Reminder last = batch.get(batch.size() - 1);
+                    cursorFireAt = last.fireAt();
+                    cursorId = last.id();
+                }
+            }
+            deliver(due);
+        } while (batch.size() == loadBatchSize);
+    }
+
+    /**
+     * Ставит в колесо напоминание, созданное на этом узле позади курсора; остальные дочитает загрузка.
+     */
+    public synchronized void register(Reminder reminder) {
+        if (cursorFireAt == null) {
+            return;
+        }
+        int order = reminder.fireAt().compareTo(cursorFireAt);
+        if (order < 0 || (order == 0 && reminder.id() <= cursorId)) {
+            // Если срок уже наступил, напоминание отправит проверка просроченных
+            wheel.add(toEpochMillis(reminder.fireAt()), reminder.id());
+        }
+    }
+
+    private void deliverOverdue() {
+        List<Long> overdue;
+        do {
+            overdue = jdbcTemplate.queryForList(OVERDUE_SQL, Long.class,
+                    Timestamp.valueOf(LocalDateTime.now().minus(overdueGrace)), claimBatchSize);
+        } while (deliver(overdue) == claimBatchSize);
+    }
+
+    /**
+     * @return количество захваченных напоминаний
+     */
+    private int deliver(List<Long> ids) {
+        int claimed = 0;
+        for (int from = 0; from < ids.size(); from += claimBatchSize) {
+            Long[] chunk = ids.subList(from, Math.min(from + claimBatchSize, ids.size())).toArray(Long[]::new);
+            try {
+                Integer sent = transactionTemplate.execute(status -> claimAndSend(chunk));
+                claimed += sent != null ? sent : 0;
+            } catch (DataAccessException e) {
+                // Строки остались в таблице, их подберет проверка просроченных
+                log.warn("Не удалось отправить {} напоминаний", chunk.length, e);
+            }
+        }
+        return claimed;
+    }
+
+    private int claimAndSend(Long[] ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<EmailMessage> messages = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(CLAIM_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setTimestamp(2, now);
+            return statement;
+        }, (rs, rowNum) -> toMessage(ReminderKind.valueOf(rs.getString(1)), rs.getLong(2), rs.getString(3),
+                rs.getTimestamp(4), rs.getString(5)));
+        if (!messages.isEmpty()) {
+            emailService.sendEmails(messages);
+        }
+        return messages.size();
+    }
+
+    private static EmailMessage toMessage(ReminderKind kind, long taskId, String title, Timestamp dueAt, String email) {
+        String due = kind == ReminderKind.DUE || dueAt == null
+                ? "is due now."
+                : "is due at " + dueAt.toLocalDateTime().format(DUE_FORMAT) + ".";
+        return new EmailMessage(email, SUBJECT, "Task #" + taskId + " \"" + title + "\" " + due);
+    }
+
+    private Reminder mapReminder(ResultSet rs, int rowNum) throws SQLException {
+        return new Reminder(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
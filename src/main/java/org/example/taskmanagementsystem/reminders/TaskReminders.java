@@ -0,0 +1,101 @@
+package org.example.taskmanagementsystem.reminders;
+
+import org.example.taskmanagementsystem.entity.ReminderKind;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Строки напоминаний задачи в {@code task_reminders}. Меняются в транзакции задачи: напоминание
+ * за {@code reminders.lead} до срока и в момент срока, только будущие и только для незавершенных задач.
+ */
+@Component
+public class TaskReminders {
+    private final JdbcTemplate jdbcTemplate;
+    private final ReminderScheduler reminderScheduler;
+    private final Duration lead;
+
+    public TaskReminders(JdbcTemplate jdbcTemplate,
+                         ReminderScheduler reminderScheduler,
+                         @Value("${reminders.lead}") Duration lead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reminderScheduler = reminderScheduler;
+        this.lead = lead;
+    }
+
+    /**
+     * Заменяет напоминания задачи напоминаниями для срока dueAt.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void schedule(long taskId, LocalDateTime dueAt, TaskStatus status) {
+        cancel(taskId);
+        if (dueAt == null || status == TaskStatus.COMPLETED) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("INSERT INTO task_reminders (task_id, kind, fire_at) VALUES ");
+        LocalDateTime beforeDue = dueAt.minus(lead);
+        if (beforeDue.isAfter(now)) {
+            sql.append("(?, ?, ?), ");
+            args.addAll(List.of(taskId, ReminderKind.BEFORE_DUE.name(), Timestamp.valueOf(beforeDue)));
+        }
+        if (dueAt.isAfter(now)) {
+            sql.append("(?, ?, ?), ");
+            args.addAll(List.of(taskId, ReminderKind.DUE.name(), Timestamp.valueOf(dueAt)));
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        sql.setLength(sql.length() - 2);
+        sql.append(" RETURNING id, fire_at");
+        List<ReminderScheduler.Reminder> inserted = jdbcTemplate.query(sql.toString(), (rs, rowNum) ->
+                new ReminderScheduler.Reminder(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()), args.toArray());
+        // Узел сразу ставит напоминание в свое колесо; другие узлы подхватят строку при загрузке окна
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                inserted.forEach(reminderScheduler::register);
+            }
+        });
+    }
+
+    /**
+     * Пакетно планирует напоминания только что созданных задач. В колесо узла они не ставятся:
+     * напоминания дальше загруженного окна дочитает загрузка, ближе - проверка просроченных.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void scheduleCreated(Map<Long, LocalDateTime> dueAtByTaskId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        dueAtByTaskId.forEach((taskId, dueAt) -> {
+            LocalDateTime beforeDue = dueAt.minus(lead);
+            if (beforeDue.isAfter(now)) {
+                rows.add(new Object[]{taskId, ReminderKind.BEFORE_DUE.name(), Timestamp.valueOf(beforeDue)});
+            }
+            if (dueAt.isAfter(now)) {
+                rows.add(new Object[]{taskId, ReminderKind.DUE.name(), Timestamp.valueOf(dueAt)});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO task_reminders (task_id, kind, fire_at) VALUES (?, ?, ?)", rows);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancel(long taskId) {
+        jdbcTemplate.update("DELETE FROM task_reminders WHERE task_id = ?", taskId);
+    }
+}
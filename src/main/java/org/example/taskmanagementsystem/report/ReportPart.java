@@ -0,0 +1,9 @@
+package org.example.taskmanagementsystem.report;
+
+import java.nio.file.Path;
+
+/**
+ * Файл с частью отчета и количество строк в нем.
+ */
+public record ReportPart(Path file, long rows) {
+}
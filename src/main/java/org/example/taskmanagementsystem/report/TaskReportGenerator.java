@@ -0,0 +1,195 @@
+package org.example.taskmanagementsystem.report;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Строит CSV-отчет "задачи по исполнителям с количеством комментариев" за период.
+ * <p>
+ * Диапазон id задач периода делится пополам, пока отрезок не станет не больше {@code chunk-size};
+ * отрезки считаются параллельно в отдельном {@link ForkJoinPool}, и каждый пишет строки в свой
+ * файл-часть по мере чтения курсора. Части затем склеиваются по порядку через
+ * {@link FileChannel#transferTo}, поэтому отчет целиком никогда не держится в памяти.
+ */
+@Component
+public class TaskReportGenerator {
+    static final String HEADER = "task_id,executor_email,title,status,priority,created_at,comment_count\n";
+    private static final String ID_RANGE_SQL =
+            "SELECT MIN(id), MAX(id) FROM tasks WHERE created_at >= ? AND created_at < ?";
+    private static final String CHUNK_SQL =
+            "SELECT t.id, e.email, t.title, t.status, t.priority, t.created_at, t.comment_count " +
+            "FROM tasks t LEFT JOIN users e ON e.id = t.executor_id " +
+            "WHERE t.id >= ? AND t.id < ? AND t.created_at >= ? AND t.created_at < ? ORDER BY t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readTransaction;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final int fetchSize;
+
+    public TaskReportGenerator(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${reports.parallelism}") int parallelism,
+                               @Value("${reports.chunk-size}") long chunkSize,
+                               @Value("${reports.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Параллелизм ограничивает и число соединений с БД, занятых одним отчетом
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Записывает отчет в target.
+     *
+     * @return итоговый файл и количество строк без заголовка
+     */
+    public ReportPart generate(LocalDate from, LocalDate to, Path target) throws IOException {
+        Timestamp lower = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp upper = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL, (rs, rowNum) ->
+                rs.getObject(1) != null ? new long[]{rs.getLong(1), rs.getLong(2) + 1} : null, lower, upper);
+        Path partsDirectory = Files.createTempDirectory(target.getParent(), target.getFileName() + ".parts");
+        try {
+            List<ReportPart> parts = range == null ? List.of()
+                    : pool.invoke(new ChunkTask(range[0], range[1], lower, upper, partsDirectory));
+            return concatenate(parts, target);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            try (Stream<Path> files = Files.list(partsDirectory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(partsDirectory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static ReportPart concatenate(List<ReportPart> parts, Path target) throws IOException {
+        long rows = 0;
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(StandardCharsets.UTF_8.encode(HEADER));
+            for (ReportPart part : parts) {
+                try (FileChannel in = FileChannel.open(part.file(), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+                rows += part.rows();
+            }
+        }
+        return new ReportPart(target, rows);
+    }
+
+    private class ChunkTask extends RecursiveTask<List<ReportPart>> {
+        private final long fromId;
+        private final long toId;
+        private final Timestamp lower;
+        private final Timestamp upper;
+        private final Path directory;
+
+        ChunkTask(long fromId, long toId, Timestamp lower, Timestamp upper, Path directory) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.lower = lower;
+            this.upper = upper;
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<ReportPart> compute() {
+            if (toId - fromId <= chunkSize) {
+                return List.of(writePart());
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            ChunkTask left = new ChunkTask(fromId, middle, lower, upper, directory);
+            ChunkTask right = new ChunkTask(middle, toId, lower, upper, directory);
+            left.fork();
+            List<ReportPart> rightParts = right.compute();
+            List<ReportPart> parts = new ArrayList<>(left.join());
+            parts.addAll(rightParts);
+            return parts;
+        }
+
+        private ReportPart writePart() {
+            Path file = directory.resolve(fromId + "-" + toId + ".csv");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                long[] rows = new long[1];
+                // Курсор PostgreSQL работает только внутри транзакции и с заданным fetch size
+                readTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(CHUNK_SQL);
+                    statement.setFetchSize(fetchSize);
+                    statement.setLong(1, fromId);
+                    statement.setLong(2, toId);
+                    statement.setTimestamp(3, lower);
+                    statement.setTimestamp(4, upper);
+                    return statement;
+                }, rs -> {
+                    writeRow(writer, rs);
+                    rows[0]++;
+                }));
+                return new ReportPart(file, rows[0]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void writeRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            writer.write(Long.toString(rs.getLong(1)));
+            for (int column = 2; column <= 7; column++) {
+                writer.write(',');
+                writer.write(csv(rs.getString(column)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,7 +1,12 @@
 package org.example.taskmanagementsystem.repository;
 
+import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
 import org.example.taskmanagementsystem.entity.Comment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +14,11 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByTask_Id(Long taskId);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByChangeSeqGreaterThanOrderByChangeSeq(Long since, Limit limit);
+
+    @Query("SELECT new org.example.taskmanagementsystem.dto.response.CommentResponseDTO(c.id, c.content, a.email) " +
+            "FROM Comment c JOIN c.author a WHERE c.task.id = :taskId ORDER BY c.id")
+    List<CommentResponseDTO> findResponsesByTaskId(@Param("taskId") Long taskId);
 }
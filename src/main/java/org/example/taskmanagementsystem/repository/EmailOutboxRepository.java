@@ -0,0 +1,57 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    /**
+     * Захватывает пачку писем одним запросом: новые строки и строки с истекшей арендой
+     * (узел упал во время отправки). SKIP LOCKED позволяет нескольким узлам разбирать
+     * таблицу параллельно, не блокируя друг друга и не захватывая одну строку дважды.
+     */
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET status = 'SENDING', locked_until = :leaseUntil, attempts = attempts + 1 " +
+            "WHERE id IN (SELECT id FROM email_outbox " +
+            "WHERE status = 'PENDING' OR (status = 'SENDING' AND locked_until < :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *", nativeQuery = true)
+    List<EmailOutbox> claimBatch(@Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = org.example.taskmanagementsystem.entity.EmailOutboxStatus.SENT, " +
+            "o.sentAt = :sentAt, o.lockedUntil = null, o.lastError = null WHERE o.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = org.example.taskmanagementsystem.entity.EmailOutboxStatus.FAILED, " +
+            "o.lockedUntil = null, o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Возвращает захваченные строки в очередь, если их не удалось передать отправителю.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox o SET o.status = org.example.taskmanagementsystem.entity.EmailOutboxStatus.PENDING, " +
+            "o.lockedUntil = null, o.attempts = o.attempts - 1 WHERE o.id IN :ids")
+    int release(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox o WHERE o.status = org.example.taskmanagementsystem.entity.EmailOutboxStatus.SENT " +
+            "AND o.sentAt < :sentBefore")
+    int deleteSentBefore(@Param("sentBefore") LocalDateTime sentBefore);
+}
@@ -0,0 +1,47 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = org.example.taskmanagementsystem.entity.ReportJobStatus.RUNNING, " +
+            "j.startedAt = :startedAt WHERE j.id = :id")
+    int markRunning(@Param("id") Long id, @Param("startedAt") LocalDateTime startedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = org.example.taskmanagementsystem.entity.ReportJobStatus.COMPLETED, " +
+            "j.filePath = :filePath, j.rowCount = :rowCount, j.finishedAt = :finishedAt WHERE j.id = :id")
+    int markCompleted(@Param("id") Long id, @Param("filePath") String filePath,
+                      @Param("rowCount") long rowCount, @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = org.example.taskmanagementsystem.entity.ReportJobStatus.FAILED, " +
+            "j.error = :error, j.finishedAt = :finishedAt WHERE j.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error, @Param("finishedAt") LocalDateTime finishedAt);
+
+    /**
+     * Незавершенные задания узла: после перезапуска их уже никто не выполняет.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = org.example.taskmanagementsystem.entity.ReportJobStatus.FAILED, " +
+            "j.error = :error, j.finishedAt = :finishedAt WHERE j.node = :node " +
+            "AND j.status IN (org.example.taskmanagementsystem.entity.ReportJobStatus.QUEUED, " +
+            "org.example.taskmanagementsystem.entity.ReportJobStatus.RUNNING)")
+    int failUnfinished(@Param("node") String node, @Param("error") String error, @Param("finishedAt") LocalDateTime finishedAt);
+
+    List<ReportJob> findByNodeAndFinishedAtBefore(String node, LocalDateTime finishedBefore);
+}
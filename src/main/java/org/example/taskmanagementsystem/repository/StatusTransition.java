@@ -0,0 +1,14 @@
+package org.example.taskmanagementsystem.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Результат условного перехода статуса: прежний статус, приоритет и срок задачи и сколько она
+ * пробыла в прежнем статусе. elapsedMillis равен NULL, если момент входа в статус неизвестен.
+ */
+public interface StatusTransition {
+    String getPreviousStatus();
+    String getPriority();
+    LocalDateTime getDueAt();
+    Long getElapsedMillis();
+}
@@ -0,0 +1,29 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.entity.TaskAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+    @Query("SELECT new org.example.taskmanagementsystem.dto.response.AttachmentDTO(" +
+            "a.id, a.fileName, a.contentType, a.size, u.email, a.createdAt) " +
+            "FROM TaskAttachment a JOIN a.uploadedBy u WHERE a.taskId = :taskId ORDER BY a.id")
+    List<AttachmentDTO> findResponsesByTaskId(@Param("taskId") Long taskId);
+
+    Optional<TaskAttachment> findByIdAndTaskId(Long id, Long taskId);
+
+    @Query("SELECT a.storageKey FROM TaskAttachment a WHERE a.taskId = :taskId")
+    List<String> findStorageKeysByTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskAttachment a WHERE a.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
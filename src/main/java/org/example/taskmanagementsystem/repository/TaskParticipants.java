@@ -0,0 +1,12 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+/**
+ * Узкая проекция задачи для проверок прав: внешние ключи автора и исполнителя и статус для событий.
+ */
+public interface TaskParticipants {
+    Long getAuthorId();
+    Long getExecutorId();
+    TaskStatus getStatus();
+}
@@ -1,13 +1,91 @@
 package org.example.taskmanagementsystem.repository;
 
+import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
 import org.example.taskmanagementsystem.entity.Task;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+    @Override
+    @EntityGraph(attributePaths = {"author", "executor"})
+    Page<Task> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "executor"})
     Page<Task> findByAuthor_Id(Long authorId, Pageable pageable);
+
+    /**
+     * Незавершенные задачи исполнителя, у которых все блокирующие задачи завершены.
+     */
+    @EntityGraph(attributePaths = {"author", "executor"})
+    Page<Task> findByExecutor_IdAndUnblockedTrueAndStatusNot(Long executorId, TaskStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"author", "executor"})
+    Optional<Task> findWithUsersById(Long id);
+
+    Optional<TaskParticipants> findParticipantsById(Long id);
+
+    @Query("SELECT t.parentId FROM Task t WHERE t.id = :id")
+    Long findParentIdById(@Param("id") Long id);
+
+    /**
+     * Блокирует строку задачи до конца транзакции: изменение, читающее прежнее состояние для
+     * счетчиков, не должно пересечься с параллельным изменением той же задачи.
+     */
+    @Query(value = "SELECT id FROM tasks WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"author", "executor"})
+    List<Task> findByChangeSeqGreaterThanOrderByChangeSeq(Long since, Limit limit);
+
+    /**
+     * Условный переход статуса одним UPDATE, возвращающий прежний статус для журнала изменений,
+     * время пребывания в нём для аналитики и срок задачи для напоминаний. Пустой результат означает, что задачи нет,
+     * текущий пользователь не является её исполнителем либо задача уже в этом статусе.
+     * <p>
+     * Запрос возвращает строки (RETURNING), поэтому выполняется как выборка, без {@code @Modifying}, и
+     * контекст персистентности не очищается. Это безопасно, пока вызывающий код не загрузил сущность
+     * этой задачи до вызова: {@code TaskServiceImpl.updateTaskStatus} начинает с этого UPDATE, а всё
+     * остальное читает и пишет после него через JDBC или DTO-запросы, минуя устаревшую сущность.
+     */
+    @Query(value = "UPDATE tasks t SET status = :status, status_changed_at = :now, change_seq = NULL " +
+            "FROM (SELECT id, status, status_changed_at FROM tasks WHERE id = :id AND executor_id = :executorId FOR UPDATE) previous " +
+            "WHERE t.id = previous.id AND previous.status IS DISTINCT FROM :status RETURNING previous.status AS previousStatus, t.priority AS priority, t.due_at AS dueAt, " +
+            "CAST(EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - previous.status_changed_at)) * 1000 AS bigint) AS elapsedMillis",
+            nativeQuery = true)
+    Optional<StatusTransition> updateStatusForExecutor(@Param("id") Long id, @Param("executorId") Long executorId,
+                                                       @Param("status") String status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new org.example.taskmanagementsystem.dto.response.TaskResponseDTO(" +
+            "t.id, t.title, t.description, t.status, t.priority, a.email, e.email, t.parentId, t.dueAt, t.commentCount, t.lastCommentAt) " +
+            "FROM Task t JOIN t.author a LEFT JOIN t.executor e WHERE t.id = :id")
+    Optional<TaskResponseDTO> findResponseById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE tasks SET comment_count = comment_count + 1, last_comment_at = :commentedAt, change_seq = NULL " +
+            "WHERE id = :id", nativeQuery = true)
+    int incrementCommentCount(@Param("id") Long id, @Param("commentedAt") LocalDateTime commentedAt);
+
+    /**
+     * Пересчитывает счетчики для задач, созданных до появления колонок comment_count/last_comment_at.
+     */
+    @Modifying
+    @Query(value = "UPDATE tasks t SET comment_count = (SELECT count(*) FROM comments c WHERE c.task_id = t.id), " +
+            "last_comment_at = (SELECT max(c.created_at) FROM comments c WHERE c.task_id = t.id) " +
+            "WHERE t.last_comment_at IS NULL AND EXISTS (SELECT 1 FROM comments c WHERE c.task_id = t.id)",
+            nativeQuery = true)
+    int backfillCommentCounters();
 }
@@ -0,0 +1,18 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.dto.response.TaskTemplateDTO;
+import org.example.taskmanagementsystem.entity.TaskTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskTemplateRepository extends JpaRepository<TaskTemplate, Long> {
+    @Query("SELECT new org.example.taskmanagementsystem.dto.response.TaskTemplateDTO(" +
+            "t.id, t.title, t.description, t.priority, e.email, t.frequency, t.intervalCount, t.startAt, t.endAt, " +
+            "t.dueAfterMinutes, t.nextRunAt) FROM TaskTemplate t JOIN t.executor e WHERE t.authorId = :authorId ORDER BY t.id")
+    List<TaskTemplateDTO> findResponsesByAuthorId(@Param("authorId") Long authorId);
+}
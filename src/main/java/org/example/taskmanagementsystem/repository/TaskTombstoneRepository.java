@@ -0,0 +1,25 @@
+package org.example.taskmanagementsystem.repository;
+
+import org.example.taskmanagementsystem.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO task_tombstones (task_id, change_seq, deleted_at) VALUES (:taskId, NULL, :deletedAt) " +
+            "ON CONFLICT (task_id) DO UPDATE SET change_seq = NULL, deleted_at = EXCLUDED.deleted_at", nativeQuery = true)
+    void insertTombstone(@Param("taskId") Long taskId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    List<TaskTombstone> findByChangeSeqGreaterThanOrderByChangeSeq(Long since, Limit limit);
+
+    @Query(value = "SELECT COALESCE(MAX(purged_seq), 0) FROM sync_watermark", nativeQuery = true)
+    long findPurgedSeq();
+}
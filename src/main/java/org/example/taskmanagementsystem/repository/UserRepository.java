@@ -19,4 +19,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Transactional
     @Query("DELETE FROM User u WHERE u.isVerified = false AND u.codeSentAt < :expirationTime")
     void deleteExpiredUnverifiedUsers(@Param("expirationTime") LocalDateTime expirationTime);
+
+    @Modifying
+    @Query("UPDATE User u SET u.digestEnabled = :enabled WHERE u.id = :id")
+    int updateDigestEnabled(@Param("id") Long id, @Param("enabled") boolean enabled);
 }
@@ -0,0 +1,32 @@
+package org.example.taskmanagementsystem.service;
+
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.storage.AttachmentContent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface AttachmentService {
+    List<AttachmentDTO> getAttachments(Long taskId);
+
+    /**
+     * Сохраняет содержимое потока как вложение задачи. Загружать могут автор и исполнитель задачи.
+     * Одинаковое содержимое хранится на диске один раз.
+     *
+     * @param contentLength  заявленная длина тела запроса; -1, если неизвестна
+     * @param expectedSha256 SHA-256 содержимого, заявленный клиентом, или null. Если такое содержимое
+     *                       уже хранится, поток только хешируется для проверки и на диск не пишется
+     */
+    AttachmentDTO upload(Long taskId, String fileName, String contentType, long contentLength,
+                         String expectedSha256, InputStream content) throws IOException;
+
+    AttachmentContent getAttachmentContent(Long taskId, Long attachmentId);
+
+    void deleteAttachment(Long taskId, Long attachmentId);
+
+    /**
+     * Удаляет вложения задачи в текущей транзакции; файлы удаляются после её фиксации.
+     */
+    void deleteAllForTask(Long taskId);
+}
@@ -0,0 +1,5 @@
+package org.example.taskmanagementsystem.service;
+
+public interface AuthThrottleService {
+    void checkAttempt(String clientIp, String email);
+}
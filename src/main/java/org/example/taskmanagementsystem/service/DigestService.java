@@ -0,0 +1,8 @@
+package org.example.taskmanagementsystem.service;
+
+public interface DigestService {
+    /**
+     * @return количество поставленных в очередь писем (0, если сводку уже формирует другой узел)
+     */
+    int sendDailyDigests();
+}
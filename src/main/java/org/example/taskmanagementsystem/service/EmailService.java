@@ -1,5 +1,10 @@
 package org.example.taskmanagementsystem.service;
 
+import org.example.taskmanagementsystem.mail.EmailMessage;
+
+import java.util.List;
+
 public interface EmailService {
     void sendEmail(String to, String subject, String text);
+    void sendEmails(List<EmailMessage> messages);
 }
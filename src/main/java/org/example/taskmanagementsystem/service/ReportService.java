@@ -0,0 +1,20 @@
+package org.example.taskmanagementsystem.service;
+
+import org.example.taskmanagementsystem.dto.response.ReportJobDTO;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public interface ReportService {
+    /**
+     * Ставит в очередь построение отчета по задачам, созданным в [from, to].
+     */
+    ReportJobDTO submitTaskReport(LocalDate from, LocalDate to);
+
+    ReportJobDTO getJob(Long jobId);
+
+    /**
+     * @return файл готового отчета на этом узле
+     */
+    Path getReportFile(Long jobId);
+}
@@ -0,0 +1,34 @@
+package org.example.taskmanagementsystem.service;
+
+import org.example.taskmanagementsystem.dto.response.CycleTimeStatsDTO;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.dto.response.TaskCountersDTO;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StatsService {
+    /**
+     * Количество задач по статусам и приоритетам.
+     *
+     * @param executorId null - по всем задачам, 0 - задачи без исполнителя
+     */
+    TaskCountersDTO getTaskCounters(Long executorId);
+
+    /**
+     * Квантили времени пребывания задач в статусе.
+     *
+     * @param priority   null - по всем приоритетам
+     * @param executorId null - по всем исполнителям
+     */
+    CycleTimeStatsDTO getCycleTimeStats(TaskStatus status, TaskPriority priority, Long executorId);
+
+    /**
+     * Созданные, завершенные и прокомментированные задачи по дням диапазона [from, to].
+     *
+     * @param executorId null - по всем исполнителям
+     */
+    List<TaskActivityDayDTO> getActivityTimeseries(LocalDate from, LocalDate to, Long executorId);
+}
@@ -4,7 +4,10 @@ import org.example.taskmanagementsystem.dto.request.TaskCreateDTO;
 import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
 import org.example.taskmanagementsystem.dto.request.CommentDTO;
 import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangesDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryPageDTO;
 import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 import org.example.taskmanagementsystem.entity.TaskStatus;
 import org.springframework.data.domain.Page;
@@ -20,6 +23,13 @@ public interface TaskService {
     Page<TaskResponseDTO> getTasksByUser(Long authorId, Pageable pageable);
     TaskResponseDTO updateTaskStatus(Long taskId, TaskStatus status);
     CommentResponseDTO addCommentToTask(Long taskId, CommentDTO commentDTO);
+    TaskChangesDTO getChanges(long since, int limit);
+    TaskHistoryPageDTO getTaskHistory(Long taskId, Long before, int limit);
+    Page<TaskResponseDTO> getMyUnblockedTasks(Pageable pageable);
+    void addBlocker(Long taskId, Long blockerId);
+    void removeBlocker(Long taskId, Long blockerId);
+    TaskSubtreeDTO getSubtree(Long taskId, int limit);
+    TaskResponseDTO moveTask(Long taskId, Long parentId);
 
     // для админа
     TaskResponseDTO updateTaskForAdmin(Long id, TaskUpdateDTO taskUpdateDTO);
@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.service;
+
+import org.example.taskmanagementsystem.dto.request.TaskTemplateCreateDTO;
+import org.example.taskmanagementsystem.dto.response.TaskTemplateDTO;
+
+import java.util.List;
+
+public interface TaskTemplateService {
+    /**
+     * Создает шаблон повторяющейся задачи. Задачи по нему создаются в фоне на горизонт планирования;
+     * повторения, которые к моменту создания уже прошли, пропускаются.
+     */
+    TaskTemplateDTO createTemplate(TaskTemplateCreateDTO templateCreateDTO);
+
+    List<TaskTemplateDTO> getMyTemplates();
+
+    /**
+     * Удаляет шаблон. Уже созданные по нему задачи остаются.
+     */
+    void deleteTemplate(Long templateId);
+}
@@ -1,9 +1,8 @@
 package org.example.taskmanagementsystem.service;
 
-import org.example.taskmanagementsystem.dto.request.LoginDTO;
+import org.example.taskmanagementsystem.cache.CachedUser;
 import org.example.taskmanagementsystem.dto.request.UpdatePasswordDTO;
 import org.example.taskmanagementsystem.dto.request.UserCreateDTO;
-import org.example.taskmanagementsystem.dto.response.AuthDTO;
 import org.example.taskmanagementsystem.entity.User;
 import org.example.taskmanagementsystem.exceptions.UserAlreadyExistsException;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,10 +15,13 @@ public interface UserService {
     void verifyUser(User user);
     void updatePassword(UpdatePasswordDTO updatePasswordDTO);
     Optional<User> getUserByEmail(String email);
+    Optional<CachedUser> getCachedUserByEmail(String email);
     UserDetails getCurrentUser();
+    Long getCurrentUserId();
     void removeExpiredUnverifiedUsers();
     void resentCode(String email);
     void logout(String token);
     void forgotPassword(String email);
     void verifyResetCode(String email, String code);
+    void setDigestEnabled(boolean enabled);
 }
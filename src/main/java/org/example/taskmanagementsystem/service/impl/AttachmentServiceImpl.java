@@ -0,0 +1,234 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.entity.TaskAttachment;
+import org.example.taskmanagementsystem.repository.TaskAttachmentRepository;
+import org.example.taskmanagementsystem.repository.TaskParticipants;
+import org.example.taskmanagementsystem.repository.TaskRepository;
+import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.AttachmentService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.example.taskmanagementsystem.storage.AttachmentContent;
+import org.example.taskmanagementsystem.storage.BlobRegistry;
+import org.example.taskmanagementsystem.storage.LocalContentStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Загрузка не держит транзакцию и соединение с БД, пока читается тело запроса: сначала содержимое
+ * пишется во временный файл с подсчетом SHA-256, затем короткая транзакция увеличивает счетчик ссылок
+ * на хеш, переносит файл в хранилище (если такого содержимого еще нет) и сохраняет метаданные.
+ */
+@Service
+public class AttachmentServiceImpl implements AttachmentService {
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+
+    private final TaskAttachmentRepository taskAttachmentRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final LocalContentStore contentStore;
+    private final BlobRegistry blobRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttachmentServiceImpl(TaskAttachmentRepository taskAttachmentRepository,
+                                 TaskRepository taskRepository,
+                                 UserRepository userRepository,
+                                 UserService userService,
+                                 LocalContentStore contentStore,
+                                 BlobRegistry blobRegistry,
+                                 PlatformTransactionManager transactionManager) {
+        this.taskAttachmentRepository = taskAttachmentRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.contentStore = contentStore;
+        this.blobRegistry = blobRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttachmentDTO> getAttachments(Long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена");
+        }
+        return taskAttachmentRepository.findResponsesByTaskId(taskId);
+    }
+
+    @Override
+    public AttachmentDTO upload(Long taskId, String fileName, String contentType, long contentLength,
+                                String expectedSha256, InputStream content) throws IOException {
+        String name = sanitizeFileName(fileName);
+        String expected = normalizeSha256(expectedSha256);
+        Long userId = userService.getCurrentUserId();
+        checkParticipant(taskId, userId, "Вы не можете прикреплять файлы к этой задаче");
+        if (contentLength > contentStore.getMaxFileSize()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Файл превышает допустимый размер");
+        }
+
+        if (expected != null && blobRegistry.isReferenced(expected)) {
+            // Повторная загрузка: содержимое только хешируется, чтобы клиент не мог сослаться на чужой файл по одному хешу
+            LocalContentStore.Digest digest = contentStore.digest(content);
+            checkSha256(expected, digest.sha256());
+            return saveAttachment(taskId, userId, name, contentType, digest.sha256(), digest.size(), null);
+        }
+        LocalContentStore.StagedContent staged = contentStore.stage(content);
+        try {
+            checkSha256(expected, staged.sha256());
+            return saveAttachment(taskId, userId, name, contentType, staged.sha256(), staged.size(), staged);
+        } catch (RuntimeException e) {
+            contentStore.discard(staged);
+            if (contentStore.exists(staged.sha256())) {
+                transactionTemplate.executeWithoutResult(status ->
+                        blobRegistry.registerUnreferenced(staged.sha256(), staged.size()));
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttachmentContent getAttachmentContent(Long taskId, Long attachmentId) {
+        TaskAttachment attachment = taskAttachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вложение не найдено"));
+        Path file = contentStore.resolve(attachment.getStorageKey());
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Содержимое вложения недоступно");
+        }
+        return new AttachmentContent(file, attachment.getFileName(), attachment.getContentType());
+    }
+
+    private AttachmentDTO saveAttachment(Long taskId, Long userId, String name, String contentType, String sha256,
+                                         long size, LocalContentStore.StagedContent staged) {
+        return transactionTemplate.execute(status -> {
+            // Задачу могли удалить, пока читался файл
+            if (!taskRepository.existsById(taskId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена");
+            }
+            blobRegistry.addReference(sha256, size);
+            // Строка счетчика заблокирована до конца транзакции, сборщик мусора файл не тронет
+            if (staged != null) {
+                try {
+                    contentStore.publish(staged);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else if (!contentStore.exists(sha256)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Содержимое удалено, повторите загрузку с телом файла");
+            }
+            TaskAttachment attachment = new TaskAttachment();
+            attachment.setTask(taskRepository.getReferenceById(taskId));
+            attachment.setFileName(name);
+            attachment.setContentType(contentType != null ? contentType : "application/octet-stream");
+            attachment.setSize(size);
+            attachment.setStorageKey(sha256);
+            attachment.setUploadedBy(userRepository.getReferenceById(userId));
+            attachment.setCreatedAt(LocalDateTime.now());
+            TaskAttachment saved = taskAttachmentRepository.save(attachment);
+            return new AttachmentDTO(saved.getId(), saved.getFileName(), saved.getContentType(), saved.getSize(),
+                    userService.getCurrentUser().getUsername(), saved.getCreatedAt());
+        });
+    }
+
+    @Override
+    @Transactional
+    public void deleteAttachment(Long taskId, Long attachmentId) {
+        TaskAttachment attachment = taskAttachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Вложение не найдено"));
+        checkParticipant(taskId, userService.getCurrentUserId(), "Вы не можете удалять файлы этой задачи");
+        taskAttachmentRepository.delete(attachment);
+        releaseContent(List.of(attachment.getStorageKey()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteAllForTask(Long taskId) {
+        List<String> keys = taskAttachmentRepository.findStorageKeysByTaskId(taskId);
+        if (!keys.isEmpty()) {
+            taskAttachmentRepository.deleteByTaskId(taskId);
+            releaseContent(keys);
+        }
+    }
+
+    private void checkParticipant(Long taskId, Long userId, String forbiddenMessage) {
+        TaskParticipants participants = taskRepository.findParticipantsById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        if (!userId.equals(participants.getAuthorId()) && !userId.equals(participants.getExecutorId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, forbiddenMessage);
+        }
+    }
+
+    /**
+     * Содержимое по хешу освобождается уменьшением счетчика ссылок, файл удалит сборщик мусора.
+     * Файлы со старыми ключами (до хранения по хешу) принадлежат одному вложению и удаляются после фиксации.
+     */
+    private void releaseContent(List<String> keys) {
+        Map<String, Integer> references = new HashMap<>();
+        List<String> legacyKeys = new ArrayList<>();
+        for (String key : keys) {
+            if (LocalContentStore.isContentAddressed(key)) {
+                references.merge(key, 1, Integer::sum);
+            } else {
+                legacyKeys.add(key);
+            }
+        }
+        if (!references.isEmpty()) {
+            blobRegistry.removeReferences(references);
+        }
+        if (!legacyKeys.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    legacyKeys.forEach(contentStore::delete);
+                }
+            });
+        }
+    }
+
+    private static String normalizeSha256(String sha256) {
+        if (sha256 == null || sha256.isBlank()) {
+            return null;
+        }
+        String normalized = sha256.strip().toLowerCase(Locale.ROOT);
+        if (!LocalContentStore.isContentAddressed(normalized)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный SHA-256 содержимого");
+        }
+        return normalized;
+    }
+
+    private static void checkSha256(String expected, String actual) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Содержимое не совпадает с заявленным SHA-256");
+        }
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        // Клиенты иногда присылают полный путь; сохраняется только имя
+        String name = fileName != null
+                ? fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1).strip() : "";
+        if (name.isEmpty() || name.length() > MAX_FILE_NAME_LENGTH || name.chars().anyMatch(Character::isISOControl)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректное имя файла");
+        }
+        return name;
+    }
+}
@@ -1,7 +1,9 @@
 package org.example.taskmanagementsystem.service.impl;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.example.taskmanagementsystem.config.CustomAuthenticationProvider;
+import org.example.taskmanagementsystem.cache.CachedUser;
 import org.example.taskmanagementsystem.dto.request.LoginDTO;
 import org.example.taskmanagementsystem.dto.response.AuthDTO;
 import org.example.taskmanagementsystem.entity.User;
@@ -10,63 +12,58 @@ import org.example.taskmanagementsystem.service.AuthService;
 import org.example.taskmanagementsystem.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
     private final UserService userService;
-    private final CustomAuthenticationProvider customAuthenticationProvider;
+    private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
 
     @Override
     public AuthDTO login(LoginDTO loginDTO) {
-        Optional<User> userOptional = userService.getUserByEmail(loginDTO.getEmail());
-        if (userOptional.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Неправильная почта или пароль!");
+        // Хэш пароля и флаг верификации читаются из БД, а не из кэша: кэш у каждого узла свой,
+        // и смена пароля на одном узле не должна оставлять старый пароль действующим на других.
+        // Один запрос пользователя: пароль проверяем здесь же, без повторного loadUserByUsername
+        User user = userService.getUserByEmail(loginDTO.getEmail())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Неправильная почта или пароль!"));
+        if (loginDTO.getPassword() == null || !passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Неправильная почта или пароль!");
         }
-        User user = userOptional.get();
-        customAuthenticationProvider.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getEmail(), loginDTO.getPassword())
-        );
-        if (!user.getIsVerified()) {
+        if (!Boolean.TRUE.equals(user.getIsVerified())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Это пользователь еще не верифицирован!");
         }
-        Map<String, String> tokens = jwtService.generateTokens(user.getEmail(), user.getRole().name());
-        AuthDTO authDTO = new AuthDTO();
-        authDTO.setAccessToken(tokens.get("accessToken"));
-        authDTO.setRefreshToken(tokens.get("refreshToken"));
-        authDTO.setRole(user.getRole().name());
-        return authDTO;
+        return toAuthDTO(CachedUser.from(user));
     }
 
     @Override
     public AuthDTO refreshAccessToken(String refreshToken) {
+        // parseClaims проверяет подпись и срок действия за один разбор токена
+        Claims claims;
         try {
-            if (jwtService.validateRefreshToken(refreshToken)) {
-                String userName = jwtService.extractUsername(refreshToken);
-                User user = userService.getUserByEmail(userName)
-                        .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден!"));
-                UserDetails userDetails = userService.loadUserByUsername(userName);
-                if (userDetails != null && !jwtService.isTokenExpired(refreshToken)) {
-                    Map<String, String> newTokens = jwtService.generateTokens(userName, user.getRole().name());
-                    AuthDTO authDTO = new AuthDTO();
-                    authDTO.setAccessToken(newTokens.get("accessToken"));
-                    authDTO.setRefreshToken(newTokens.get("refreshToken"));
-                    authDTO.setRole(user.getRole().name());
-                    return authDTO;
-                }
-            }
+            claims = jwtService.parseClaims(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
             throw new BadCredentialsException("Невалидный refresh токен");
-        } catch (Exception e) {
+        }
+        if (!"refresh".equals(claims.get("typ", String.class)) || claims.getSubject() == null) {
             throw new BadCredentialsException("Невалидный refresh токен");
         }
+        CachedUser user = userService.getCachedUserByEmail(claims.getSubject())
+                .orElseThrow(() -> new BadCredentialsException("Невалидный refresh токен"));
+        return toAuthDTO(user);
+    }
+
+    private AuthDTO toAuthDTO(CachedUser user) {
+        Map<String, String> tokens = jwtService.generateTokens(user.id(), user.email(), user.role().name());
+        AuthDTO authDTO = new AuthDTO();
+        authDTO.setAccessToken(tokens.get("accessToken"));
+        authDTO.setRefreshToken(tokens.get("refreshToken"));
+        authDTO.setRole(user.role().name());
+        return authDTO;
     }
 }
@@ -0,0 +1,47 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import org.example.taskmanagementsystem.exceptions.TooManyRequestsException;
+import org.example.taskmanagementsystem.service.AuthThrottleService;
+import org.example.taskmanagementsystem.util.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class AuthThrottleServiceImpl implements AuthThrottleService {
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter emailLimiter;
+
+    public AuthThrottleServiceImpl(@Value("${auth.throttle.ip.capacity}") int ipCapacity,
+                                   @Value("${auth.throttle.ip.refill-period}") Duration ipRefillPeriod,
+                                   @Value("${auth.throttle.email.capacity}") int emailCapacity,
+                                   @Value("${auth.throttle.email.refill-period}") Duration emailRefillPeriod,
+                                   @Value("${auth.throttle.idle-timeout}") Duration idleTimeout) {
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod, idleTimeout, concurrency);
+        this.emailLimiter = new TokenBucketRateLimiter(emailCapacity, emailRefillPeriod, idleTimeout, concurrency);
+    }
+
+    @Override
+    public void checkAttempt(String clientIp, String email) {
+        // Сначала IP: он ограничивает и рост числа ведер по случайным почтам
+        long waitNanos = ipLimiter.tryAcquire(clientIp);
+        if (waitNanos == 0 && email != null && !email.isBlank()) {
+            waitNanos = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+        }
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new TooManyRequestsException("Слишком много попыток. Повторите позже.", retryAfter);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.throttle.eviction-interval-ms}")
+    public void evictIdleBuckets() {
+        ipLimiter.evictIdle();
+        emailLimiter.evictIdle();
+    }
+}
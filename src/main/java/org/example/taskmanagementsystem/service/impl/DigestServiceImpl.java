@@ -0,0 +1,220 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.mail.EmailMessage;
+import org.example.taskmanagementsystem.service.DigestService;
+import org.example.taskmanagementsystem.service.EmailService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ежедневная сводка открытых задач для исполнителей, включивших её: сначала просроченные
+ * (срок due_at прошел), затем остальные открытые.
+ * <p>
+ * Все открытые задачи читаются одним упорядоченным по executor_id курсором (fetch size
+ * ограничивает память), письмо собирается, пока идут строки одного исполнителя, и
+ * готовые письма пишутся в outbox пачками в отдельных транзакциях.
+ * <p>
+ * Прогресс за день хранится в {@link org.example.taskmanagementsystem.entity.DigestRun}: каждая пачка
+ * сдвигает last_executor_id вместе с письмами, курсор начинается после него, так что повторный
+ * запуск (рестарт, второй узел после снятия блокировки) не шлет исполнителю вторую сводку за день.
+ */
+@Service
+@Slf4j
+public class DigestServiceImpl implements DigestService {
+    private static final long DIGEST_LOCK_KEY = 350_035L;
+    private static final String SUBJECT = "Task Management System Daily Digest";
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String OPEN_TASKS_SQL =
+            "SELECT t.executor_id, u.email, t.id, t.title, t.status, t.priority, t.due_at " +
+            "FROM tasks t JOIN users u ON u.id = t.executor_id " +
+            "WHERE u.digest_enabled = true AND u.is_verified = true AND t.status <> 'COMPLETED' AND t.executor_id > ? " +
+            "ORDER BY t.executor_id, t.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailService emailService;
+    private final TransactionTemplate streamTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final int fetchSize;
+    private final int maxTasksPerEmail;
+
+    public DigestServiceImpl(JdbcTemplate jdbcTemplate,
+                             EmailService emailService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${digest.batch-size}") int batchSize,
+                             @Value("${digest.fetch-size}") int fetchSize,
+                             @Value("${digest.max-tasks-per-email}") int maxTasksPerEmail) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailService = emailService;
+        this.streamTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.maxTasksPerEmail = maxTasksPerEmail;
+    }
+
+    @Override
+    @Scheduled(cron = "${digest.cron}")
+    public int sendDailyDigests() {
+        long start = System.nanoTime();
+        Integer sent = streamTransaction.execute(status -> {
+            // Сводку формирует только один узел; блокировка снимается вместе с транзакцией
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, DIGEST_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return null;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate runDate = now.toLocalDate();
+            // Отметка пишется отдельной транзакцией: пачки в REQUIRES_NEW обновляют эту же строку
+            Long resumeAfter = batchTransaction.execute(batchStatus -> {
+                jdbcTemplate.update("INSERT INTO digest_runs (run_date) VALUES (?) ON CONFLICT DO NOTHING", runDate);
+                return jdbcTemplate.queryForObject("SELECT CASE WHEN completed_at IS NULL THEN COALESCE(last_executor_id, 0) END " +
+                        "FROM digest_runs WHERE run_date = ?", Long.class, runDate);
+            });
+            if (resumeAfter == null) {
+                return -1;
+            }
+            DigestWriter writer = new DigestWriter(now, runDate);
+            // Курсор PostgreSQL работает только внутри транзакции и с заданным fetch size
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(OPEN_TASKS_SQL);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, resumeAfter);
+                return statement;
+            }, writer::accept);
+            writer.finish();
+            return writer.sent;
+        });
+        if (sent == null) {
+            log.info("Ежедневная сводка уже формируется другим узлом");
+            return 0;
+        }
+        if (sent < 0) {
+            log.info("Ежедневная сводка за сегодня уже отправлена");
+            return 0;
+        }
+        log.info("Ежедневная сводка: {} писем за {} мс", sent, (System.nanoTime() - start) / 1_000_000);
+        return sent;
+    }
+
+    /**
+     * Пишет пачку в outbox и сдвигает отметку дня до её последнего исполнителя одной транзакцией.
+     */
+    private void flush(List<EmailMessage> batch, LocalDate runDate, long lastExecutorId) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<EmailMessage> messages = List.copyOf(batch);
+        batchTransaction.executeWithoutResult(status -> {
+            emailService.sendEmails(messages);
+            jdbcTemplate.update("UPDATE digest_runs SET last_executor_id = ? WHERE run_date = ?", lastExecutorId, runDate);
+        });
+        batch.clear();
+    }
+
+    /**
+     * Собирает письмо текущего исполнителя по мере чтения строк; в памяти держится
+     * только одно письмо и одна пачка.
+     */
+    private class DigestWriter {
+        private final List<EmailMessage> batch = new ArrayList<>(batchSize);
+        private final LocalDateTime now;
+        private final LocalDate runDate;
+        private Long executorId;
+        private String email;
+        private StringBuilder overdue;
+        private int overdueCount;
+        private StringBuilder open;
+        private int openCount;
+        private int sent;
+
+        DigestWriter(LocalDateTime now, LocalDate runDate) {
+            this.now = now;
+            this.runDate = runDate;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long rowExecutorId = rs.getLong(1);
+            if (executorId == null || executorId != rowExecutorId) {
+                completeMessage();
+                executorId = rowExecutorId;
+                email = rs.getString(2);
+                overdue = new StringBuilder();
+                overdueCount = 0;
+                open = new StringBuilder();
+                openCount = 0;
+            }
+            Timestamp dueAt = rs.getTimestamp(7);
+            if (dueAt != null && dueAt.toLocalDateTime().isBefore(now)) {
+                overdueCount++;
+                if (overdueCount <= maxTasksPerEmail) {
+                    appendTask(overdue, rs).append(" (due ").append(DUE_FORMAT.format(dueAt.toLocalDateTime())).append(")\n");
+                }
+            } else {
+                openCount++;
+                if (openCount <= maxTasksPerEmail) {
+                    appendTask(open, rs).append('\n');
+                }
+            }
+        }
+
+        private StringBuilder appendTask(StringBuilder section, ResultSet rs) throws SQLException {
+            return section.append("#").append(rs.getLong(3))
+                    .append(" [").append(rs.getString(6)).append(", ").append(rs.getString(5)).append("] ")
+                    .append(rs.getString(4));
+        }
+
+        void finish() {
+            completeMessage();
+            if (executorId != null) {
+                flush(batch, runDate, executorId);
+            }
+            batchTransaction.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE digest_runs SET completed_at = ? WHERE run_date = ?", now, runDate));
+        }
+
+        private void completeMessage() {
+            if (executorId == null) {
+                return;
+            }
+            StringBuilder body = new StringBuilder();
+            appendSection(body, "Overdue tasks", overdue, overdueCount);
+            appendSection(body, "Your open tasks", open, openCount);
+            batch.add(new EmailMessage(email, SUBJECT, body.toString()));
+            sent++;
+            if (batch.size() >= batchSize) {
+                flush(batch, runDate, executorId);
+            }
+        }
+
+        private void appendSection(StringBuilder body, String title, StringBuilder lines, int count) {
+            if (count == 0) {
+                return;
+            }
+            if (!body.isEmpty()) {
+                body.append('\n');
+            }
+            body.append(title).append(":\n\n").append(lines);
+            if (count > maxTasksPerEmail) {
+                body.append("...and ").append(count - maxTasksPerEmail).append(" more\n");
+            }
+        }
+    }
+}
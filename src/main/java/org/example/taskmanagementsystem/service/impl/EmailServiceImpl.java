@@ -1,23 +1,59 @@
 package org.example.taskmanagementsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.entity.EmailOutbox;
+import org.example.taskmanagementsystem.entity.EmailOutboxStatus;
+import org.example.taskmanagementsystem.mail.EmailMessage;
+import org.example.taskmanagementsystem.repository.EmailOutboxRepository;
 import org.example.taskmanagementsystem.service.EmailService;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final JdbcTemplate jdbcTemplate;
 
+    /**
+     * Записывает письмо в outbox в текущей транзакции: код подтверждения не теряется при падении
+     * после коммита, а ошибка SMTP не откатывает регистрацию. Отправляет письмо EmailOutboxRelay.
+     */
     @Override
+    @Transactional
     public void sendEmail(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        mailSender.send(message);
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(text);
+        email.setStatus(EmailOutboxStatus.PENDING);
+        email.setCreatedAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
+    }
+
+    /**
+     * Пакетная запись в outbox одним JDBC-батчем (IDENTITY-ключи не дают Hibernate батчить вставки).
+     */
+    @Override
+    @Transactional
+    public void sendEmails(List<EmailMessage> messages) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO email_outbox (recipient, subject, body, status, attempts, created_at) VALUES (?, ?, ?, ?, 0, ?)",
+                messages,
+                messages.size(),
+                (ps, message) -> {
+                    ps.setString(1, message.to());
+                    ps.setString(2, message.subject());
+                    ps.setString(3, message.text());
+                    ps.setString(4, EmailOutboxStatus.PENDING.name());
+                    ps.setTimestamp(5, createdAt);
+                });
     }
 }
@@ -0,0 +1,172 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.dto.response.ReportJobDTO;
+import org.example.taskmanagementsystem.entity.ReportJob;
+import org.example.taskmanagementsystem.entity.ReportJobStatus;
+import org.example.taskmanagementsystem.report.ReportPart;
+import org.example.taskmanagementsystem.report.TaskReportGenerator;
+import org.example.taskmanagementsystem.repository.ReportJobRepository;
+import org.example.taskmanagementsystem.service.ReportService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Задания отчетов выполняются на ограниченном пуле: не больше {@code reports.job-threads} одновременно
+ * и не больше {@code reports.queue-capacity} в очереди, сверх этого запрос отклоняется с 429.
+ * Файлы хранятся локально, поэтому скачать отчет можно только с узла, который его построил.
+ */
+@Service
+@Slf4j
+public class ReportServiceImpl implements ReportService, CommandLineRunner {
+    private final ReportJobRepository reportJobRepository;
+    private final TaskReportGenerator taskReportGenerator;
+    private final UserService userService;
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final String node;
+    private final int maxRangeDays;
+    private final Duration retention;
+
+    public ReportServiceImpl(ReportJobRepository reportJobRepository,
+                             TaskReportGenerator taskReportGenerator,
+                             UserService userService,
+                             @Value("${reports.directory}") String directory,
+                             @Value("${reports.node-id}") String node,
+                             @Value("${reports.job-threads}") int jobThreads,
+                             @Value("${reports.queue-capacity}") int queueCapacity,
+                             @Value("${reports.max-range-days}") int maxRangeDays,
+                             @Value("${reports.retention}") Duration retention) {
+        this.reportJobRepository = reportJobRepository;
+        this.taskReportGenerator = taskReportGenerator;
+        this.userService = userService;
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.node = node;
+        this.maxRangeDays = maxRangeDays;
+        this.retention = retention;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(String... args) throws IOException {
+        Files.createDirectories(directory);
+        int failed = reportJobRepository.failUnfinished(node, "Узел перезапущен до завершения отчета", LocalDateTime.now());
+        if (failed > 0) {
+            log.warn("Прерванных отчетов после перезапуска: {}", failed);
+        }
+    }
+
+    @Override
+    public ReportJobDTO submitTaskReport(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Дата окончания раньше даты начала");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Диапазон не может превышать " + maxRangeDays + " дней");
+        }
+        ReportJob job = new ReportJob();
+        job.setStatus(ReportJobStatus.QUEUED);
+        job.setPeriodFrom(from);
+        job.setPeriodTo(to);
+        job.setRequestedBy(userService.getCurrentUserId());
+        job.setNode(node);
+        job.setCreatedAt(LocalDateTime.now());
+        ReportJob savedJob = reportJobRepository.save(job);
+        try {
+            executor.execute(() -> runJob(savedJob.getId(), from, to));
+        } catch (RejectedExecutionException e) {
+            reportJobRepository.markFailed(savedJob.getId(), "Очередь отчетов переполнена", LocalDateTime.now());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Слишком много отчетов в очереди, повторите позже");
+        }
+        return toDTO(savedJob);
+    }
+
+    @Override
+    public ReportJobDTO getJob(Long jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    @Override
+    public Path getReportFile(Long jobId) {
+        ReportJob job = findJob(jobId);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Отчет еще не готов");
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!node.equals(job.getNode()) || !Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Файл отчета недоступен на этом узле");
+        }
+        return file;
+    }
+
+    @Scheduled(fixedRateString = "${reports.cleanup-interval-ms}")
+    public void removeExpiredReports() {
+        for (ReportJob job : reportJobRepository.findByNodeAndFinishedAtBefore(node, LocalDateTime.now().minus(retention))) {
+            try {
+                if (job.getFilePath() != null) {
+                    Files.deleteIfExists(Paths.get(job.getFilePath()));
+                }
+                reportJobRepository.delete(job);
+            } catch (IOException e) {
+                log.warn("Не удалось удалить файл отчета {}", job.getFilePath(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runJob(Long jobId, LocalDate from, LocalDate to) {
+        reportJobRepository.markRunning(jobId, LocalDateTime.now());
+        Path target = directory.resolve("tasks-report-" + jobId + ".csv");
+        try {
+            long start = System.nanoTime();
+            ReportPart report = taskReportGenerator.generate(from, to, target);
+            reportJobRepository.markCompleted(jobId, target.toString(), report.rows(), LocalDateTime.now());
+            log.info("Отчет {}: {} строк за {} мс", jobId, report.rows(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Ошибка построения отчета {}", jobId, e);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            reportJobRepository.markFailed(jobId, message.length() > 1000 ? message.substring(0, 1000) : message,
+                    LocalDateTime.now());
+        }
+    }
+
+    private ReportJob findJob(Long jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Отчет не найден"));
+    }
+
+    private ReportJobDTO toDTO(ReportJob job) {
+        return new ReportJobDTO(job.getId(), job.getStatus(), job.getPeriodFrom(), job.getPeriodTo(), job.getRowCount(),
+                job.getError(), job.getCreatedAt(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import org.example.taskmanagementsystem.analytics.CycleTimeTracker;
+import org.example.taskmanagementsystem.analytics.TaskActivityRollup;
+import org.example.taskmanagementsystem.analytics.TaskCounters;
+import org.example.taskmanagementsystem.dto.response.CycleTimeStatsDTO;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.dto.response.TaskCountersDTO;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.StatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class StatsServiceImpl implements StatsService {
+    private final CycleTimeTracker cycleTimeTracker;
+    private final TaskCounters taskCounters;
+    private final TaskActivityRollup taskActivityRollup;
+    private final int maxRangeDays;
+
+    public StatsServiceImpl(CycleTimeTracker cycleTimeTracker,
+                            TaskCounters taskCounters,
+                            TaskActivityRollup taskActivityRollup,
+                            @Value("${task-activity.max-range-days}") int maxRangeDays) {
+        this.cycleTimeTracker = cycleTimeTracker;
+        this.taskCounters = taskCounters;
+        this.taskActivityRollup = taskActivityRollup;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @Override
+    public TaskCountersDTO getTaskCounters(Long executorId) {
+        Map<TaskStatus, Map<TaskPriority, Long>> counts = taskCounters.read(executorId != null ? executorId : TaskCounters.GLOBAL);
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        long total = 0;
+        for (Map.Entry<TaskStatus, Map<TaskPriority, Long>> statusEntry : counts.entrySet()) {
+            for (Map.Entry<TaskPriority, Long> priorityEntry : statusEntry.getValue().entrySet()) {
+                byStatus.merge(statusEntry.getKey(), priorityEntry.getValue(), Long::sum);
+                byPriority.merge(priorityEntry.getKey(), priorityEntry.getValue(), Long::sum);
+                total += priorityEntry.getValue();
+            }
+        }
+        return new TaskCountersDTO(executorId, total, byStatus, byPriority, counts);
+    }
+
+    @Override
+    public CycleTimeStatsDTO getCycleTimeStats(TaskStatus status, TaskPriority priority, Long executorId) {
+        return cycleTimeTracker.query(status, priority, executorId);
+    }
+
+    @Override
+    public List<TaskActivityDayDTO> getActivityTimeseries(LocalDate from, LocalDate to, Long executorId) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Дата окончания раньше даты начала");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Диапазон не может превышать " + maxRangeDays + " дней");
+        }
+        return taskActivityRollup.read(from, to, executorId);
+    }
+}
@@ -1,74 +1,128 @@
 package org.example.taskmanagementsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.analytics.CycleTimeTracker;
+import org.example.taskmanagementsystem.analytics.TaskCounters;
+import org.example.taskmanagementsystem.cache.CachedUser;
+import org.example.taskmanagementsystem.dependencies.TaskDependencies;
 import org.example.taskmanagementsystem.dto.request.TaskCreateDTO;
 import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
 import org.example.taskmanagementsystem.dto.request.CommentDTO;
 import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangesDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryEntryDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryPageDTO;
 import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
 import org.example.taskmanagementsystem.entity.*;
+import org.example.taskmanagementsystem.events.TaskEventLog;
+import org.example.taskmanagementsystem.hierarchy.TaskHierarchy;
+import org.example.taskmanagementsystem.history.TaskHistoryChange;
+import org.example.taskmanagementsystem.history.TaskHistoryLog;
+import org.example.taskmanagementsystem.reminders.TaskReminders;
 import org.example.taskmanagementsystem.repository.CommentRepository;
+import org.example.taskmanagementsystem.repository.StatusTransition;
+import org.example.taskmanagementsystem.repository.TaskParticipants;
 import org.example.taskmanagementsystem.repository.TaskRepository;
+import org.example.taskmanagementsystem.repository.TaskTombstoneRepository;
 import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.AttachmentService;
 import org.example.taskmanagementsystem.service.TaskService;
 import org.example.taskmanagementsystem.service.UserService;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class TaskServiceImpl implements TaskService {
+    private static final String DEPENDENCIES_FORBIDDEN = "Вы не можете изменять зависимости задачи другого пользователя";
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final CommentRepository commentRepository;
-    private final ModelMapper modelMapper;
+    private final TaskEventLog taskEventLog;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final TaskHistoryLog taskHistoryLog;
+    private final CycleTimeTracker cycleTimeTracker;
+    private final TaskCounters taskCounters;
+    private final AttachmentService attachmentService;
+    private final TaskReminders taskReminders;
+    private final TaskDependencies taskDependencies;
+    private final TaskHierarchy taskHierarchy;
 
     @Override
     @Transactional
     public TaskResponseDTO createTask(TaskCreateDTO taskCreateDTO) {
-        User author = userRepository.findByEmail(userService.getCurrentUser().getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("Автор не найден."));
-        User executor = userRepository.findByEmail(taskCreateDTO.getExecutorEmail())
+        Long authorId = userService.getCurrentUserId();
+        CachedUser executor = userService.getCachedUserByEmail(taskCreateDTO.getExecutorEmail())
                 .orElseThrow(() -> new UsernameNotFoundException("Исполнитель не найден."));
 
-        Task task = modelMapper.map(taskCreateDTO, Task.class);
+        Task task = new Task();
+        task.setTitle(taskCreateDTO.getTitle());
+        task.setDescription(taskCreateDTO.getDescription());
+        task.setPriority(taskCreateDTO.getPriority());
         task.setStatus(TaskStatus.WAITING);
-        task.setAuthor(author);
-        task.setExecutor(executor);
+        task.setDueAt(taskCreateDTO.getDueAt());
+        LocalDateTime now = LocalDateTime.now();
+        task.setCreatedAt(now);
+        task.setStatusChangedAt(now);
+        task.setAuthor(userRepository.getReferenceById(authorId));
+        task.setExecutor(userRepository.getReferenceById(executor.id()));
+        Long parentId = taskCreateDTO.getParentId();
+        if (parentId != null) {
+            if (!taskRepository.existsById(parentId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Родительская задача не найдена");
+            }
+            task.setParent(taskRepository.getReferenceById(parentId));
+        }
 
         Task savedTask = taskRepository.save(task);
-        return convertToDTO(savedTask);
+        if (parentId != null) {
+            taskHierarchy.attachNew(savedTask.getId(), parentId);
+        }
+        taskCounters.move(savedTask.getId(), null,
+                new TaskCounters.Key(executor.id(), savedTask.getStatus(), savedTask.getPriority()));
+        taskReminders.schedule(savedTask.getId(), savedTask.getDueAt(), savedTask.getStatus());
+        taskEventLog.append(savedTask.getId(), authorId, executor.id(), savedTask.getStatus(), TaskEventType.TASK_CREATED, authorId,
+                Map.of("status", savedTask.getStatus(), "priority", savedTask.getPriority()));
+        return convertToDTO(savedTask, userService.getCurrentUser().getUsername(), executor.email());
     }
 
     @Override
     public Page<TaskResponseDTO> getAllTasks(Pageable pageable) {
         Page<Task> tasks = taskRepository.findAll(pageable);
-        return tasks.map(this::convertToDTO);
+        return tasks.map(this::convertToSummaryDTO);
     }
 
     @Override
     public Page<TaskResponseDTO> getMyTasks(Pageable pageable) {
-        User user = userRepository.findByEmail(userService.getCurrentUser().getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден."));
-        Page<Task> tasks = taskRepository.findByAuthor_Id(user.getId(), pageable);
-        return tasks.map(this::convertToDTO);
+        Page<Task> tasks = taskRepository.findByAuthor_Id(userService.getCurrentUserId(), pageable);
+        return tasks.map(this::convertToSummaryDTO);
     }
 
     @Override
     public TaskResponseDTO getTaskById(Long taskId) {
-        Task task = taskRepository.findById(taskId)
+        Task task = taskRepository.findWithUsersById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
         return convertToDTO(task);
     }
@@ -76,10 +130,9 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public TaskResponseDTO updateTask(Long id, TaskUpdateDTO taskUpdateDTO) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        Task task = findTaskForUpdate(id);
 
-        if (!task.getAuthor().getEmail().equals(userService.getCurrentUser().getUsername())) {
+        if (!task.getAuthorId().equals(userService.getCurrentUserId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете изменить задачу другого пользователя");
         }
 
@@ -89,53 +142,162 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public void deleteTask(Long taskId) {
+        taskRepository.lockById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
         Task task = taskRepository.findById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
-        if (!task.getAuthor().getEmail().equals(userService.getCurrentUser().getUsername())) {
+        Long userId = userService.getCurrentUserId();
+        if (!task.getAuthorId().equals(userId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете удалить задачу другого пользователя");
         }
+        attachmentService.deleteAllForTask(task.getId());
+        taskReminders.cancel(task.getId());
+        taskDependencies.removeTask(task.getId());
+        taskHierarchy.removeTask(task.getId());
         taskRepository.delete(task);
+        taskCounters.move(taskId, countersKey(task), null);
+        taskTombstoneRepository.insertTombstone(taskId, LocalDateTime.now());
+        taskEventLog.append(taskId, task.getAuthorId(), task.getExecutorId(), null, TaskEventType.TASK_DELETED, userId, null);
     }
 
     @Override
     public Page<TaskResponseDTO> getTasksByUser(Long authorId, Pageable pageable) {
         Page<Task> tasks = taskRepository.findByAuthor_Id(authorId, pageable);
-        return tasks.map(this::convertToDTO);
+        return tasks.map(this::convertToSummaryDTO);
     }
 
     @Override
     @Transactional
     public TaskResponseDTO updateTaskStatus(Long taskId, TaskStatus status) {
-        Task task = taskRepository.findById(taskId)
+        Long userId = userService.getCurrentUserId();
+        Optional<StatusTransition> transition = taskRepository.updateStatusForExecutor(taskId, userId, status.name(),
+                LocalDateTime.now());
+        if (transition.isEmpty()) {
+            TaskParticipants participants = taskRepository.findParticipantsById(taskId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+            if (!userId.equals(participants.getExecutorId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете изменять статус этой задачи");
+            }
+            // Статус уже такой: время в статусе, статистика, история и события не трогаются
+            return getTaskResponse(taskId);
+        }
+        StatusTransition previous = transition.get();
+        TaskPriority priority = TaskPriority.valueOf(previous.getPriority());
+        if (completionChanged(TaskStatus.valueOf(previous.getPreviousStatus()), status)) {
+            taskReminders.schedule(taskId, previous.getDueAt(), status);
+            taskDependencies.refreshDependents(taskId);
+        }
+        taskCounters.move(taskId, new TaskCounters.Key(userId, TaskStatus.valueOf(previous.getPreviousStatus()), priority),
+                new TaskCounters.Key(userId, status, priority));
+        if (previous.getElapsedMillis() != null) {
+            cycleTimeTracker.record(TaskStatus.valueOf(previous.getPreviousStatus()), priority, userId,
+                    previous.getElapsedMillis());
+        }
+        taskHistoryLog.append(taskId, userId, historyOf("status", previous.getPreviousStatus(), status));
+        taskEventLog.appendForTask(taskId, TaskEventType.STATUS_CHANGED, userId, Map.of("status", status));
+        return getTaskResponse(taskId);
+    }
+
+    @Override
+    public Page<TaskResponseDTO> getMyUnblockedTasks(Pageable pageable) {
+        // Флаг поддерживается при изменении связей и статусов, поэтому выборка не обходит граф зависимостей
+        Page<Task> tasks = taskRepository.findByExecutor_IdAndUnblockedTrueAndStatusNot(userService.getCurrentUserId(),
+                TaskStatus.COMPLETED, pageable);
+        return tasks.map(this::convertToSummaryDTO);
+    }
+
+    @Override
+    @Transactional
+    public void addBlocker(Long taskId, Long blockerId) {
+        lockOwnTask(taskId, DEPENDENCIES_FORBIDDEN);
+        taskDependencies.add(blockerId, taskId);
+    }
+
+    @Override
+    @Transactional
+    public void removeBlocker(Long taskId, Long blockerId) {
+        lockOwnTask(taskId, DEPENDENCIES_FORBIDDEN);
+        taskDependencies.remove(blockerId, taskId);
+    }
+
+    @Override
+    public TaskSubtreeDTO getSubtree(Long taskId, int limit) {
+        return taskHierarchy.subtree(taskId, limit);
+    }
+
+    @Override
+    @Transactional
+    public TaskResponseDTO moveTask(Long taskId, Long parentId) {
+        lockOwnTask(taskId, "Вы не можете переносить задачу другого пользователя");
+        if (parentId != null && !taskRepository.existsById(parentId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Родительская задача не найдена");
+        }
+        TaskParticipants participants = taskRepository.findParticipantsById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
-        User executor = userRepository.findByEmail(userService.getCurrentUser().getUsername())
-                        .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден."));
-        if (!task.getExecutor().getEmail().equals(executor.getEmail())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете изменять статус этой задачи");
+        Long previousParentId = taskRepository.findParentIdById(taskId);
+        if (taskHierarchy.move(taskId, parentId)) {
+            Long actorId = userService.getCurrentUserId();
+            taskHistoryLog.append(taskId, actorId, historyOf("parent", previousParentId, parentId));
+            taskEventLog.append(taskId, participants.getAuthorId(), participants.getExecutorId(), participants.getStatus(),
+                    TaskEventType.TASK_UPDATED, actorId, Map.of("fields", List.of("parent")));
         }
-        task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+        return getTaskResponse(taskId);
     }
 
     @Override
     @Transactional
     public CommentResponseDTO addCommentToTask(Long taskId, CommentDTO commentDTO) {
-        Task task = taskRepository.findById(taskId)
+        TaskParticipants participants = taskRepository.findParticipantsById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
-        User user = userRepository.findByEmail(userService.getCurrentUser().getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
-        if (!user.getEmail().equals(task.getExecutor().getEmail())) {
+        Long userId = userService.getCurrentUserId();
+        if (!userId.equals(participants.getExecutorId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете оставлять комментарию в эту задачу");
         }
-        return addCommentAndGetCommentResponseDTO(commentDTO, task, user);
+        return addCommentAndGetCommentResponseDTO(commentDTO, taskId, participants, userId);
+    }
+
+    @Override
+    public TaskHistoryPageDTO getTaskHistory(Long taskId, Long before, int limit) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена");
+        }
+        List<TaskHistoryEntryDTO> entries = taskHistoryLog.findPage(taskId, before, limit);
+        Long nextCursor = entries.size() < limit ? null : entries.get(entries.size() - 1).getId();
+        return new TaskHistoryPageDTO(entries, nextCursor);
+    }
+
+    /**
+     * Три выборки по change_seq выполняются в одном снимке (REPEATABLE READ), иначе номер,
+     * проставленный между ними, мог бы оказаться позади возвращенного курсора.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TaskChangesDTO getChanges(long since, int limit) {
+        if (since > 0 && since < taskTombstoneRepository.findPurgedSeq()) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Курсор устарел, выполните полную синхронизацию");
+        }
+        // Каждый поток берется с запасом в limit + 1, чтобы узнать, есть ли продолжение
+        Limit fetch = Limit.of(limit + 1);
+        List<TaskChangeDTO> changes = new ArrayList<>();
+        taskRepository.findByChangeSeqGreaterThanOrderByChangeSeq(since, fetch).forEach(task -> changes.add(
+                new TaskChangeDTO(task.getChangeSeq(), TaskChangeDTO.Type.TASK_UPSERT, task.getId(), convertToSummaryDTO(task), null)));
+        commentRepository.findByChangeSeqGreaterThanOrderByChangeSeq(since, fetch).forEach(comment -> changes.add(
+                new TaskChangeDTO(comment.getChangeSeq(), TaskChangeDTO.Type.COMMENT_UPSERT, comment.getTaskId(), null,
+                        toCommentDTO(comment, comment.getAuthor().getEmail()))));
+        taskTombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeq(since, fetch).forEach(tombstone -> changes.add(
+                new TaskChangeDTO(tombstone.getChangeSeq(), TaskChangeDTO.Type.TASK_DELETED, tombstone.getTaskId(), null, null)));
+
+        changes.sort(Comparator.comparingLong(TaskChangeDTO::getSeq));
+        boolean hasMore = changes.size() > limit;
+        List<TaskChangeDTO> page = hasMore ? changes.subList(0, limit) : changes;
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).getSeq();
+        return new TaskChangesDTO(new ArrayList<>(page), nextSince, hasMore);
     }
 
     @Override
     @Transactional
     public TaskResponseDTO updateTaskForAdmin(Long id, TaskUpdateDTO taskUpdateDTO) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        Task task = findTaskForUpdate(id);
 
         return updateAndGetTaskResponseDTO(taskUpdateDTO, task);
     }
@@ -143,87 +305,258 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     public void deleteTaskForAdmin(Long id) {
+        taskRepository.lockById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        attachmentService.deleteAllForTask(task.getId());
+        taskReminders.cancel(task.getId());
+        taskDependencies.removeTask(task.getId());
+        taskHierarchy.removeTask(task.getId());
         taskRepository.delete(task);
+        taskCounters.move(id, countersKey(task), null);
+        taskTombstoneRepository.insertTombstone(id, LocalDateTime.now());
+        taskEventLog.append(id, task.getAuthorId(), task.getExecutorId(), null, TaskEventType.TASK_DELETED,
+                userService.getCurrentUserId(), null);
     }
 
     @Override
     @Transactional
     public TaskResponseDTO updateTaskStatusForAdmin(Long taskId, TaskStatus status) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        Task task = findTaskForUpdate(taskId);
+        TaskStatus previous = task.getStatus();
+        if (previous != status) {
+            recordStatusTransition(task, previous, task.getPriority(), task.getExecutorId());
+        }
         task.setStatus(status);
         Task updatedTask = taskRepository.save(task);
+        taskCounters.move(taskId, new TaskCounters.Key(task.getExecutorId(), previous, task.getPriority()), countersKey(task));
+        if (completionChanged(previous, status)) {
+            taskReminders.schedule(taskId, task.getDueAt(), status);
+            // Флаг зависимых задач пересчитывается запросом, которому нужен уже записанный статус
+            taskRepository.flush();
+            taskDependencies.refreshDependents(taskId);
+        }
+        if (previous != status) {
+            Long actorId = userService.getCurrentUserId();
+            taskHistoryLog.append(taskId, actorId, historyOf("status", previous, status));
+            taskEventLog.append(taskId, task.getAuthorId(), task.getExecutorId(), status, TaskEventType.STATUS_CHANGED,
+                    actorId, Map.of("status", status));
+        }
         return convertToDTO(updatedTask);
     }
 
     @Override
     @Transactional
     public TaskResponseDTO updateTaskPriorityForAdmin(Long taskId, TaskPriority priority) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        Task task = findTaskForUpdate(taskId);
+        TaskPriority previous = task.getPriority();
         task.setPriority(priority);
         Task updatedTask = taskRepository.save(task);
+        taskCounters.move(taskId, new TaskCounters.Key(task.getExecutorId(), task.getStatus(), previous), countersKey(task));
+        if (previous != priority) {
+            Long actorId = userService.getCurrentUserId();
+            taskHistoryLog.append(taskId, actorId, historyOf("priority", previous, priority));
+            taskEventLog.append(taskId, task.getAuthorId(), task.getExecutorId(), task.getStatus(), TaskEventType.PRIORITY_CHANGED,
+                    actorId, Map.of("priority", priority));
+        }
         return convertToDTO(updatedTask);
     }
 
     @Override
     @Transactional
     public CommentResponseDTO addCommentToTaskForAdmin(Long taskId, CommentDTO commentDTO) {
-        Task task = taskRepository.findById(taskId)
+        TaskParticipants participants = taskRepository.findParticipantsById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
-        User admin = userRepository.findByEmail(userService.getCurrentUser().getUsername())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Администратор не найден"));
-        return addCommentAndGetCommentResponseDTO(commentDTO, task, admin);
+        return addCommentAndGetCommentResponseDTO(commentDTO, taskId, participants, userService.getCurrentUserId());
     }
 
-    private CommentResponseDTO addCommentAndGetCommentResponseDTO(CommentDTO commentDTO, Task task, User user) {
+    private CommentResponseDTO addCommentAndGetCommentResponseDTO(CommentDTO commentDTO, Long taskId,
+                                                                  TaskParticipants participants, Long authorId) {
+        // Задача и автор прикрепляются по ссылке: граф задачи не загружается
         Comment comment = new Comment();
         comment.setContent(commentDTO.getContent());
-        comment.setAuthor(user);
-        comment.setTask(task);
+        comment.setAuthor(userRepository.getReferenceById(authorId));
+        comment.setTask(taskRepository.getReferenceById(taskId));
         comment.setCreatedAt(LocalDateTime.now());
         Comment savedComment = commentRepository.save(comment);
-        CommentResponseDTO commentResponseDTO = modelMapper.map(savedComment, CommentResponseDTO.class);
-        commentResponseDTO.setAuthorEmail(savedComment.getAuthor().getEmail());
-        return commentResponseDTO;
+        taskRepository.incrementCommentCount(taskId, savedComment.getCreatedAt());
+        taskEventLog.append(taskId, participants.getAuthorId(), participants.getExecutorId(), participants.getStatus(),
+                TaskEventType.COMMENT_ADDED, authorId, Map.of("commentId", savedComment.getId()));
+        return toCommentDTO(savedComment, userService.getCurrentUser().getUsername());
     }
 
     private TaskResponseDTO updateAndGetTaskResponseDTO(TaskUpdateDTO taskUpdateDTO, Task task) {
+        List<String> changed = new ArrayList<>();
+        String previousTitle = task.getTitle();
+        String previousDescription = task.getDescription();
+        TaskStatus previousStatus = task.getStatus();
+        TaskPriority previousPriority = task.getPriority();
+        Long previousExecutorId = task.getExecutorId();
+        LocalDateTime previousDueAt = task.getDueAt();
         if (taskUpdateDTO.getTitle() != null) {
             task.setTitle(taskUpdateDTO.getTitle());
+            changed.add("title");
         }
         if (taskUpdateDTO.getDescription() != null) {
             task.setDescription(taskUpdateDTO.getDescription());
+            changed.add("description");
         }
         if (taskUpdateDTO.getStatus() != null) {
+            if (taskUpdateDTO.getStatus() != previousStatus) {
+                recordStatusTransition(task, previousStatus, previousPriority, previousExecutorId);
+            }
             task.setStatus(taskUpdateDTO.getStatus());
         }
         if (taskUpdateDTO.getPriority() != null) {
             task.setPriority(taskUpdateDTO.getPriority());
         }
+        if (taskUpdateDTO.getDueAt() != null && !taskUpdateDTO.getDueAt().equals(previousDueAt)) {
+            task.setDueAt(taskUpdateDTO.getDueAt());
+            changed.add("dueAt");
+        }
+        Long executorId = task.getExecutorId();
+        String executorEmail = task.getExecutor() != null ? task.getExecutor().getEmail() : null;
         if (taskUpdateDTO.getExecutorEmail() != null) {
-            User executor = userRepository.findByEmail(taskUpdateDTO.getExecutorEmail())
+            CachedUser executor = userService.getCachedUserByEmail(taskUpdateDTO.getExecutorEmail())
                     .orElseThrow(() -> new UsernameNotFoundException("Исполнитель не найден."));
-            task.setExecutor(executor);
+            task.setExecutor(userRepository.getReferenceById(executor.id()));
+            if (!executor.id().equals(executorId)) {
+                changed.add("executor");
+            }
+            executorId = executor.id();
+            executorEmail = executor.email();
         }
         Task updatedTask = taskRepository.save(task);
-        return convertToDTO(updatedTask);
+        taskCounters.move(task.getId(), new TaskCounters.Key(previousExecutorId, previousStatus, previousPriority),
+                new TaskCounters.Key(executorId, task.getStatus(), task.getPriority()));
+        if (!Objects.equals(previousDueAt, task.getDueAt()) || completionChanged(previousStatus, task.getStatus())) {
+            taskReminders.schedule(task.getId(), task.getDueAt(), task.getStatus());
+        }
+        if (completionChanged(previousStatus, task.getStatus())) {
+            taskRepository.flush();
+            taskDependencies.refreshDependents(task.getId());
+        }
+
+        List<TaskHistoryChange> history = new ArrayList<>();
+        addIfChanged(history, "title", previousTitle, task.getTitle());
+        addIfChanged(history, "description", previousDescription, task.getDescription());
+        addIfChanged(history, "status", previousStatus, task.getStatus());
+        addIfChanged(history, "priority", previousPriority, task.getPriority());
+        addIfChanged(history, "executor", previousExecutorId, executorId);
+        addIfChanged(history, "dueAt", previousDueAt, task.getDueAt());
+        taskHistoryLog.append(task.getId(), userService.getCurrentUserId(), history);
+        appendUpdateEvents(task, executorId, changed, previousStatus, previousPriority);
+        return convertToDTO(updatedTask, updatedTask.getAuthor().getEmail(), executorEmail);
+    }
+
+    private void appendUpdateEvents(Task task, Long executorId, List<String> changed,
+                                    TaskStatus previousStatus, TaskPriority previousPriority) {
+        Long actorId = userService.getCurrentUserId();
+        TaskStatus status = task.getStatus();
+        if (!changed.isEmpty()) {
+            taskEventLog.append(task.getId(), task.getAuthorId(), executorId, status, TaskEventType.TASK_UPDATED,
+                    actorId, Map.of("fields", changed));
+        }
+        if (status != previousStatus) {
+            taskEventLog.append(task.getId(), task.getAuthorId(), executorId, status, TaskEventType.STATUS_CHANGED,
+                    actorId, Map.of("status", status));
+        }
+        if (task.getPriority() != previousPriority) {
+            taskEventLog.append(task.getId(), task.getAuthorId(), executorId, status, TaskEventType.PRIORITY_CHANGED,
+                    actorId, Map.of("priority", task.getPriority()));
+        }
+    }
+
+    private Task findTaskForUpdate(Long taskId) {
+        taskRepository.lockById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        return taskRepository.findWithUsersById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+    }
+
+    /**
+     * Блокирует задачу, чьи зависимости или место в иерархии меняются: менять их может только автор задачи.
+     */
+    private void lockOwnTask(Long taskId, String forbiddenMessage) {
+        taskRepository.lockById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        TaskParticipants participants = taskRepository.findParticipantsById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        if (!participants.getAuthorId().equals(userService.getCurrentUserId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, forbiddenMessage);
+        }
+    }
+
+    private static TaskCounters.Key countersKey(Task task) {
+        return new TaskCounters.Key(task.getExecutorId(), task.getStatus(), task.getPriority());
+    }
+
+    /**
+     * Передает время, проведенное в прежнем статусе, в статистику и отмечает момент входа в новый.
+     */
+    private void recordStatusTransition(Task task, TaskStatus previousStatus, TaskPriority priority, Long executorId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (task.getStatusChangedAt() != null) {
+            cycleTimeTracker.record(previousStatus, priority, executorId,
+                    Duration.between(task.getStatusChangedAt(), now).toMillis());
+        }
+        task.setStatusChangedAt(now);
+    }
+
+    // Напоминания есть только у незавершенных задач, и только незавершенные задачи блокируют зависимые
+    private static boolean completionChanged(TaskStatus previous, TaskStatus current) {
+        return (previous == TaskStatus.COMPLETED) != (current == TaskStatus.COMPLETED);
+    }
+
+    private static List<TaskHistoryChange> historyOf(String field, Object oldValue, Object newValue) {
+        return List.of(TaskHistoryChange.of(field, oldValue, newValue));
+    }
+
+    private static void addIfChanged(List<TaskHistoryChange> history, String field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            history.add(TaskHistoryChange.of(field, oldValue, newValue));
+        }
+    }
+
+    private TaskResponseDTO getTaskResponse(Long taskId) {
+        TaskResponseDTO dto = taskRepository.findResponseById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задача не найдена"));
+        dto.setComments(commentRepository.findResponsesByTaskId(taskId));
+        return dto;
     }
 
     private TaskResponseDTO convertToDTO(Task task) {
-        TaskResponseDTO dto = modelMapper.map(task, TaskResponseDTO.class);
-        dto.setAuthorEmail(task.getAuthor().getEmail());
-        dto.setExecutorEmail(task.getExecutor().getEmail());
+        return convertToDTO(task, task.getAuthor().getEmail(),
+                task.getExecutor() != null ? task.getExecutor().getEmail() : null);
+    }
+
+    private TaskResponseDTO convertToDTO(Task task, String authorEmail, String executorEmail) {
         List<CommentResponseDTO> commentDTOs = task.getComments().stream()
-                .map(comment -> {
-                    CommentResponseDTO commentDTO = modelMapper.map(comment, CommentResponseDTO.class);
-                    commentDTO.setAuthorEmail(comment.getAuthor().getEmail());
-                    return commentDTO;
-                })
+                .map(comment -> toCommentDTO(comment, comment.getAuthor().getEmail()))
                 .collect(Collectors.toList());
-        dto.setComments(commentDTOs);
+        TaskResponseDTO dto = new TaskResponseDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), authorEmail, executorEmail, commentDTOs);
+        dto.setParentId(task.getParentId());
+        dto.setDueAt(task.getDueAt());
+        dto.setCommentCount(task.getCommentCount());
+        dto.setLastCommentAt(task.getLastCommentAt());
         return dto;
     }
+
+    // Для списков: комментарии не загружаются, используются денормализованные счетчики
+    private TaskResponseDTO convertToSummaryDTO(Task task) {
+        return new TaskResponseDTO(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+                task.getPriority(), task.getAuthor().getEmail(),
+                task.getExecutor() != null ? task.getExecutor().getEmail() : null,
+                task.getParentId(), task.getDueAt(), task.getCommentCount(), task.getLastCommentAt());
+    }
+
+    private CommentResponseDTO toCommentDTO(Comment comment, String authorEmail) {
+        CommentResponseDTO commentDTO = new CommentResponseDTO();
+        commentDTO.setId(comment.getId());
+        commentDTO.setContent(comment.getContent());
+        commentDTO.setAuthorEmail(authorEmail);
+        return commentDTO;
+    }
 }
@@ -0,0 +1,81 @@
+package org.example.taskmanagementsystem.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.cache.CachedUser;
+import org.example.taskmanagementsystem.dto.request.TaskTemplateCreateDTO;
+import org.example.taskmanagementsystem.dto.response.TaskTemplateDTO;
+import org.example.taskmanagementsystem.entity.TaskTemplate;
+import org.example.taskmanagementsystem.recurrence.RecurrenceSchedule;
+import org.example.taskmanagementsystem.repository.TaskTemplateRepository;
+import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.TaskTemplateService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class TaskTemplateServiceImpl implements TaskTemplateService {
+    private final TaskTemplateRepository taskTemplateRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    @Override
+    @Transactional
+    public TaskTemplateDTO createTemplate(TaskTemplateCreateDTO templateCreateDTO) {
+        if (templateCreateDTO.getEndAt() != null && templateCreateDTO.getEndAt().isBefore(templateCreateDTO.getStartAt())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Окончание повторений раньше их начала");
+        }
+        Long authorId = userService.getCurrentUserId();
+        CachedUser executor = userService.getCachedUserByEmail(templateCreateDTO.getExecutorEmail())
+                .orElseThrow(() -> new UsernameNotFoundException("Исполнитель не найден."));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextRunAt = RecurrenceSchedule.firstNotBefore(templateCreateDTO.getStartAt(),
+                RecurrenceSchedule.periodDays(templateCreateDTO.getFrequency(), templateCreateDTO.getInterval()), now);
+        if (templateCreateDTO.getEndAt() != null && nextRunAt.isAfter(templateCreateDTO.getEndAt())) {
+            nextRunAt = null;
+        }
+
+        TaskTemplate template = new TaskTemplate();
+        template.setTitle(templateCreateDTO.getTitle());
+        template.setDescription(templateCreateDTO.getDescription());
+        template.setPriority(templateCreateDTO.getPriority());
+        template.setAuthor(userRepository.getReferenceById(authorId));
+        template.setExecutor(userRepository.getReferenceById(executor.id()));
+        template.setFrequency(templateCreateDTO.getFrequency());
+        template.setIntervalCount(templateCreateDTO.getInterval());
+        template.setStartAt(templateCreateDTO.getStartAt());
+        template.setEndAt(templateCreateDTO.getEndAt());
+        template.setDueAfterMinutes(templateCreateDTO.getDueAfterMinutes());
+        template.setNextRunAt(nextRunAt);
+        template.setCreatedAt(now);
+        TaskTemplate saved = taskTemplateRepository.save(template);
+
+        return new TaskTemplateDTO(saved.getId(), saved.getTitle(), saved.getDescription(), saved.getPriority(),
+                executor.email(), saved.getFrequency(), saved.getIntervalCount(), saved.getStartAt(), saved.getEndAt(),
+                saved.getDueAfterMinutes(), saved.getNextRunAt());
+    }
+
+    @Override
+    public List<TaskTemplateDTO> getMyTemplates() {
+        return taskTemplateRepository.findResponsesByAuthorId(userService.getCurrentUserId());
+    }
+
+    @Override
+    @Transactional
+    public void deleteTemplate(Long templateId) {
+        TaskTemplate template = taskTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Шаблон не найден"));
+        if (!template.getAuthorId().equals(userService.getCurrentUserId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Вы не можете удалить шаблон другого пользователя");
+        }
+        taskTemplateRepository.delete(template);
+    }
+}
@@ -1,13 +1,17 @@
 package org.example.taskmanagementsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.taskmanagementsystem.cache.CachedUser;
+import org.example.taskmanagementsystem.cache.UserCache;
 import org.example.taskmanagementsystem.dto.request.UpdatePasswordDTO;
 import org.example.taskmanagementsystem.dto.request.UserCreateDTO;
 import org.example.taskmanagementsystem.entity.Role;
 import org.example.taskmanagementsystem.entity.User;
 import org.example.taskmanagementsystem.exceptions.UserAlreadyExistsException;
+import org.example.taskmanagementsystem.jwt.CurrentUser;
 import org.example.taskmanagementsystem.jwt.JwtService;
 import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.EmailService;
 import org.example.taskmanagementsystem.service.TokenBlacklistService;
 import org.example.taskmanagementsystem.service.UserService;
 import org.modelmapper.ModelMapper;
@@ -34,9 +38,11 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
-    private final EmailServiceImpl emailService;
+    private final EmailService emailService;
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final UserCache userCache;
+    private final CurrentUser currentUser;
 
     @Override
     @Transactional
@@ -52,11 +58,8 @@ public class UserServiceImpl implements UserService {
         user.setConfirmationCode(code);
         user.setCodeSentAt(LocalDateTime.now());
         userRepository.save(user);
-        try {
-            emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при отправлении кода в почту");
-        }
+        userCache.invalidate(user.getEmail());
+        emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
     }
 
     @Override
@@ -65,6 +68,7 @@ public class UserServiceImpl implements UserService {
         user.setIsVerified(true);
         user.setCreatedAt(Instant.now());
         userRepository.save(user);
+        userCache.invalidate(user.getEmail());
     }
     @Override
     @Transactional
@@ -74,11 +78,7 @@ public class UserServiceImpl implements UserService {
         String code = generateCode();
         user.setConfirmationCode(code);
         userRepository.save(user);
-        try {
-            emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при отправлении кода в почту");
-        }
+        emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
     }
 
     @Override
@@ -102,11 +102,7 @@ public class UserServiceImpl implements UserService {
         String code = generateCode();
         user.setConfirmationCode(code);
         userRepository.save(user);
-        try {
-            emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
-        } catch (Exception e) {
-            throw new RuntimeException("Ошибка при отправлении кода в почту");
-        }
+        emailService.sendEmail(user.getEmail(), "Task Management System Verify Email", "Your code is: " + code);
     }
 
     @Override
@@ -131,6 +127,13 @@ public class UserServiceImpl implements UserService {
         User user = optionalUser.get();
         user.setPassword(passwordEncoder.encode(updatePasswordDTO.getPassword()));
         userRepository.save(user);
+        userCache.invalidate(user.getEmail());
+    }
+
+    @Override
+    @Transactional
+    public void setDigestEnabled(boolean enabled) {
+        userRepository.updateDigestEnabled(getCurrentUserId(), enabled);
     }
 
     @Override
@@ -139,6 +142,7 @@ public class UserServiceImpl implements UserService {
     public void removeExpiredUnverifiedUsers() {
         LocalDateTime expirationTime = LocalDateTime.now().minusHours(24);
         userRepository.deleteExpiredUnverifiedUsers(expirationTime);
+        userCache.invalidateAll();
     }
 
 
@@ -147,6 +151,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByEmail(email);
     }
 
+    @Override
+    public Optional<CachedUser> getCachedUserByEmail(String email) {
+        return userCache.findByEmail(email);
+    }
+
     private String generateCode() {
         return Integer.toString((int)(Math.random() * 900000) + 100000);
     }
@@ -162,10 +171,27 @@ public class UserServiceImpl implements UserService {
         return null;
     }
 
+    @Override
+    public Long getCurrentUserId() {
+        if (currentUser.getId() != null) {
+            return currentUser.getId();
+        }
+        // Токены, выданные до появления claim uid, и аутентификация не через JWT
+        UserDetails principal = getCurrentUser();
+        if (principal == null) {
+            throw new UsernameNotFoundException("Пользователь не найден.");
+        }
+        Long id = userCache.findByEmail(principal.getUsername())
+                .map(CachedUser::id)
+                .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден."));
+        currentUser.setId(id);
+        return id;
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) {
-        User user = getUserByEmail(username)
+        CachedUser user = userCache.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
-        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), user.getAuthorities());
+        return new org.springframework.security.core.userdetails.User(user.email(), user.password(), user.authorities());
     }
 }
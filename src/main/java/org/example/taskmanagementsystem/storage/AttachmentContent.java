@@ -0,0 +1,9 @@
+package org.example.taskmanagementsystem.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Файл вложения для отдачи клиенту.
+ */
+public record AttachmentContent(Path file, String fileName, String contentType) {
+}
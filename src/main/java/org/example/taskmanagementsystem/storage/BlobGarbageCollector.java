@@ -0,0 +1,73 @@
+package org.example.taskmanagementsystem.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Удаляет содержимое вложений, на которое не осталось ссылок.
+ * <p>
+ * Удаление вложения только уменьшает счетчик, а файл удаляется здесь, в фоне, не раньше чем через
+ * {@code attachments.gc-grace}. Файл удаляется, пока строка счетчика заблокирована: параллельная
+ * загрузка того же содержимого дождется конца транзакции, зарегистрирует хеш заново и положит свой файл.
+ * <p>
+ * Реестр {@code attachment_blobs} общий, а файлы лежат на локальном диске узла ({@link LocalContentStore}).
+ * Поэтому вложения рассчитаны на один узел приложения: при нескольких узлах сборщик одного узла
+ * может забрать строку содержимого, загруженного на другой, и удалить у себя несуществующий файл,
+ * оставив настоящий навсегда. Скачивание и повторная загрузка по хешу тоже предполагают, что файл
+ * на этом узле. Для нескольких узлов нужно общее хранилище содержимого (например, объектное).
+ */
+@Component
+@Slf4j
+public class BlobGarbageCollector {
+    private final BlobRegistry blobRegistry;
+    private final LocalContentStore contentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration grace;
+    private final int batchSize;
+
+    public BlobGarbageCollector(BlobRegistry blobRegistry,
+                                LocalContentStore contentStore,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${attachments.gc-grace}") Duration grace,
+                                @Value("${attachments.gc-batch-size}") int batchSize) {
+        this.blobRegistry = blobRegistry;
+        this.contentStore = contentStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.grace = grace;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${attachments.gc-interval-ms}", fixedDelayString = "${attachments.gc-interval-ms}")
+    public void collect() {
+        int collected;
+        int total = 0;
+        do {
+            collected = collectBatch();
+            total += collected;
+        } while (collected == batchSize);
+        if (total > 0) {
+            log.info("Удалено содержимое вложений без ссылок: {}", total);
+        }
+    }
+
+    /**
+     * @return количество удаленных файлов
+     */
+    public int collectBatch() {
+        Integer collected = transactionTemplate.execute(status -> {
+            List<String> unreferenced = blobRegistry.claimUnreferenced(LocalDateTime.now().minus(grace), batchSize);
+            unreferenced.forEach(contentStore::delete);
+            blobRegistry.delete(unreferenced);
+            return unreferenced.size();
+        });
+        return collected != null ? collected : 0;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.taskmanagementsystem.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Счетчики ссылок на содержимое в {@code attachment_blobs}. Все изменения идут в транзакции
+ * строки вложения, а строка счетчика остается заблокированной до её конца: сборщик мусора
+ * не может удалить содержимое, на которое в этот момент появляется ссылка.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlobRegistry {
+    private static final String ADD_REFERENCE_SQL =
+            "INSERT INTO attachment_blobs (sha256, size, ref_count, created_at) VALUES (?, ?, 1, ?) " +
+            "ON CONFLICT (sha256) DO UPDATE SET ref_count = attachment_blobs.ref_count + 1, zero_since = NULL";
+    private static final String REMOVE_REFERENCES_SQL =
+            "UPDATE attachment_blobs SET ref_count = ref_count - ?, " +
+            "zero_since = CASE WHEN ref_count - ? <= 0 THEN ? ELSE NULL END WHERE sha256 = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addReference(String sha256, long size) {
+        jdbcTemplate.update(ADD_REFERENCE_SQL, sha256, size, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeReferences(Map<String, Integer> countsBySha256) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(REMOVE_REFERENCES_SQL, countsBySha256.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new Object[]{entry.getValue(), entry.getValue(), now, entry.getKey()})
+                .toList());
+    }
+
+    public boolean isReferenced(String sha256) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM attachment_blobs WHERE sha256 = ? AND ref_count > 0)", Boolean.class, sha256));
+    }
+
+    /**
+     * Регистрирует файл, оставшийся в хранилище после откаченной загрузки, без ссылок: если ссылка так
+     * и не появится, его удалит сборщик мусора. Уже зарегистрированное содержимое не меняется.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registerUnreferenced(String sha256, long size) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO attachment_blobs (sha256, size, ref_count, created_at, zero_since) " +
+                "VALUES (?, ?, 0, ?, ?) ON CONFLICT (sha256) DO NOTHING", sha256, size, now, now);
+    }
+
+    /**
+     * Блокирует пачку содержимого без ссылок, пролежавшего без них дольше grace; строки,
+     * захваченные другим узлом или только что получившие ссылку, пропускаются.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> claimUnreferenced(LocalDateTime zeroBefore, int limit) {
+        return jdbcTemplate.queryForList("SELECT sha256 FROM attachment_blobs WHERE ref_count <= 0 AND zero_since < ? " +
+                "ORDER BY zero_since LIMIT ? FOR UPDATE SKIP LOCKED", String.class, Timestamp.valueOf(zeroBefore), limit);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(List<String> sha256s) {
+        jdbcTemplate.batchUpdate("DELETE FROM attachment_blobs WHERE sha256 = ?",
+                sha256s.stream().map(sha256 -> new Object[]{sha256}).toList());
+    }
+}
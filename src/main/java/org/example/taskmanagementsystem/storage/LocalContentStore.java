@@ -0,0 +1,159 @@
+package org.example.taskmanagementsystem.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Локальное хранилище содержимого вложений, адресуемое SHA-256.
+ * <p>
+ * Файл с хешем {@code abcd...} лежит в {@code ab/cd/abcd...}, чтобы каталоги не разрастались до
+ * сотен тысяч записей. Загрузка читается из потока блоками по {@value #BUFFER_SIZE} байт во временный
+ * файл, и хеш считается по тем же блокам, поэтому память на загрузку не зависит от размера файла.
+ * Ключи вложений, загруженных до перехода на хеши (UUID), по-прежнему лежат в корне хранилища.
+ * <p>
+ * Содержимое хранится на локальном диске узла, а строки {@code task_attachments} и
+ * {@code attachment_blobs} — в БД. Каталог {@code attachments.directory} должен переживать
+ * пересоздание узла (в docker-compose это том {@code attachments-data}), иначе строки останутся
+ * без файлов: скачивание ответит 410, а повторная загрузка того же содержимого — 409.
+ */
+@Component
+@Slf4j
+public class LocalContentStore {
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+    private final Path temporaryDirectory;
+    private final long maxFileSize;
+
+    public LocalContentStore(@Value("${attachments.directory}") String directory,
+                             @Value("${spring.servlet.multipart.max-file-size}") DataSize maxFileSize) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.temporaryDirectory = this.directory.resolve("tmp");
+        this.maxFileSize = maxFileSize.toBytes();
+    }
+
+    @PostConstruct
+    public void createDirectories() throws IOException {
+        Files.createDirectories(temporaryDirectory);
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public static boolean isContentAddressed(String key) {
+        return SHA256.matcher(key).matches();
+    }
+
+    /**
+     * Пишет поток во временный файл, одновременно считая SHA-256.
+     *
+     * @throws ResponseStatusException 413, если поток длиннее допустимого размера файла
+     */
+    public StagedContent stage(InputStream in) throws IOException {
+        Path temporary = Files.createTempFile(temporaryDirectory, "upload-", ".part");
+        try (OutputStream out = Files.newOutputStream(temporary)) {
+            Digest digest = copy(in, out);
+            return new StagedContent(digest.sha256(), digest.size(), temporary);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Считает SHA-256 потока, ничего не записывая на диск: для загрузки содержимого, которое уже есть в хранилище.
+     */
+    public Digest digest(InputStream in) throws IOException {
+        return copy(in, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Переносит временный файл под его хеш. Если такое содержимое уже лежит в хранилище,
+     * временный файл просто удаляется.
+     */
+    public void publish(StagedContent staged) throws IOException {
+        Path target = resolve(staged.sha256());
+        if (Files.isRegularFile(target)) {
+            discard(staged);
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(staged.temporaryFile(), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void discard(StagedContent staged) {
+        try {
+            Files.deleteIfExists(staged.temporaryFile());
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}", staged.temporaryFile(), e);
+        }
+    }
+
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    public Path resolve(String key) {
+        if (isContentAddressed(key)) {
+            return directory.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+        }
+        return directory.resolve(key);
+    }
+
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.warn("Не удалось удалить содержимое вложения {}", key, e);
+        }
+    }
+
+    private Digest copy(InputStream in, OutputStream out) throws IOException {
+        MessageDigest sha256 = newSha256();
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            size += read;
+            if (size > maxFileSize) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Файл превышает допустимый размер");
+            }
+            sha256.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+        }
+        return new Digest(HexFormat.of().formatHex(sha256.digest()), size);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Digest(String sha256, long size) {
+    }
+
+    public record StagedContent(String sha256, long size, Path temporaryFile) {
+    }
+}
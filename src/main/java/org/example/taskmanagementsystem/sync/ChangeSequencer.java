@@ -0,0 +1,72 @@
+package org.example.taskmanagementsystem.sync;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Присваивает номера ленты синхронизации измененным строкам tasks, comments и task_tombstones.
+ * <p>
+ * Изменение сбрасывает change_seq в NULL, а номера из последовательности ставит только этот
+ * компонент, по одному запуску за раз (advisory lock). Поэтому номера видны клиентам строго
+ * в порядке возрастания: строка с меньшим номером не может появиться после строки с большим,
+ * как было бы при nextval() в параллельных транзакциях с разным временем коммита.
+ */
+@Component
+@Slf4j
+public class ChangeSequencer {
+    private static final long SEQUENCER_LOCK_KEY = 370_037L;
+    private static final String[] TABLES = {"tasks", "comments", "task_tombstones"};
+    private static final String PURGE_TOMBSTONES_SQL =
+            "WITH purged AS (DELETE FROM task_tombstones WHERE deleted_at < ? AND change_seq IS NOT NULL RETURNING change_seq) " +
+            "INSERT INTO sync_watermark (id, purged_seq) SELECT 1, MAX(change_seq) FROM purged HAVING MAX(change_seq) IS NOT NULL " +
+            "ON CONFLICT (id) DO UPDATE SET purged_seq = GREATEST(sync_watermark.purged_seq, EXCLUDED.purged_seq)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tombstoneRetention;
+
+    public ChangeSequencer(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${sync.tombstone-retention}") Duration tombstoneRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @PostConstruct
+    public void createSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS change_seq");
+    }
+
+    @Scheduled(fixedDelayString = "${sync.sequencer-interval-ms}")
+    public void stamp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, SEQUENCER_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            for (String table : TABLES) {
+                String key = table.equals("task_tombstones") ? "task_id" : "id";
+                // Строки, заблокированные незавершенными транзакциями, получат номер в следующий запуск
+                jdbcTemplate.update("UPDATE " + table + " SET change_seq = nextval('change_seq') WHERE " + key + " IN (" +
+                        "SELECT " + key + " FROM " + table + " WHERE change_seq IS NULL FOR UPDATE SKIP LOCKED)");
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${sync.tombstone-cleanup-interval-ms}")
+    public void purgeTombstones() {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update(PURGE_TOMBSTONES_SQL, Timestamp.valueOf(LocalDateTime.now().minus(tombstoneRetention))));
+    }
+}
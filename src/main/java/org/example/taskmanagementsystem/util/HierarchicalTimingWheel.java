@@ -0,0 +1,132 @@
+package org.example.taskmanagementsystem.util;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Иерархическое колесо таймеров.
+ * <p>
+ * Уровень 0 делит время на {@code wheelSize} тиков, каждый следующий уровень - на {@code wheelSize}
+ * оборотов предыдущего. Элемент кладется на самый мелкий уровень, в оборот которого попадает его срок,
+ * и при наступлении оборота переносится на уровень ниже. Добавление - O(1), тик разбирает одну ячейку
+ * уровня 0 (и раз в оборот - одну ячейку уровня выше), поэтому стоимость тика не зависит от того,
+ * сколько элементов ждет в колесе. Срок округляется вверх до границы тика: элемент срабатывает
+ * не раньше своего срока и не позже чем через тик после него. Не потокобезопасно.
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[][] slots;
+    private final long spanTicks;
+    private long currentTick;
+    private int size;
+
+    private record Entry<T>(long deadlineTick, T item) {
+    }
+
+    /**
+     * @param wheelSize число ячеек на уровне, степень двойки
+     * @param startMillis момент, с которого отсчитываются тики
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("Некорректные параметры колеса таймеров");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        if ((long) bits * levels >= 62) {
+            throw new IllegalArgumentException("Слишком много уровней колеса таймеров");
+        }
+        this.slots = new ArrayDeque[levels][wheelSize];
+        this.spanTicks = 1L << (bits * levels);
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Максимальное расстояние от текущего момента, на которое можно запланировать элемент;
+     * на один тик меньше охвата колеса, чтобы округленный вверх срок в него поместился.
+     */
+    public long spanMillis() {
+        return (spanTicks - 2) * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return false, если срок уже наступил: элемент не добавлен и обрабатывается вызывающим сразу
+     * @throws IllegalArgumentException если срок дальше {@link #spanMillis()}
+     */
+    public boolean add(long deadlineMillis, T item) {
+        long deadlineTick = -Math.floorDiv(-deadlineMillis, tickMillis);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        if (deadlineTick - currentTick >= spanTicks) {
+            throw new IllegalArgumentException("Срок за пределами колеса таймеров");
+        }
+        place(new Entry<>(deadlineTick, item));
+        size++;
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до nowMillis и передает в expired элементы, срок которых наступил.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Сначала спускаем наступившие обороты верхних уровней, затем разбираем ячейку уровня 0
+            for (int level = slots.length - 1; level > 0; level--) {
+                int shift = bits * level;
+                if ((currentTick & ((1L << shift) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> shift) & mask), expired);
+                }
+            }
+            ArrayDeque<Entry<T>> slot = slots[0][(int) (currentTick & mask)];
+            if (slot != null) {
+                while (!slot.isEmpty()) {
+                    size--;
+                    expired.accept(slot.poll().item());
+                }
+            }
+        }
+    }
+
+    private void cascade(int level, int index, Consumer<T> expired) {
+        ArrayDeque<Entry<T>> slot = slots[level][index];
+        if (slot == null || slot.isEmpty()) {
+            return;
+        }
+        slots[level][index] = null;
+        for (Entry<T> entry : slot) {
+            if (entry.deadlineTick() <= currentTick) {
+                size--;
+                expired.accept(entry.item());
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        int level = 0;
+        // Самый мелкий уровень, на котором срок не дальше одного оборота от текущего тика
+        while (level < slots.length - 1
+                && (entry.deadlineTick() >>> (bits * level)) - (currentTick >>> (bits * level)) >= mask + 1) {
+            level++;
+        }
+        int index = (int) ((entry.deadlineTick() >>> (bits * level)) & mask);
+        ArrayDeque<Entry<T>> slot = slots[level][index];
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            slots[level][index] = slot;
+        }
+        slot.add(entry);
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.taskmanagementsystem.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Разреженная логарифмическая гистограмма (в духе DDSketch) для квантилей неотрицательных величин.
+ * <p>
+ * Значение v попадает в корзину {@code ceil(log_gamma(v))}, где {@code gamma = (1 + a) / (1 - a)}, поэтому
+ * любой квантиль возвращается с относительной ошибкой не больше {@code a}. Корзины хранятся только
+ * непустые, и две гистограммы с одинаковой точностью сливаются сложением счетчиков без потери точности,
+ * то есть частичные результаты разных узлов и периодов можно объединять.
+ */
+public class QuantileSketch {
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private int[] indexes = new int[8];
+    private long[] counts = new long[8];
+    private int size;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1)");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public synchronized void add(long value) {
+        add(value, 1);
+    }
+
+    public synchronized void add(long value, long times) {
+        if (value <= 0) {
+            zeroCount += times;
+        } else {
+            addToBucket((int) Math.ceil(Math.log(value) / logGamma), times);
+        }
+        count += times;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a sketch into itself");
+        }
+        if (Double.compare(other.relativeAccuracy, relativeAccuracy) != 0) {
+            throw new IllegalArgumentException("Sketches with different accuracy cannot be merged");
+        }
+        int otherSize;
+        int[] otherIndexes;
+        long[] otherCounts;
+        long otherZeroCount;
+        // Снимок берется под замком другого экземпляра, чтобы не держать два замка сразу
+        synchronized (other) {
+            otherSize = other.size;
+            otherIndexes = Arrays.copyOf(other.indexes, otherSize);
+            otherCounts = Arrays.copyOf(other.counts, otherSize);
+            otherZeroCount = other.zeroCount;
+        }
+        synchronized (this) {
+            for (int i = 0; i < otherSize; i++) {
+                addToBucket(otherIndexes[i], otherCounts[i]);
+                count += otherCounts[i];
+            }
+            zeroCount += otherZeroCount;
+            count += otherZeroCount;
+        }
+    }
+
+    /**
+     * @param quantile значение от 0 до 1
+     * @return оценка квантиля; 0 для пустой гистограммы
+     */
+    public synchronized long quantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(quantile * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < size; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return Math.round(2 * Math.pow(gamma, indexes[i]) / (gamma + 1));
+            }
+        }
+        return Math.round(2 * Math.pow(gamma, indexes[size - 1]) / (gamma + 1));
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public synchronized byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + Long.BYTES + Integer.BYTES + size * (Integer.BYTES + Long.BYTES));
+        buffer.putDouble(relativeAccuracy);
+        buffer.putLong(zeroCount);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(indexes[i]);
+            buffer.putLong(counts[i]);
+        }
+        return buffer.array();
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantileSketch sketch = new QuantileSketch(buffer.getDouble());
+        sketch.zeroCount = buffer.getLong();
+        sketch.count = sketch.zeroCount;
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            int index = buffer.getInt();
+            long bucketCount = buffer.getLong();
+            sketch.addToBucket(index, bucketCount);
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+
+    private void addToBucket(int index, long times) {
+        int position = Arrays.binarySearch(indexes, 0, size, index);
+        if (position >= 0) {
+            counts[position] += times;
+            return;
+        }
+        int insertAt = -position - 1;
+        if (size == indexes.length) {
+            indexes = Arrays.copyOf(indexes, size * 2);
+            counts = Arrays.copyOf(counts, size * 2);
+        }
+        System.arraycopy(indexes, insertAt, indexes, insertAt + 1, size - insertAt);
+        System.arraycopy(counts, insertAt, counts, insertAt + 1, size - insertAt);
+        indexes[insertAt] = index;
+        counts[insertAt] = times;
+        size++;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.taskmanagementsystem.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket keyed by string (GCRA form).
+ * <p>
+ * Каждое ведро хранит одно число — "теоретическое время прихода" следующего запроса,
+ * поэтому проверка сводится к одному CAS без блокировок и без аллокаций на горячем пути.
+ * Ведра, простаивающие дольше {@code idleTimeout}, полностью восстановлены и удаляются
+ * методом {@link #evictIdle()} без потери точности.
+ */
+public class TokenBucketRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long idleTimeoutNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, Duration idleTimeout, int concurrencyLevel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.emissionIntervalNanos = refillPeriod.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.buckets = new ConcurrentHashMap<>(256, 0.75f, concurrencyLevel);
+    }
+
+    /**
+     * @return 0, если токен выдан, иначе количество наносекунд до появления следующего токена
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            AtomicLong created = new AtomicLong(now);
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+            }
+        }
+        while (true) {
+            long tat = bucket.get();
+            long base = tat - now > 0 ? tat : now;
+            long waitNanos = base - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ведра, которые простаивают дольше idleTimeout. Такое ведро уже полностью
+     * заполнено, поэтому его удаление эквивалентно созданию нового.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (var entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            if (now - bucket.get() > idleTimeoutNanos && buckets.remove(entry.getKey(), bucket)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
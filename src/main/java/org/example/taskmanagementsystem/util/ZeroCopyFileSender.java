@@ -0,0 +1,108 @@
+package org.example.taskmanagementsystem.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Отдача файла в ответ без копирования через память приложения.
+ * <p>
+ * Если коннектор Tomcat поддерживает sendfile, файл передает сам Tomcat после выхода из обработчика
+ * (sendfile(2) из page cache прямо в сокет). Иначе содержимое переносится через
+ * {@link FileChannel#transferTo}, который читает файл крупными блоками без промежуточных буферов приложения.
+ */
+public final class ZeroCopyFileSender {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private ZeroCopyFileSender() {
+    }
+
+    public static void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                            String contentType, String downloadName) throws IOException {
+        long size = Files.size(file);
+        writeHeaders(response, contentType, downloadName, size);
+        transfer(request, response, file, 0, size);
+    }
+
+    /**
+     * Как {@link #send}, но с поддержкой заголовка Range: один диапазон отдается ответом 206,
+     * запрос нескольких диапазонов - целым файлом, недостижимый диапазон - ответом 416.
+     */
+    public static void sendWithRanges(HttpServletRequest request, HttpServletResponse response, Path file,
+                                      String contentType, String downloadName) throws IOException {
+        long size = Files.size(file);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long start = 0;
+        long end = size;
+        List<HttpRange> ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            start = range.getRangeStart(size);
+            end = Math.min(range.getRangeEnd(size) + 1, size);
+            if (start >= size || start >= end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setContentLength(0);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+        }
+        writeHeaders(response, contentType, downloadName, end - start);
+        transfer(request, response, file, start, end);
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        if (header == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException e) {
+            // Некорректный Range по RFC 9110 игнорируется
+            return List.of();
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, String contentType, String downloadName, long length) {
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(downloadName, StandardCharsets.UTF_8).build().toString());
+    }
+
+    /**
+     * @param end позиция после последнего отдаваемого байта
+     */
+    private static void transfer(HttpServletRequest request, HttpServletResponse response, Path file,
+                                 long start, long end) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.taskmanagementsystem.ws;
+
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Фильтр доски: задачи автора, задачи исполнителя или задачи в статусе.
+ * Задается ровно одним параметром запроса: {@code ?author=<id>}, {@code ?executor=<id>} или {@code ?status=<STATUS>}.
+ */
+public record BoardFilter(Type type, String value) {
+    public enum Type {
+        AUTHOR, EXECUTOR, STATUS
+    }
+
+    public static BoardFilter author(Long authorId) {
+        return new BoardFilter(Type.AUTHOR, authorId.toString());
+    }
+
+    public static BoardFilter executor(Long executorId) {
+        return new BoardFilter(Type.EXECUTOR, executorId.toString());
+    }
+
+    public static BoardFilter status(TaskStatus status) {
+        return new BoardFilter(Type.STATUS, status.name());
+    }
+
+    /**
+     * @throws IllegalArgumentException если фильтр не задан, задан дважды или некорректен
+     */
+    public static BoardFilter fromUri(URI uri) {
+        Map<String, String> params = UriComponentsBuilder.fromUri(uri).build().getQueryParams().toSingleValueMap();
+        BoardFilter filter = null;
+        int count = 0;
+        if (params.containsKey("author")) {
+            filter = author(Long.valueOf(params.get("author")));
+            count++;
+        }
+        if (params.containsKey("executor")) {
+            filter = executor(Long.valueOf(params.get("executor")));
+            count++;
+        }
+        if (params.containsKey("status")) {
+            filter = status(TaskStatus.valueOf(params.get("status")));
+            count++;
+        }
+        if (count != 1) {
+            throw new IllegalArgumentException("Укажите ровно один фильтр доски: author, executor или status");
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.taskmanagementsystem.ws;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Один бинарный кадр доски. {@code resync = true}: изменений за окно слишком много,
+ * клиент должен перечитать доску целиком (или через {@code /tasks/changes}).
+ */
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public record BoardFrame(List<TaskDiff> tasks, boolean resync) {
+}
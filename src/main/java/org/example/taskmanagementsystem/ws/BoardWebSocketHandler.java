@@ -0,0 +1,258 @@
+package org.example.taskmanagementsystem.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Канал доски {@code /ws/board}: изменения задач, подходящих под фильтр подключения.
+ * <p>
+ * События одной задачи за {@code board.coalesce-window-ms} сливаются в один {@link TaskDiff},
+ * и всё окно уходит одним CBOR-кадром. Если за окно изменилось больше
+ * {@code board.max-pending-tasks} задач (массовые операции администратора), вместо них
+ * отправляется короткий кадр {@code resync}, так что исходящий трафик на подключение ограничен.
+ * Медленные клиенты отключаются {@link ConcurrentWebSocketSessionDecorator} по лимиту буфера и времени отправки.
+ */
+@Component
+@Slf4j
+public class BoardWebSocketHandler extends BinaryWebSocketHandler {
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final Map<BoardFilter, Set<BoardSession>> sessionsByFilter = new ConcurrentHashMap<>();
+    private final Map<String, BoardSession> sessions = new ConcurrentHashMap<>();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService flushScheduler;
+    private final long coalesceWindowMillis;
+    private final int maxPendingTasks;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSize;
+    private final Counter framesSent;
+    private final Counter resyncs;
+
+    public BoardWebSocketHandler(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${board.coalesce-window-ms}") long coalesceWindowMillis,
+                                 @Value("${board.max-pending-tasks}") int maxPendingTasks,
+                                 @Value("${board.flush-threads}") int flushThreads,
+                                 @Value("${board.send-time-limit}") Duration sendTimeLimit,
+                                 @Value("${board.send-buffer-size}") int sendBufferSize) {
+        this.objectMapper = objectMapper;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.maxPendingTasks = maxPendingTasks;
+        this.sendTimeLimitMillis = (int) sendTimeLimit.toMillis();
+        this.sendBufferSize = sendBufferSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.flushScheduler = Executors.newScheduledThreadPool(flushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "board-flush-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.framesSent = Counter.builder("board.frames.sent").register(meterRegistry);
+        this.resyncs = Counter.builder("board.resyncs").register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        BoardFilter filter;
+        try {
+            filter = BoardFilter.fromUri(session.getUri());
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Некорректный фильтр доски"));
+            return;
+        }
+        BoardSession boardSession = new BoardSession(filter,
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferSize));
+        sessions.put(session.getId(), boardSession);
+        sessionsByFilter.computeIfAbsent(filter, key -> ConcurrentHashMap.newKeySet()).add(boardSession);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        BoardSession boardSession = sessions.remove(session.getId());
+        if (boardSession != null) {
+            sessionsByFilter.computeIfPresent(boardSession.filter, (filter, filterSessions) -> {
+                filterSessions.remove(boardSession);
+                return filterSessions.isEmpty() ? null : filterSessions;
+            });
+        }
+    }
+
+    @EventListener
+    public void onTaskEvent(TaskEvent event) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        Map<String, Object> payload = parsePayload(event);
+        if (event.authorId() != null) {
+            enqueue(BoardFilter.author(event.authorId()), event, payload);
+        }
+        if (event.executorId() != null) {
+            enqueue(BoardFilter.executor(event.executorId()), event, payload);
+        }
+        if (event.status() != null) {
+            enqueue(BoardFilter.status(event.status()), event, payload);
+        }
+        // Задача могла уйти с доски другого статуса: такие доски узнают о смене статуса и удалении
+        if (event.type() == TaskEventType.STATUS_CHANGED || event.type() == TaskEventType.TASK_DELETED) {
+            for (TaskStatus status : TaskStatus.values()) {
+                if (status != event.status()) {
+                    enqueue(BoardFilter.status(status), event, payload);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushScheduler.shutdownNow();
+    }
+
+    private void enqueue(BoardFilter filter, TaskEvent event, Map<String, Object> payload) {
+        Set<BoardSession> filterSessions = sessionsByFilter.get(filter);
+        if (filterSessions != null) {
+            filterSessions.forEach(boardSession -> boardSession.add(event, payload));
+        }
+    }
+
+    private Map<String, Object> parsePayload(TaskEvent event) {
+        if (event.payload() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(event.payload(), PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректный payload события {}", event.id(), e);
+            return Map.of();
+        }
+    }
+
+    private final class BoardSession {
+        private final BoardFilter filter;
+        private final WebSocketSession session;
+        private final Map<Long, PendingDiff> pending = new LinkedHashMap<>();
+        private boolean overflow;
+        private boolean flushScheduled;
+
+        BoardSession(BoardFilter filter, WebSocketSession session) {
+            this.filter = filter;
+            this.session = session;
+        }
+
+        synchronized void add(TaskEvent event, Map<String, Object> payload) {
+            if (!overflow) {
+                pending.computeIfAbsent(event.taskId(), PendingDiff::new).merge(event, payload);
+                if (pending.size() > maxPendingTasks) {
+                    overflow = true;
+                    pending.clear();
+                }
+            }
+            if (!flushScheduled) {
+                flushScheduled = true;
+                flushScheduler.schedule(this::flush, coalesceWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void flush() {
+            BoardFrame frame;
+            synchronized (this) {
+                flushScheduled = false;
+                frame = overflow
+                        ? new BoardFrame(List.of(), true)
+                        : new BoardFrame(pending.values().stream().map(PendingDiff::toDiff).toList(), false);
+                pending.clear();
+                overflow = false;
+            }
+            if (frame.resync()) {
+                resyncs.increment();
+            }
+            if (!session.isOpen()) {
+                return;
+            }
+            try {
+                session.sendMessage(new BinaryMessage(cborMapper.writeValueAsBytes(frame)));
+                framesSent.increment();
+            } catch (IOException | RuntimeException e) {
+                // Декоратор сам закрывает сессию при превышении лимитов буфера или времени отправки
+                log.debug("Не удалось отправить кадр доски в сессию {}", session.getId(), e);
+            }
+        }
+    }
+
+    private static final class PendingDiff {
+        private final long taskId;
+        private Long authorId;
+        private Long executorId;
+        private TaskStatus status;
+        private boolean deleted;
+        private int comments;
+        private final Map<String, Object> changes = new LinkedHashMap<>();
+        private final Set<Object> changedFields = new LinkedHashSet<>();
+        private long lastEventId;
+
+        PendingDiff(Long taskId) {
+            this.taskId = taskId;
+        }
+
+        void merge(TaskEvent event, Map<String, Object> payload) {
+            authorId = event.authorId();
+            executorId = event.executorId();
+            if (event.status() != null) {
+                status = event.status();
+            }
+            deleted = event.type() == TaskEventType.TASK_DELETED;
+            if (event.type() == TaskEventType.COMMENT_ADDED) {
+                comments++;
+            } else {
+                payload.forEach((key, value) -> {
+                    if ("fields".equals(key) && value instanceof Collection<?> fields) {
+                        changedFields.addAll(fields);
+                    } else if (!"status".equals(key)) {
+                        changes.put(key, value);
+                    }
+                });
+            }
+            lastEventId = event.id();
+        }
+
+        TaskDiff toDiff() {
+            Map<String, Object> merged = new LinkedHashMap<>(changes);
+            if (!changedFields.isEmpty()) {
+                merged.put("fields", new ArrayList<>(changedFields));
+            }
+            return new TaskDiff(taskId, authorId, executorId, status, deleted, comments, merged, lastEventId);
+        }
+    }
+}
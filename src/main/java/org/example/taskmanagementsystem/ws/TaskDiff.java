@@ -0,0 +1,21 @@
+package org.example.taskmanagementsystem.ws;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+
+import java.util.Map;
+
+/**
+ * Итоговое изменение одной задачи за окно объединения: последние значения полей,
+ * а не каждое промежуточное событие.
+ */
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public record TaskDiff(long id,
+                       Long authorId,
+                       Long executorId,
+                       TaskStatus status,
+                       boolean deleted,
+                       int comments,
+                       Map<String, Object> changes,
+                       long lastEventId) {
+}
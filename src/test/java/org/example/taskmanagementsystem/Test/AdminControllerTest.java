@@ -5,13 +5,20 @@ import org.example.taskmanagementsystem.TaskManagementSystemApplication;
 import org.example.taskmanagementsystem.dto.request.CommentDTO;
 import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
 import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
+import org.example.taskmanagementsystem.dto.response.ReportJobDTO;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.dto.response.TaskCountersDTO;
 import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
+import org.example.taskmanagementsystem.entity.ReportJobStatus;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.ReportService;
+import org.example.taskmanagementsystem.service.StatsService;
 import org.example.taskmanagementsystem.service.TaskService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -23,6 +30,14 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -41,6 +56,12 @@ class AdminControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private StatsService statsService;
+
+    @MockBean
+    private ReportService reportService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // edit
@@ -149,6 +170,16 @@ class AdminControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @DisplayName("❌ Ошибка: закодированный путь к админке не обходит проверку роли (403 Forbidden)")
+    @WithMockUser(username = "user@example.com")
+    void deleteTaskForAdmin_EncodedPath_Forbidden() throws Exception {
+        mockMvc.perform(delete(URI.create("/%61dmin/tasks/delete/1"))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+        verify(taskService, never()).deleteTaskForAdmin(any());
+    }
+
     // change-status
 
     @Test
@@ -269,4 +300,87 @@ class AdminControllerTest {
                         .content(objectMapper.writeValueAsString(commentDTO)))
                 .andExpect(status().isForbidden());
     }
+
+    // stats
+
+    @Test
+    @DisplayName("✅ Счетчики задач исполнителя для администратора (200 OK)")
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void getTaskCounters_Success() throws Exception {
+        TaskCountersDTO counters = new TaskCountersDTO(7L, 3,
+                Map.of(TaskStatus.WAITING, 2L, TaskStatus.COMPLETED, 1L),
+                Map.of(TaskPriority.HIGH, 3L),
+                Map.of(TaskStatus.WAITING, Map.of(TaskPriority.HIGH, 2L), TaskStatus.COMPLETED, Map.of(TaskPriority.HIGH, 1L)));
+        when(statsService.getTaskCounters(7L)).thenReturn(counters);
+
+        mockMvc.perform(get("/admin/stats").param("executorId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.WAITING").value(2))
+                .andExpect(jsonPath("$.byStatusAndPriority.COMPLETED.HIGH").value(1));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: обычный пользователь не видит статистику (403 Forbidden)")
+    @WithMockUser(username = "user@example.com")
+    void getTaskCounters_Forbidden() throws Exception {
+        mockMvc.perform(get("/admin/stats"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("✅ Активность по дням за диапазон (200 OK)")
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void getTimeseries_Success() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        when(statsService.getActivityTimeseries(from, from.plusDays(1), null)).thenReturn(List.of(
+                new TaskActivityDayDTO(from, 4, 1, 7),
+                new TaskActivityDayDTO(from.plusDays(1), 0, 2, 0)));
+
+        mockMvc.perform(get("/admin/stats/timeseries").param("from", "2024-03-01").param("to", "2024-03-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].created").value(4))
+                .andExpect(jsonPath("$[0].commented").value(7))
+                .andExpect(jsonPath("$[1].completed").value(2));
+    }
+
+    // reports
+
+    @Test
+    @DisplayName("✅ Отчет по задачам поставлен в очередь (202 Accepted)")
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void submitTaskReport_Accepted() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(reportService.submitTaskReport(from, to)).thenReturn(new ReportJobDTO(5L, ReportJobStatus.QUEUED, from, to,
+                null, null, LocalDateTime.now(), null, null));
+
+        mockMvc.perform(post("/admin/reports/tasks").param("from", "2024-01-01").param("to", "2024-03-31"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(5))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("✅ Готовый отчет отдается файлом (200 OK)")
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void downloadReport_Success(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("report.csv"), "task_id,executor_email\n1,executor@example.com\n");
+        when(reportService.getReportFile(5L)).thenReturn(file);
+
+        mockMvc.perform(get("/admin/reports/5/file"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", Files.size(file)))
+                .andExpect(content().string("task_id,executor_email\n1,executor@example.com\n"));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: отчет еще не готов (409 Conflict)")
+    @WithMockUser(username = "admin@example.com", roles = {"ADMIN"})
+    void downloadReport_NotReady() throws Exception {
+        when(reportService.getReportFile(5L)).thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Отчет еще не готов"));
+
+        mockMvc.perform(get("/admin/reports/5/file"))
+                .andExpect(status().isConflict());
+    }
 }
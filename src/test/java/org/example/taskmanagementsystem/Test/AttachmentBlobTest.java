@@ -0,0 +1,169 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.AttachmentService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.example.taskmanagementsystem.storage.BlobGarbageCollector;
+import org.example.taskmanagementsystem.storage.LocalContentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"attachments.gc-interval-ms=3600000", "attachments.gc-grace=1h"})
+class AttachmentBlobTest {
+    private static final Path DIRECTORY = createDirectory();
+
+    @Autowired
+    private AttachmentService attachmentService;
+    @Autowired
+    private BlobGarbageCollector garbageCollector;
+    @Autowired
+    private LocalContentStore contentStore;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private UserService userService;
+
+    private long taskId;
+    private byte[] content;
+    private String sha256;
+
+    @DynamicPropertySource
+    static void attachmentsDirectory(DynamicPropertyRegistry registry) {
+        registry.add("attachments.directory", DIRECTORY::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        TaskFixtures fixtures = new TaskFixtures(jdbcTemplate);
+        long userId = fixtures.user();
+        taskId = fixtures.task(userId, userId, TaskStatus.WAITING);
+        when(userService.getCurrentUserId()).thenReturn(userId);
+        when(userService.getCurrentUser()).thenReturn(User.withUsername("uploader@example.com").password("password").build());
+        content = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        sha256 = sha256(content);
+    }
+
+    @Test
+    @DisplayName("✅ Две одинаковые загрузки хранят один файл со счетчиком ссылок 2")
+    void upload_SameContentTwice_OneFile() throws IOException {
+        upload();
+        upload();
+
+        assertEquals(2, refCount());
+        assertEquals(1, storedFiles());
+        assertEquals(0, temporaryFiles());
+    }
+
+    @Test
+    @DisplayName("✅ Удаление одного из вложений оставляет файл второму")
+    void delete_OneOfTwo_KeepsFile() throws IOException {
+        AttachmentDTO first = upload();
+        upload();
+
+        attachmentService.deleteAttachment(taskId, first.getId());
+        garbageCollector.collect();
+
+        assertEquals(1, refCount());
+        assertTrue(contentStore.exists(sha256));
+    }
+
+    @Test
+    @DisplayName("✅ Сборщик мусора удаляет содержимое без ссылок только после grace")
+    void collect_RemovesOnlyAfterGrace() throws IOException {
+        AttachmentDTO attachment = upload();
+        attachmentService.deleteAttachment(taskId, attachment.getId());
+
+        garbageCollector.collect();
+        assertEquals(0, refCount());
+        assertTrue(contentStore.exists(sha256));
+
+        jdbcTemplate.update("UPDATE attachment_blobs SET zero_since = zero_since - interval '2 hours' WHERE sha256 = ?", sha256);
+        garbageCollector.collect();
+
+        assertFalse(contentStore.exists(sha256));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM attachment_blobs WHERE sha256 = ?", Long.class, sha256));
+    }
+
+    @Test
+    @DisplayName("✅ Файл, оставшийся после откаченной загрузки, регистрируется без ссылок")
+    void upload_FailedAfterPublish_RegistersUnreferenced() {
+        // Ошибка после переноса файла в хранилище откатывает транзакцию вместе со счетчиком
+        when(userService.getCurrentUser()).thenReturn(null);
+
+        assertThrows(NullPointerException.class, this::upload);
+
+        assertTrue(contentStore.exists(sha256));
+        assertEquals(0, refCount());
+        assertNotNull(jdbcTemplate.queryForObject("SELECT zero_since FROM attachment_blobs WHERE sha256 = ?",
+                Timestamp.class, sha256));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM task_attachments WHERE task_id = ?", Long.class, taskId));
+    }
+
+    private AttachmentDTO upload() throws IOException {
+        return attachmentService.upload(taskId, "notes.txt", "text/plain", content.length, null,
+                new ByteArrayInputStream(content));
+    }
+
+    private int refCount() {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM attachment_blobs WHERE sha256 = ?", Integer.class, sha256);
+    }
+
+    private long storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(DIRECTORY)) {
+            return files.filter(file -> file.getFileName().toString().equals(sha256)).count();
+        }
+    }
+
+    private long temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(DIRECTORY.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("attachments-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
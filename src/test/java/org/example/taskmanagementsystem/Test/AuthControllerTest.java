@@ -241,4 +241,30 @@ class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    @DisplayName("❌ Ошибка: Слишком много попыток входа (429 Too Many Requests)")
+    void login_Throttled() throws Exception {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail("bruteforce@example.com");
+        loginDTO.setPassword("WrongPassword");
+
+        when(authService.login(any(LoginDTO.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Неправильная почта или пароль!"));
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginDTO)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        verify(authService, times(5)).login(any(LoginDTO.class));
+    }
 }
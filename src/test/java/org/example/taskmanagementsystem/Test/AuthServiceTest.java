@@ -0,0 +1,156 @@
+package org.example.taskmanagementsystem.Test;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.cache.UserCache;
+import org.example.taskmanagementsystem.dto.request.LoginDTO;
+import org.example.taskmanagementsystem.dto.request.UpdatePasswordDTO;
+import org.example.taskmanagementsystem.dto.response.AuthDTO;
+import org.example.taskmanagementsystem.entity.Role;
+import org.example.taskmanagementsystem.entity.User;
+import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.AuthService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AuthServiceTest {
+    private static final String EMAIL = "statements@example.com";
+    private static final String PASSWORD = "SecurePass123!";
+    private static final String NEW_PASSWORD = "ChangedPass456!";
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+        User user = new User();
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRole(Role.ROLE_USER);
+        user.setIsVerified(true);
+        userRepository.save(user);
+        userCache.invalidate(EMAIL);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+        userCache.invalidate(EMAIL);
+    }
+
+    @Test
+    @DisplayName("✅ Вход выполняет один запрос к БД")
+    void login_SingleStatement() {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail(EMAIL);
+        loginDTO.setPassword(PASSWORD);
+
+        AuthDTO authDTO = authService.login(loginDTO);
+
+        assertNotNull(authDTO.getAccessToken());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("✅ Обновление токена выполняет один запрос к БД")
+    void refreshAccessToken_SingleStatement() {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail(EMAIL);
+        loginDTO.setPassword(PASSWORD);
+        String refreshToken = authService.login(loginDTO).getRefreshToken();
+        userCache.invalidate(EMAIL);
+        statistics.clear();
+
+        AuthDTO authDTO = authService.refreshAccessToken(refreshToken);
+
+        assertNotNull(authDTO.getAccessToken());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("✅ Повторный вход читает пароль из БД одним запросом, даже если пользователь в кэше")
+    void login_CachedUser_SingleStatement() {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail(EMAIL);
+        loginDTO.setPassword(PASSWORD);
+        authService.login(loginDTO);
+        userCache.findByEmail(EMAIL);
+        statistics.clear();
+
+        authService.login(loginDTO);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("❌ После смены пароля старый пароль не принимается")
+    void login_OldPasswordAfterUpdate_Rejected() {
+        authService.login(login(PASSWORD));
+
+        userService.updatePassword(updatePassword(NEW_PASSWORD));
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(login(PASSWORD)));
+        assertNotNull(authService.login(login(NEW_PASSWORD)).getAccessToken());
+    }
+
+    @Test
+    @DisplayName("❌ Старый пароль не принимается, даже если в кэше узла остался прежний хэш")
+    void login_PasswordChangedOnOtherNode_Rejected() {
+        userCache.findByEmail(EMAIL);
+        // Смена пароля на другом узле: локальный кэш этого узла она не очищает
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE email = ?", passwordEncoder.encode(NEW_PASSWORD), EMAIL);
+        assertTrue(passwordEncoder.matches(PASSWORD, userCache.findByEmail(EMAIL).orElseThrow().password()));
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(login(PASSWORD)));
+        assertNotNull(authService.login(login(NEW_PASSWORD)).getAccessToken());
+    }
+
+    private static LoginDTO login(String password) {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail(EMAIL);
+        loginDTO.setPassword(password);
+        return loginDTO;
+    }
+
+    private static UpdatePasswordDTO updatePassword(String password) {
+        UpdatePasswordDTO updatePasswordDTO = new UpdatePasswordDTO();
+        updatePasswordDTO.setEmail(EMAIL);
+        updatePasswordDTO.setPassword(password);
+        return updatePasswordDTO;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.taskmanagementsystem.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.example.taskmanagementsystem.ws.BoardFrame;
+import org.example.taskmanagementsystem.ws.BoardWebSocketHandler;
+import org.example.taskmanagementsystem.ws.TaskDiff;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoardWebSocketHandlerTest {
+    private final AtomicLong eventIds = new AtomicLong();
+    private BoardWebSocketHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    @DisplayName("✅ События одной задачи за окно объединяются в один кадр")
+    void coalescesBurstIntoOneFrame() throws Exception {
+        handler = newHandler(500);
+        WebSocketSession session = openSession("executor=2");
+
+        handler.onTaskEvent(event(1L, TaskEventType.STATUS_CHANGED, TaskStatus.IN_PROGRESS, "{\"status\":\"IN_PROGRESS\"}"));
+        handler.onTaskEvent(event(1L, TaskEventType.COMMENT_ADDED, TaskStatus.IN_PROGRESS, "{\"commentId\":7}"));
+        handler.onTaskEvent(event(1L, TaskEventType.STATUS_CHANGED, TaskStatus.COMPLETED, "{\"status\":\"COMPLETED\"}"));
+        handler.onTaskEvent(event(2L, TaskEventType.PRIORITY_CHANGED, TaskStatus.WAITING, "{\"priority\":\"HIGH\"}"));
+
+        BoardFrame frame = awaitFrame(session);
+        assertEquals(2, frame.tasks().size());
+        TaskDiff first = frame.tasks().get(0);
+        assertEquals(1L, first.id());
+        assertEquals(TaskStatus.COMPLETED, first.status());
+        assertEquals(1, first.comments());
+        assertEquals("HIGH", frame.tasks().get(1).changes().get("priority"));
+    }
+
+    @Test
+    @DisplayName("✅ Слишком много изменений за окно заменяется кадром resync")
+    void overflowSendsResync() throws Exception {
+        handler = newHandler(2);
+        WebSocketSession session = openSession("status=WAITING");
+
+        for (long taskId = 1; taskId <= 3; taskId++) {
+            handler.onTaskEvent(event(taskId, TaskEventType.TASK_CREATED, TaskStatus.WAITING, null));
+        }
+
+        BoardFrame frame = awaitFrame(session);
+        assertTrue(frame.resync());
+        assertTrue(frame.tasks() == null || frame.tasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("❌ Подключение без фильтра закрывается")
+    void rejectsMissingFilter() throws Exception {
+        handler = newHandler(500);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/ws/board"));
+
+        handler.afterConnectionEstablished(session);
+
+        verify(session).close(any(CloseStatus.class));
+    }
+
+    private BoardWebSocketHandler newHandler(int maxPendingTasks) {
+        return new BoardWebSocketHandler(new ObjectMapper(), new SimpleMeterRegistry(),
+                50, maxPendingTasks, 1, Duration.ofSeconds(1), 64 * 1024);
+    }
+
+    private WebSocketSession openSession(String query) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-" + query);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/ws/board?" + query));
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private BoardFrame awaitFrame(WebSocketSession session) throws Exception {
+        ArgumentCaptor<BinaryMessage> captor = ArgumentCaptor.forClass(BinaryMessage.class);
+        verify(session, timeout(2000).times(1)).sendMessage(captor.capture());
+        byte[] bytes = new byte[captor.getValue().getPayloadLength()];
+        captor.getValue().getPayload().get(bytes);
+        return new CBORMapper().readValue(bytes, BoardFrame.class);
+    }
+
+    private TaskEvent event(long taskId, TaskEventType type, TaskStatus status, String payload) {
+        return new TaskEvent(eventIds.incrementAndGet(), taskId, type, 1L, 1L, 2L, status, payload, LocalDateTime.now());
+    }
+}
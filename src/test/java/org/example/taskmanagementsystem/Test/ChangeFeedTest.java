@@ -0,0 +1,153 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.response.TaskChangeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangesDTO;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.TaskService;
+import org.example.taskmanagementsystem.sync.ChangeSequencer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class, properties = "sync.sequencer-interval-ms=3600000")
+class ChangeFeedTest {
+    @Autowired
+    private ChangeSequencer changeSequencer;
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TaskFixtures fixtures;
+    private long userId;
+    private Long deletedTaskId;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new TaskFixtures(jdbcTemplate);
+        userId = fixtures.user();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deletedTaskId != null) {
+            jdbcTemplate.update("DELETE FROM task_tombstones WHERE task_id = ?", deletedTaskId);
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Номера ленты идут в порядке коммита, а не начала транзакций")
+    void stamp_FollowsCommitOrder() throws Exception {
+        long early = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long late = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long since = stampAll();
+
+        CountDownLatch updated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> earlyTransaction = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    touch(early);
+                    updated.countDown();
+                    await(release);
+                }));
+        assertTrue(updated.await(10, TimeUnit.SECONDS));
+        touch(late);
+
+        // Строка незавершенной транзакции пропускается и не получает номер раньше коммита
+        changeSequencer.stamp();
+        TaskChangesDTO first = taskService.getChanges(since, 100);
+        assertEquals(List.of(late), taskIds(first));
+
+        release.countDown();
+        earlyTransaction.get(10, TimeUnit.SECONDS);
+        changeSequencer.stamp();
+
+        TaskChangesDTO second = taskService.getChanges(first.getNextSince(), 100);
+        assertEquals(List.of(early), taskIds(second));
+        assertTrue(changeSeq(early) > changeSeq(late));
+    }
+
+    @Test
+    @DisplayName("✅ Удаления, задачи и комментарии сливаются в одну ленту по возрастанию номера")
+    void getChanges_MergesTombstonesInSeqOrder() {
+        long taskId = fixtures.task(userId, userId, TaskStatus.WAITING);
+        deletedTaskId = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long since = stampAll();
+
+        touch(taskId);
+        changeSequencer.stamp();
+        jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", deletedTaskId);
+        jdbcTemplate.update("INSERT INTO task_tombstones (task_id, change_seq, deleted_at) VALUES (?, NULL, ?)",
+                deletedTaskId, Timestamp.valueOf(LocalDateTime.now()));
+        changeSequencer.stamp();
+        jdbcTemplate.update("INSERT INTO comments (content, author_id, task_id, created_at) VALUES ('Готово', ?, ?, ?)",
+                userId, taskId, Timestamp.valueOf(LocalDateTime.now()));
+        changeSequencer.stamp();
+
+        TaskChangesDTO all = taskService.getChanges(since, 100);
+        assertEquals(List.of(TaskChangeDTO.Type.TASK_UPSERT, TaskChangeDTO.Type.TASK_DELETED, TaskChangeDTO.Type.COMMENT_UPSERT),
+                all.getChanges().stream().map(TaskChangeDTO::getType).toList());
+        assertEquals(List.of(taskId, deletedTaskId, taskId),
+                all.getChanges().stream().map(TaskChangeDTO::getTaskId).toList());
+        assertFalse(all.isHasMore());
+
+        // Постраничное чтение по курсору дает ту же последовательность
+        TaskChangesDTO page = taskService.getChanges(since, 2);
+        assertTrue(page.isHasMore());
+        assertEquals(all.getChanges().subList(0, 2), page.getChanges());
+        TaskChangesDTO rest = taskService.getChanges(page.getNextSince(), 2);
+        assertFalse(rest.isHasMore());
+        assertEquals(all.getChanges().subList(2, 3), rest.getChanges());
+        assertEquals(all.getNextSince(), rest.getNextSince());
+    }
+
+    /** Нумерует все накопленные изменения и возвращает курсор, после которого лента пуста. */
+    private long stampAll() {
+        changeSequencer.stamp();
+        return jdbcTemplate.queryForObject("SELECT last_value FROM change_seq", Long.class);
+    }
+
+    private void touch(long taskId) {
+        jdbcTemplate.update("UPDATE tasks SET title = title || '.', change_seq = NULL WHERE id = ?", taskId);
+    }
+
+    private long changeSeq(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT change_seq FROM tasks WHERE id = ?", Long.class, taskId);
+    }
+
+    private static List<Long> taskIds(TaskChangesDTO changes) {
+        return changes.getChanges().stream().map(TaskChangeDTO::getTaskId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Транзакция не дождалась сигнала");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.dependencies.DependencyGraph;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyGraphTest {
+
+    @Test
+    @DisplayName("✅ Ребро против текущего порядка принимается, если не замыкает цикл")
+    void addEdge_AcceptsEdgeAgainstOrder() {
+        DependencyGraph graph = new DependencyGraph();
+        assertTrue(graph.addEdge(3, 4));
+        assertTrue(graph.addEdge(1, 2));
+        assertTrue(graph.addEdge(2, 3));
+
+        assertFalse(graph.addEdge(4, 1));
+        assertTrue(graph.addEdge(1, 4));
+    }
+
+    @Test
+    @DisplayName("❌ Ребро, замыкающее цикл, отклоняется и не попадает в граф")
+    void addEdge_RejectsCycle() {
+        DependencyGraph graph = DependencyGraph.of(List.of(new long[]{1, 2}, new long[]{2, 3}));
+
+        assertFalse(graph.addEdge(3, 1));
+        assertFalse(graph.hasEdge(3, 1));
+        assertFalse(graph.addEdge(2, 2));
+    }
+
+    @Test
+    @DisplayName("✅ После удаления ребра обратное ребро допускается")
+    void removeEdge_AllowsReverseEdge() {
+        DependencyGraph graph = DependencyGraph.of(List.of(new long[]{1, 2}, new long[]{2, 3}));
+
+        graph.removeEdge(2, 3);
+        assertTrue(graph.addEdge(3, 1));
+        graph.removeNode(1);
+        assertTrue(graph.addEdge(2, 3));
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.entity.EmailOutbox;
+import org.example.taskmanagementsystem.entity.Role;
+import org.example.taskmanagementsystem.entity.Task;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.entity.User;
+import org.example.taskmanagementsystem.repository.EmailOutboxRepository;
+import org.example.taskmanagementsystem.repository.TaskRepository;
+import org.example.taskmanagementsystem.repository.UserRepository;
+import org.example.taskmanagementsystem.service.DigestService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"email.outbox.poll-interval-ms=3600000", "digest.max-tasks-per-email=2"})
+class DigestServiceTest {
+    @Autowired
+    private DigestService digestService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User subscriber;
+    private User unsubscribed;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        subscriber = saveUser("digest-on@example.com", true);
+        unsubscribed = saveUser("digest-off@example.com", false);
+        saveTask("Open task 1", TaskStatus.WAITING, subscriber, null);
+        saveTask("Open task 2", TaskStatus.IN_PROGRESS, subscriber, LocalDateTime.now().plusDays(1));
+        saveTask("Open task 3", TaskStatus.WAITING, subscriber, null);
+        saveTask("Late task", TaskStatus.IN_PROGRESS, subscriber, LocalDateTime.now().minusDays(1));
+        saveTask("Done task", TaskStatus.COMPLETED, subscriber, LocalDateTime.now().minusDays(2));
+        saveTask("Other task", TaskStatus.WAITING, unsubscribed, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("✅ Сводка отправляется только подписанным исполнителям с открытыми задачами")
+    void sendDailyDigests_OnlySubscribers() {
+        digestService.sendDailyDigests();
+
+        List<EmailOutbox> emails = emailOutboxRepository.findAll();
+        assertEquals(1, emails.stream().filter(email -> email.getRecipient().equals(subscriber.getEmail())).count());
+        assertFalse(emails.stream().anyMatch(email -> email.getRecipient().equals(unsubscribed.getEmail())));
+
+        String body = emails.stream().filter(email -> email.getRecipient().equals(subscriber.getEmail()))
+                .findFirst().orElseThrow().getBody();
+        assertTrue(body.contains("Open task 1"));
+        assertTrue(body.contains("...and 1 more"));
+        assertFalse(body.contains("Done task"));
+    }
+
+    @Test
+    @DisplayName("✅ Просроченные задачи идут отдельным разделом перед остальными открытыми")
+    void sendDailyDigests_OverdueSection() {
+        digestService.sendDailyDigests();
+
+        String body = emailOutboxRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals(subscriber.getEmail()))
+                .findFirst().orElseThrow().getBody();
+        int overdue = body.indexOf("Overdue tasks:");
+        int open = body.indexOf("Your open tasks:");
+        assertTrue(overdue >= 0 && open > overdue);
+        int lateTask = body.indexOf("Late task");
+        assertTrue(lateTask > overdue && lateTask < open);
+        assertEquals(-1, body.indexOf("Late task", open));
+    }
+
+    @Test
+    @DisplayName("✅ Повторный запуск в тот же день не шлет исполнителю вторую сводку")
+    void sendDailyDigests_SecondRunSameDay_SendsNothing() {
+        digestService.sendDailyDigests();
+
+        assertEquals(0, digestService.sendDailyDigests());
+        assertEquals(1, emailOutboxRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals(subscriber.getEmail())).count());
+    }
+
+    @Test
+    @DisplayName("✅ Незавершенный запуск продолжается после последнего обработанного исполнителя")
+    void sendDailyDigests_ResumesAfterLastExecutor() {
+        jdbcTemplate.update("INSERT INTO digest_runs (run_date, last_executor_id) VALUES (?, ?)",
+                LocalDate.now(), subscriber.getId());
+
+        digestService.sendDailyDigests();
+
+        assertFalse(emailOutboxRepository.findAll().stream()
+                .anyMatch(email -> email.getRecipient().equals(subscriber.getEmail())));
+    }
+
+    private User saveUser(String email, boolean digestEnabled) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(Role.ROLE_USER);
+        user.setIsVerified(true);
+        user.setDigestEnabled(digestEnabled);
+        return userRepository.save(user);
+    }
+
+    private void saveTask(String title, TaskStatus status, User executor, LocalDateTime dueAt) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setDueAt(dueAt);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setAuthor(executor);
+        task.setExecutor(executor);
+        taskRepository.save(task);
+    }
+
+    private void cleanUp() {
+        emailOutboxRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM digest_runs WHERE run_date = ?", LocalDate.now());
+        for (String email : List.of("digest-on@example.com", "digest-off@example.com")) {
+            userRepository.findByEmail(email).ifPresent(user -> {
+                taskRepository.deleteAll(taskRepository.findByAuthor_Id(user.getId(), Pageable.unpaged()).getContent());
+                userRepository.delete(user);
+            });
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.taskmanagementsystem.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskmanagementsystem.mail.EmailDispatcher;
+import org.example.taskmanagementsystem.mail.EmailMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailDispatcherTest {
+    private FakeSmtpServer smtpServer;
+    private EmailDispatcher emailDispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (emailDispatcher != null) {
+            emailDispatcher.stop();
+        }
+        smtpServer.close();
+    }
+
+    private EmailDispatcher startDispatcher(int workers, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+        EmailDispatcher dispatcher = new EmailDispatcher(mailSender, new SimpleMeterRegistry(), "noreply@example.com",
+                100, workers, maxAttempts, Duration.ofMillis(50), Duration.ofMillis(200), Duration.ofSeconds(30));
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    @Test
+    @DisplayName("✅ Письма из очереди отправляются через одно SMTP-соединение")
+    void deliversQueuedMessagesOverOneConnection() throws InterruptedException {
+        emailDispatcher = startDispatcher(1, 3);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(emailDispatcher.submit(new EmailMessage("user" + i + "@example.com", "Subject " + i, "Your code is: " + i)));
+        }
+
+        assertTrue(smtpServer.awaitMessages(5, Duration.ofSeconds(10)));
+        assertEquals(1, smtpServer.getConnectionCount());
+        assertEquals(0, emailDispatcher.queueDepth());
+    }
+
+    @Test
+    @DisplayName("✅ Временная ошибка SMTP повторяется с задержкой")
+    void retriesTransientFailures() throws InterruptedException {
+        smtpServer.rejectNextRecipients(2);
+        emailDispatcher = startDispatcher(1, 5);
+
+        assertTrue(emailDispatcher.submit(new EmailMessage("retry@example.com", "Subject", "Your code is: 123456")));
+
+        assertTrue(smtpServer.awaitMessages(1, Duration.ofSeconds(10)));
+        assertEquals(2, smtpServer.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("❌ После исчерпания попыток письмо не отправляется")
+    void givesUpAfterMaxAttempts() throws InterruptedException {
+        smtpServer.rejectNextRecipients(10);
+        emailDispatcher = startDispatcher(1, 2);
+
+        assertTrue(emailDispatcher.submit(new EmailMessage("lost@example.com", "Subject", "Your code is: 123456")));
+
+        assertTrue(smtpServer.awaitRejected(2, Duration.ofSeconds(10)));
+        Thread.sleep(500);
+        assertEquals(2, smtpServer.getRejectedCount());
+        assertEquals(0, smtpServer.getMessages().size());
+    }
+
+    /**
+     * Минимальный SMTP-сервер для тестов: принимает письма и считает соединения.
+     */
+    static class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger recipientsToReject = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnectionCount() {
+            return connections.get();
+        }
+
+        int getRejectedCount() {
+            return rejected.get();
+        }
+
+        List<String> getMessages() {
+            return messages;
+        }
+
+        void rejectNextRecipients(int count) {
+            recipientsToReject.set(count);
+        }
+
+        boolean awaitMessages(int count, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (messages.size() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(20);
+            }
+            return true;
+        }
+
+        boolean awaitRejected(int count, Duration timeout) throws InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            while (rejected.get() < count) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(20);
+            }
+            return true;
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(socket), "fake-smtp-session");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost ESMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO", "HELO" -> reply(out, "250 localhost");
+                        case "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "RCPT" -> {
+                            if (recipientsToReject.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                rejected.incrementAndGet();
+                                reply(out, "451 Try again later");
+                            } else {
+                                reply(out, "250 OK");
+                            }
+                        }
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            StringBuilder data = new StringBuilder();
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                data.append(line).append('\n');
+                            }
+                            messages.add(data.toString());
+                            reply(out, "250 OK queued");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException ignored) {
+                // клиент закрыл соединение
+            }
+        }
+
+        private void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.entity.EmailOutbox;
+import org.example.taskmanagementsystem.entity.EmailOutboxStatus;
+import org.example.taskmanagementsystem.repository.EmailOutboxRepository;
+import org.example.taskmanagementsystem.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = "email.outbox.poll-interval-ms=3600000")
+class EmailOutboxRepositoryTest {
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("✅ Письмо записывается в outbox и захватывается только один раз")
+    void claimBatch_ClaimsEachRowOnce() {
+        emailService.sendEmail("first@example.com", "Subject", "Your code is: 111111");
+        emailService.sendEmail("second@example.com", "Subject", "Your code is: 222222");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> claimed = emailOutboxRepository.claimBatch(now, now.plusHours(1), 10);
+        assertEquals(2, claimed.size());
+        assertTrue(claimed.stream().allMatch(email -> email.getStatus() == EmailOutboxStatus.SENDING && email.getAttempts() == 1));
+
+        assertEquals(0, emailOutboxRepository.claimBatch(now, now.plusHours(1), 10).size());
+    }
+
+    @Test
+    @DisplayName("✅ Строка с истекшей арендой захватывается повторно")
+    void claimBatch_ReclaimsExpiredLease() {
+        emailService.sendEmail("lease@example.com", "Subject", "Your code is: 333333");
+
+        LocalDateTime now = LocalDateTime.now();
+        emailOutboxRepository.claimBatch(now, now.plusMinutes(1), 10);
+
+        List<EmailOutbox> reclaimed = emailOutboxRepository.claimBatch(now.plusMinutes(2), now.plusMinutes(62), 10);
+        assertEquals(1, reclaimed.size());
+        assertEquals(2, reclaimed.get(0).getAttempts());
+    }
+
+    @Test
+    @DisplayName("❌ Отправленное письмо больше не захватывается")
+    void claimBatch_SkipsSentRows() {
+        emailService.sendEmail("sent@example.com", "Subject", "Your code is: 444444");
+
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = emailOutboxRepository.claimBatch(now, now.plusMinutes(1), 10).get(0);
+        emailOutboxRepository.markSent(email.getId(), now);
+
+        assertEquals(0, emailOutboxRepository.claimBatch(now.plusMinutes(2), now.plusMinutes(62), 10).size());
+        assertEquals(EmailOutboxStatus.SENT, emailOutboxRepository.findById(email.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.util.HierarchicalTimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+    private static final long TICK = 10;
+
+    @Test
+    @DisplayName("✅ Элементы всех уровней срабатывают в первый тик не раньше срока")
+    void advance_FiresEachItemInItsTick() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, 8, 3, start);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = start + TICK + random.nextLong(wheel.spanMillis() - TICK);
+            assertTrue(wheel.add(deadline, deadline));
+            deadlines.add(deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = start; now <= start + wheel.spanMillis(); now += TICK) {
+            long firedAt = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(firedAt >= deadline);
+                // Тик срабатывания - срок, округленный вверх до границы тика
+                assertEquals((deadline + TICK - 1) / TICK, firedAt / TICK);
+                fired.add(deadline);
+            });
+        }
+
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("✅ Пропущенные тики догоняются одним вызовом")
+    void advance_CatchesUpSkippedTicks() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 8, 2, 0);
+        wheel.add(15, "first");
+        wheel.add(400, "second");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(399, fired::add);
+        assertEquals(List.of("first"), fired);
+        wheel.advance(1_000, fired::add);
+        assertEquals(List.of("first", "second"), fired);
+    }
+
+    @Test
+    @DisplayName("✅ Срок не на границе тика не срабатывает раньше времени")
+    void advance_UnalignedDeadlineNeverFiresEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 8, 2, 0);
+        assertTrue(wheel.add(1_500, "reminder"));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_000, fired::add);
+        wheel.advance(1_499, fired::add);
+        assertEquals(List.of(), fired);
+        wheel.advance(2_000, fired::add);
+        assertEquals(List.of("reminder"), fired);
+    }
+
+    @Test
+    @DisplayName("❌ Наступивший срок не добавляется, слишком дальний отклоняется")
+    void add_RejectsExpiredAndOutOfSpan() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 8, 2, 1_000);
+
+        assertFalse(wheel.add(995, "expired"));
+        assertFalse(wheel.add(1_000, "due now"));
+        assertThrows(IllegalArgumentException.class, () -> wheel.add(1_000 + wheel.spanMillis() + 2 * TICK, "far"));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.util.QuantileSketch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    @DisplayName("✅ Квантили слитых гистограмм в пределах относительной ошибки")
+    void mergedQuantiles_WithinRelativeAccuracy() {
+        Random random = new Random(42);
+        long[] values = new long[50_000];
+        QuantileSketch first = new QuantileSketch(ACCURACY);
+        QuantileSketch second = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 2 + 12);
+            (i % 2 == 0 ? first : second).add(values[i]);
+        }
+        first.merge(second);
+        Arrays.sort(values);
+
+        assertEquals(values.length, first.count());
+        for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+            long exact = values[(int) Math.floor(quantile * (values.length - 1))];
+            long estimate = first.quantile(quantile);
+            assertTrue(Math.abs(estimate - exact) <= exact * ACCURACY + 1,
+                    "q=" + quantile + " exact=" + exact + " estimate=" + estimate);
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Гистограмма восстанавливается из байтов без потерь")
+    void toBytes_RoundTrip() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (long value = 0; value < 1000; value++) {
+            sketch.add(value * 37);
+        }
+
+        QuantileSketch restored = QuantileSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.count(), restored.count());
+        assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+        assertEquals(sketch.quantile(0.99), restored.quantile(0.99));
+    }
+
+    @Test
+    @DisplayName("❌ Нельзя слить гистограммы с разной точностью")
+    void merge_DifferentAccuracy_Throws() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.02)));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.recurrence.RecurrenceSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceScheduleTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Test
+    @DisplayName("✅ Период равен interval дней или недель")
+    void periodDays_ByFrequency() {
+        assertEquals(3, RecurrenceSchedule.periodDays(RecurrenceFrequency.DAILY, 3));
+        assertEquals(14, RecurrenceSchedule.periodDays(RecurrenceFrequency.WEEKLY, 2));
+    }
+
+    @Test
+    @DisplayName("✅ Будущий старт и старт ровно в notBefore возвращаются без изменений")
+    void firstNotBefore_StartNotInPast() {
+        assertEquals(START, RecurrenceSchedule.firstNotBefore(START, 7, START.minusDays(30)));
+        assertEquals(START, RecurrenceSchedule.firstNotBefore(START, 7, START));
+    }
+
+    @Test
+    @DisplayName("✅ Повторение, совпадающее с notBefore, не пропускается")
+    void firstNotBefore_ExactOccurrence() {
+        assertEquals(START.plusDays(21), RecurrenceSchedule.firstNotBefore(START, 7, START.plusDays(21)));
+    }
+
+    @Test
+    @DisplayName("✅ Между повторениями берется следующее, даже если до него меньше суток")
+    void firstNotBefore_BetweenOccurrences() {
+        assertEquals(START.plusDays(21), RecurrenceSchedule.firstNotBefore(START, 7, START.plusDays(14).plusMinutes(1)));
+        assertEquals(START.plusDays(21), RecurrenceSchedule.firstNotBefore(START, 7, START.plusDays(20).plusHours(23)));
+        assertEquals(START.plusDays(2), RecurrenceSchedule.firstNotBefore(START, 1, START.plusDays(1).plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("✅ Давний старт считается арифметически и попадает на сетку повторений")
+    void firstNotBefore_DistantStart() {
+        LocalDateTime start = LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime notBefore = LocalDateTime.of(2030, 6, 15, 12, 30);
+
+        LocalDateTime first = RecurrenceSchedule.firstNotBefore(start, 14, notBefore);
+
+        assertEquals(0, ChronoUnit.DAYS.between(start, first) % 14);
+        assertFalse(first.isBefore(notBefore));
+        assertTrue(first.minusDays(14).isBefore(notBefore));
+    }
+}
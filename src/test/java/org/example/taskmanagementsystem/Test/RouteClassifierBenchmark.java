@@ -0,0 +1,92 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.config.RouteClassifier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Микробенчмарк классификатора маршрутов против прежнего stream + wildcard сравнения.
+ * Запуск: {@code ./gradlew benchmark}
+ */
+@Tag("benchmark")
+class RouteClassifierBenchmark {
+    private static final int WARMUP_ITERATIONS = 2_000_000;
+    private static final int MEASURED_ITERATIONS = 10_000_000;
+    private static final String[] URIS = {
+            "/api/auth/login",
+            "/api/tasks/all",
+            "/api/tasks/15/change-status",
+            "/api/admin/tasks/edit/3",
+            "/api/swagger-ui/index.html",
+            "/api/v3/api-docs/swagger-config"
+    };
+    private static final List<String> LEGACY_PUBLIC_URLS = List.of(
+            "/v2/api-docs",
+            "/v3/api-docs",
+            "/v3/api-docs/**",
+            "/swagger-resources",
+            "/swagger-resources/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/api/auth/**"
+    );
+
+    private final RouteClassifier routeClassifier = new RouteClassifier();
+
+    @Test
+    void classify() {
+        int contextLength = "/api".length();
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += routeClassifier.classify(URIS[i % URIS.length], contextLength).ordinal();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += routeClassifier.classify(URIS[i % URIS.length], contextLength).ordinal();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("RouteClassifier: %.1f ns/op, %d bytes allocated (sink=%d)%n",
+                (double) elapsed / MEASURED_ITERATIONS, allocated, sink);
+        assertEquals(0, allocated / MEASURED_ITERATIONS);
+    }
+
+    @Test
+    void legacyStreamMatching() {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += legacyIsPublic(URIS[i % URIS.length]) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += legacyIsPublic(URIS[i % URIS.length]) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Legacy stream matching: %.1f ns/op (sink=%d)%n",
+                (double) elapsed / MEASURED_ITERATIONS, sink);
+    }
+
+    private static boolean legacyIsPublic(String requestUri) {
+        return LEGACY_PUBLIC_URLS.stream()
+                .anyMatch(publicUrl -> publicUrl.equals(requestUri) || legacyMatchWithWildcard(publicUrl, requestUri));
+    }
+
+    private static boolean legacyMatchWithWildcard(String pattern, String requestUri) {
+        if (pattern.endsWith("/**")) {
+            String basePattern = pattern.substring(0, pattern.length() - 3);
+            return requestUri.startsWith(basePattern);
+        }
+        if (pattern.endsWith("/*")) {
+            String basePattern = pattern.substring(0, pattern.length() - 2);
+            return requestUri.startsWith(basePattern) && !requestUri.substring(basePattern.length()).contains("/");
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.config.RouteClassifier;
+import org.example.taskmanagementsystem.config.RouteClassifier.RouteType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteClassifierTest {
+    private final RouteClassifier routeClassifier = new RouteClassifier();
+
+    private RouteType classify(String contextPath, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath(contextPath);
+        return routeClassifier.classify(request);
+    }
+
+    @Test
+    @DisplayName("✅ Публичные маршруты под context path /api")
+    void publicRoutes_WithApiContextPath() {
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/auth/login"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/auth"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/actuator/health"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/swagger-ui/index.html"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/swagger-ui.html"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/v3/api-docs"));
+        assertEquals(RouteType.PUBLIC, classify("/api", "/api/v3/api-docs/swagger-config"));
+    }
+
+    @Test
+    @DisplayName("✅ Публичные маршруты без context path")
+    void publicRoutes_WithoutContextPath() {
+        assertEquals(RouteType.PUBLIC, classify("", "/auth/signup"));
+        assertEquals(RouteType.PUBLIC, classify("", "/v2/api-docs"));
+        assertEquals(RouteType.PUBLIC, classify("", "/webjars/swagger-ui/swagger-ui.css"));
+    }
+
+    @Test
+    @DisplayName("✅ Административные маршруты")
+    void adminRoutes() {
+        assertEquals(RouteType.ADMIN, classify("/api", "/api/admin/tasks/edit/1"));
+        assertEquals(RouteType.ADMIN, classify("", "/admin/tasks/1/change-status"));
+    }
+
+    @Test
+    @DisplayName("✅ Закодированный и параметризованный путь к админке считается административным")
+    void encodedAdminRoutes() {
+        assertEquals(RouteType.ADMIN, classify("/api", "/api/%61dmin/tasks/delete/1"));
+        assertEquals(RouteType.ADMIN, classify("", "/%61%64min/tasks/1/change-status"));
+        assertEquals(RouteType.ADMIN, classify("", "/admin;jsessionid=1/tasks/delete/1"));
+        assertEquals(RouteType.AUTHENTICATED, classify("", "/tasks/%D1%82"));
+    }
+
+    @Test
+    @DisplayName("❌ Префикс без границы сегмента не считается публичным")
+    void partialSegment_IsAuthenticated() {
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api/authx"));
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api/v2/api-docs-extra"));
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api/administrator"));
+    }
+
+    @Test
+    @DisplayName("❌ Остальные маршруты требуют авторизации")
+    void otherRoutes_AreAuthenticated() {
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api/tasks/all"));
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api/"));
+        assertEquals(RouteType.AUTHENTICATED, classify("/api", "/api"));
+        assertEquals(RouteType.AUTHENTICATED, classify("", "/tasks/ñ"));
+    }
+
+    @Test
+    @DisplayName("✅ Поток событий распознается только по точному пути, в том числе под context path")
+    void eventStreamRoute() {
+        assertTrue(isEventStream("/api", "/api/tasks/stream"));
+        assertTrue(isEventStream("", "/tasks/%73tream"));
+        assertFalse(isEventStream("", "/tasks/stream/extra"));
+        assertFalse(isEventStream("", "/tasks/1"));
+        assertFalse(isEventStream("", "/admin/tasks/stream"));
+    }
+
+    private boolean isEventStream(String contextPath, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setContextPath(contextPath);
+        return routeClassifier.isEventStream(request);
+    }
+
+    @Test
+    @DisplayName("✅ Шаблон /* совпадает ровно с одним сегментом")
+    void singleSegmentPattern() {
+        RouteClassifier classifier = new RouteClassifier(new String[]{"/files/*"}, new String[0]);
+        assertEquals(RouteType.PUBLIC, classifier.classify("/files/report.csv", 0));
+        assertEquals(RouteType.AUTHENTICATED, classifier.classify("/files/a/report.csv", 0));
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.analytics.TaskActivityBackfill;
+import org.example.taskmanagementsystem.analytics.TaskActivityRollup;
+import org.example.taskmanagementsystem.dto.response.TaskActivityDayDTO;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"task-activity.backfill-retry-ms=3600000", "task-activity.compaction-cron=-"})
+class TaskActivityTest {
+    @Autowired
+    private TaskActivityRollup taskActivityRollup;
+    @Autowired
+    private TaskActivityBackfill taskActivityBackfill;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TaskFixtures fixtures;
+    private long userId;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        fixtures = new TaskFixtures(jdbcTemplate);
+        userId = fixtures.user();
+        awaitStartupBackfill();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM task_activity_daily WHERE executor_id = ?", userId);
+    }
+
+    @Test
+    @DisplayName("✅ Поток событий учитывает создание, завершение и комментарии, но не события до live_since")
+    void publish_CountsLiveEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime beforeLive = taskActivityRollup.liveSince().minusMinutes(1);
+
+        taskActivityRollup.publish(List.of(
+                event(TaskEventType.TASK_CREATED, TaskStatus.WAITING, now),
+                event(TaskEventType.STATUS_CHANGED, TaskStatus.IN_PROGRESS, now),
+                event(TaskEventType.STATUS_CHANGED, TaskStatus.COMPLETED, now),
+                event(TaskEventType.COMMENT_ADDED, TaskStatus.COMPLETED, now),
+                event(TaskEventType.COMMENT_ADDED, TaskStatus.COMPLETED, now),
+                event(TaskEventType.TASK_CREATED, TaskStatus.WAITING, beforeLive)));
+
+        TaskActivityDayDTO today = taskActivityRollup.read(now.toLocalDate(), now.toLocalDate(), userId).get(0);
+        assertEquals(1, today.getCreated());
+        assertEquals(1, today.getCompleted());
+        assertEquals(2, today.getCommented());
+        if (!beforeLive.toLocalDate().equals(now.toLocalDate())) {
+            assertEquals(0, taskActivityRollup.read(beforeLive.toLocalDate(), beforeLive.toLocalDate(), userId).get(0).getCreated());
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Чтение диапазона возвращает и дни без активности")
+    void read_FillsEmptyDays() {
+        LocalDate to = LocalDate.now();
+
+        List<TaskActivityDayDTO> series = taskActivityRollup.read(to.minusDays(6), to, userId);
+
+        assertEquals(7, series.size());
+        assertEquals(to.minusDays(6), series.get(0).getDay());
+        assertTrue(series.stream().allMatch(day -> day.getCreated() == 0 && day.getCompleted() == 0 && day.getCommented() == 0));
+    }
+
+    @Test
+    @DisplayName("✅ Слияние оставляет по одной строке на день и исполнителя с теми же суммами")
+    void compact_MergesPastDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        // Слияние ждет окончания заполнения; если оно уже выполнено, вызов ничего не делает
+        taskActivityBackfill.backfill();
+        jdbcTemplate.update("UPDATE task_activity_state SET compacted_before = ? WHERE id = 1", Date.valueOf(yesterday));
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO task_activity_daily (day, executor_id, created_count, completed_count, " +
+                    "commented_count, source) VALUES (?, ?, ?, ?, ?, 'LIVE')", Date.valueOf(yesterday), userId, i, 1, 0);
+        }
+
+        taskActivityRollup.compact();
+
+        assertEquals(List.of("COMPACTED"), jdbcTemplate.queryForList("SELECT source FROM task_activity_daily " +
+                "WHERE executor_id = ? AND day = ?", String.class, userId, Date.valueOf(yesterday)));
+        TaskActivityDayDTO day = taskActivityRollup.read(yesterday, yesterday, userId).get(0);
+        assertEquals(6, day.getCreated());
+        assertEquals(3, day.getCompleted());
+    }
+
+    @Test
+    @DisplayName("✅ Заполнение считает задачи, завершения из журнала и комментарии до live_since один раз")
+    void backfill_CountsHistoryBeforeLiveSince() {
+        LocalDate liveDay = taskActivityRollup.liveSince().toLocalDate();
+        LocalDateTime createdAt = liveDay.minusDays(10).atTime(12, 0);
+        LocalDateTime completedAt = liveDay.minusDays(5).atTime(12, 0);
+        LocalDateTime commentedAt = liveDay.minusDays(3).atTime(12, 0);
+        long taskId = fixtures.task(userId, userId, TaskStatus.COMPLETED);
+        jdbcTemplate.update("UPDATE tasks SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), taskId);
+        jdbcTemplate.update("INSERT INTO task_history (task_id, field, old_value, new_value, actor_id, changed_at) " +
+                "VALUES (?, 'status', 'IN_PROGRESS', 'COMPLETED', ?, ?)", taskId, userId, Timestamp.valueOf(completedAt));
+        jdbcTemplate.update("INSERT INTO comments (content, author_id, task_id, created_at) VALUES ('Готово', ?, ?, ?)",
+                userId, taskId, Timestamp.valueOf(commentedAt));
+        try {
+            jdbcTemplate.update("UPDATE task_activity_state SET backfill_started_at = NULL, backfilled_at = NULL WHERE id = 1");
+
+            assertTrue(taskActivityBackfill.backfill());
+            assertFalse(taskActivityBackfill.backfill());
+
+            List<TaskActivityDayDTO> series = taskActivityRollup.read(createdAt.toLocalDate(), commentedAt.toLocalDate(), userId);
+            assertEquals(1, series.stream().mapToLong(TaskActivityDayDTO::getCreated).sum());
+            assertEquals(1, series.get(0).getCreated());
+            assertEquals(1, series.stream().mapToLong(TaskActivityDayDTO::getCompleted).sum());
+            assertEquals(1, series.get(5).getCompleted());
+            assertEquals(1, series.stream().mapToLong(TaskActivityDayDTO::getCommented).sum());
+            assertEquals(1, series.get(7).getCommented());
+        } finally {
+            jdbcTemplate.update("DELETE FROM comments WHERE task_id = ?", taskId);
+            jdbcTemplate.update("DELETE FROM task_history WHERE task_id = ?", taskId);
+        }
+    }
+
+    private TaskEvent event(TaskEventType type, TaskStatus status, LocalDateTime createdAt) {
+        return new TaskEvent(0, 0, type, userId, userId, userId, status, "{}", createdAt);
+    }
+
+    /** Заполнение, запущенное при старте контекста, не должно пересечься с проверками. */
+    private void awaitStartupBackfill() throws InterruptedException {
+        for (int i = 0; i < 300; i++) {
+            Boolean running = jdbcTemplate.queryForObject("SELECT backfill_started_at IS NOT NULL AND backfilled_at IS NULL " +
+                    "FROM task_activity_state WHERE id = 1", Boolean.class);
+            if (!Boolean.TRUE.equals(running)) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+}
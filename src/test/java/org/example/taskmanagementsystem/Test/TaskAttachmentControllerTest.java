@@ -0,0 +1,100 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.response.AttachmentDTO;
+import org.example.taskmanagementsystem.service.AttachmentService;
+import org.example.taskmanagementsystem.storage.AttachmentContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class)
+@AutoConfigureMockMvc
+class TaskAttachmentControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AttachmentService attachmentService;
+
+    @Test
+    @DisplayName("✅ Файл загружается телом запроса (201 Created)")
+    @WithMockUser(username = "executor@example.com")
+    void upload_Success() throws Exception {
+        when(attachmentService.upload(eq(1L), eq("spec.pdf"), eq(MediaType.APPLICATION_PDF_VALUE), eq(4L), isNull(), any(InputStream.class)))
+                .thenReturn(new AttachmentDTO(10L, "spec.pdf", MediaType.APPLICATION_PDF_VALUE, 4, "executor@example.com",
+                        LocalDateTime.now()));
+
+        mockMvc.perform(post("/tasks/1/attachments").param("fileName", "spec.pdf")
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .content(new byte[]{1, 2, 3, 4}))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(10))
+                .andExpect(jsonPath("$.size").value(4));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: файл больше допустимого размера (413 Payload Too Large)")
+    @WithMockUser(username = "executor@example.com")
+    void upload_TooLarge() throws Exception {
+        when(attachmentService.upload(eq(1L), eq("big.bin"), any(), anyLong(), any(), any(InputStream.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Файл превышает допустимый размер"));
+
+        mockMvc.perform(post("/tasks/1/attachments").param("fileName", "big.bin")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[16]))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @DisplayName("✅ Запрос диапазона возвращает часть файла (206 Partial Content)")
+    @WithMockUser(username = "user@example.com")
+    void download_Range(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("notes.txt"), "0123456789");
+        when(attachmentService.getAttachmentContent(1L, 10L))
+                .thenReturn(new AttachmentContent(file, "notes.txt", MediaType.TEXT_PLAIN_VALUE));
+
+        mockMvc.perform(get("/tasks/1/attachments/10").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: диапазон за пределами файла (416 Range Not Satisfiable)")
+    @WithMockUser(username = "user@example.com")
+    void download_RangeNotSatisfiable(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("notes.txt"), "0123456789");
+        when(attachmentService.getAttachmentContent(1L, 10L))
+                .thenReturn(new AttachmentContent(file, "notes.txt", MediaType.TEXT_PLAIN_VALUE));
+
+        mockMvc.perform(get("/tasks/1/attachments/10").header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+}
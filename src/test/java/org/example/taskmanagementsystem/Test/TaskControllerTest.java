@@ -6,7 +6,13 @@ import org.example.taskmanagementsystem.dto.request.CommentDTO;
 import org.example.taskmanagementsystem.dto.request.TaskCreateDTO;
 import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
 import org.example.taskmanagementsystem.dto.response.CommentResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskChangesDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryEntryDTO;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryPageDTO;
 import org.example.taskmanagementsystem.dto.response.TaskResponseDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeNodeDTO;
 import org.example.taskmanagementsystem.entity.TaskPriority;
 import org.example.taskmanagementsystem.entity.TaskStatus;
 import org.example.taskmanagementsystem.entity.User;
@@ -33,6 +39,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -441,4 +448,81 @@ class TaskControllerTest {
                 .andExpect(status().isForbidden())
                 .andExpect(content().string("Вы не можете оставлять комментарию в эту задачу"));
     }
+
+    // changes
+
+    @Test
+    @DisplayName("✅ Изменения после курсора (200 OK)")
+    @WithMockUser(username = "author@example.com")
+    void getChanges_Success() throws Exception {
+        TaskChangeDTO upsert = new TaskChangeDTO(11L, TaskChangeDTO.Type.TASK_UPSERT, 1L, new TaskResponseDTO(), null);
+        TaskChangeDTO tombstone = new TaskChangeDTO(12L, TaskChangeDTO.Type.TASK_DELETED, 2L, null, null);
+        when(taskService.getChanges(10L, 100)).thenReturn(new TaskChangesDTO(List.of(upsert, tombstone), 12L, false));
+
+        mockMvc.perform(get("/tasks/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("TASK_UPSERT"))
+                .andExpect(jsonPath("$.changes[1].type").value("TASK_DELETED"))
+                .andExpect(jsonPath("$.changes[1].task").doesNotExist())
+                .andExpect(jsonPath("$.nextSince").value(12));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: курсор устарел (410 Gone)")
+    @WithMockUser(username = "author@example.com")
+    void getChanges_CursorTooOld() throws Exception {
+        when(taskService.getChanges(eq(5L), anyInt()))
+                .thenThrow(new ResponseStatusException(HttpStatus.GONE, "Курсор устарел, выполните полную синхронизацию"));
+
+        mockMvc.perform(get("/tasks/changes").param("since", "5").param("limit", "5000"))
+                .andExpect(status().isGone());
+        verify(taskService).getChanges(5L, 1000);
+    }
+
+    // history
+
+    @Test
+    @DisplayName("✅ История изменений задачи по курсору (200 OK)")
+    @WithMockUser(username = "author@example.com")
+    void getTaskHistory_Success() throws Exception {
+        TaskHistoryEntryDTO entry = new TaskHistoryEntryDTO(41L, "status", "WAITING", "IN_PROGRESS", 2L,
+                "executor@example.com", null);
+        when(taskService.getTaskHistory(1L, 42L, 1)).thenReturn(new TaskHistoryPageDTO(List.of(entry), 41L));
+
+        mockMvc.perform(get("/tasks/1/history").param("before", "42").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries[0].field").value("status"))
+                .andExpect(jsonPath("$.entries[0].newValue").value("IN_PROGRESS"))
+                .andExpect(jsonPath("$.nextCursor").value(41));
+    }
+
+    // hierarchy
+
+    @Test
+    @DisplayName("✅ Поддерево задачи с долей завершенных подзадач (200 OK)")
+    @WithMockUser(username = "author@example.com")
+    void getSubtree_Success() throws Exception {
+        TaskSubtreeDTO subtree = new TaskSubtreeDTO(1L, 2, 1, 50, List.of(
+                new TaskSubtreeNodeDTO(1L, null, 0, "Родитель", TaskStatus.IN_PROGRESS, TaskPriority.HIGH),
+                new TaskSubtreeNodeDTO(2L, 1L, 1, "Подзадача", TaskStatus.COMPLETED, TaskPriority.LOW)), true);
+        when(taskService.getSubtree(eq(1L), anyInt())).thenReturn(subtree);
+
+        mockMvc.perform(get("/tasks/1/subtree").param("limit", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completionPercent").value(50))
+                .andExpect(jsonPath("$.nodes[1].parentId").value(1))
+                .andExpect(jsonPath("$.truncated").value(true));
+        verify(taskService).getSubtree(1L, 1000);
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: перенос задачи в собственное поддерево (409 Conflict)")
+    @WithMockUser(username = "author@example.com")
+    void moveTask_IntoOwnSubtree() throws Exception {
+        when(taskService.moveTask(1L, 2L))
+                .thenThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Нельзя перенести задачу в её собственное поддерево"));
+
+        mockMvc.perform(patch("/tasks/1/parent").param("parentId", "2"))
+                .andExpect(status().isConflict());
+    }
 }
@@ -0,0 +1,117 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.analytics.TaskCounters;
+import org.example.taskmanagementsystem.cache.CachedUser;
+import org.example.taskmanagementsystem.dto.request.TaskCreateDTO;
+import org.example.taskmanagementsystem.dto.request.TaskUpdateDTO;
+import org.example.taskmanagementsystem.entity.Role;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.service.TaskService;
+import org.example.taskmanagementsystem.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class, properties = "recurrence.interval-ms=3600000")
+class TaskCountersTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskCounters taskCounters;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @MockBean
+    private UserService userService;
+
+    private long authorId;
+    private long firstExecutorId;
+    private long secondExecutorId;
+
+    @BeforeEach
+    void setUp() {
+        TaskFixtures fixtures = new TaskFixtures(jdbcTemplate);
+        authorId = fixtures.user();
+        firstExecutorId = fixtures.user();
+        secondExecutorId = fixtures.user();
+        when(userService.getCurrentUser()).thenReturn(User.withUsername("author@example.com").password("password").build());
+        stubExecutor("first@example.com", firstExecutorId);
+        stubExecutor("second@example.com", secondExecutorId);
+    }
+
+    @Test
+    @DisplayName("✅ Сумма полос счетчиков следует за созданием, сменой статуса, переназначением и удалением")
+    void counters_FollowTaskLifecycle() {
+        Map<TaskStatus, Map<TaskPriority, Long>> globalBefore = taskCounters.read(TaskCounters.GLOBAL);
+
+        actAs(authorId);
+        long first = create("first@example.com");
+        long second = create("first@example.com");
+        assertEquals(2, count(firstExecutorId, TaskStatus.WAITING));
+        assertEquals(2, globalDelta(globalBefore, TaskStatus.WAITING));
+
+        actAs(firstExecutorId);
+        taskService.updateTaskStatus(first, TaskStatus.IN_PROGRESS);
+        assertEquals(1, count(firstExecutorId, TaskStatus.WAITING));
+        assertEquals(1, count(firstExecutorId, TaskStatus.IN_PROGRESS));
+
+        actAs(authorId);
+        taskService.updateTask(first, update("second@example.com"));
+        assertEquals(0, count(firstExecutorId, TaskStatus.IN_PROGRESS));
+        assertEquals(1, count(secondExecutorId, TaskStatus.IN_PROGRESS));
+        assertEquals(1, globalDelta(globalBefore, TaskStatus.IN_PROGRESS));
+
+        taskService.deleteTask(first);
+        taskService.deleteTask(second);
+        for (TaskStatus status : TaskStatus.values()) {
+            assertEquals(0, count(firstExecutorId, status));
+            assertEquals(0, count(secondExecutorId, status));
+            assertEquals(0, globalDelta(globalBefore, status));
+        }
+    }
+
+    private long create(String executorEmail) {
+        TaskCreateDTO dto = new TaskCreateDTO();
+        dto.setTitle("Задача со счетчиками");
+        dto.setPriority(TaskPriority.HIGH);
+        dto.setExecutorEmail(executorEmail);
+        return taskService.createTask(dto).getId();
+    }
+
+    private TaskUpdateDTO update(String executorEmail) {
+        TaskUpdateDTO dto = new TaskUpdateDTO();
+        dto.setTitle("Задача со счетчиками");
+        dto.setPriority(TaskPriority.HIGH);
+        dto.setExecutorEmail(executorEmail);
+        return dto;
+    }
+
+    private long count(long executorId, TaskStatus status) {
+        return taskCounters.read(executorId).get(status).get(TaskPriority.HIGH);
+    }
+
+    private long globalDelta(Map<TaskStatus, Map<TaskPriority, Long>> before, TaskStatus status) {
+        return taskCounters.read(TaskCounters.GLOBAL).get(status).get(TaskPriority.HIGH) - before.get(status).get(TaskPriority.HIGH);
+    }
+
+    private void actAs(long userId) {
+        when(userService.getCurrentUserId()).thenReturn(userId);
+    }
+
+    private void stubExecutor(String email, long userId) {
+        when(userService.getCachedUserByEmail(email))
+                .thenReturn(Optional.of(new CachedUser(userId, email, "password", Role.ROLE_USER, true)));
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dependencies.TaskDependencies;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class)
+class TaskDependenciesTest {
+    @Autowired
+    private TaskDependencies taskDependencies;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private TaskFixtures fixtures;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        fixtures = new TaskFixtures(jdbcTemplate);
+        userId = fixtures.user();
+    }
+
+    private void complete(long taskId) {
+        jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE id = ?", taskId);
+        taskDependencies.refreshDependents(taskId);
+    }
+
+    @Test
+    @DisplayName("✅ Флаг unblocked следует за статусом блокирующих задач и удалением связей")
+    void unblockedFlag_FollowsBlockers() {
+        long first = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long second = fixtures.task(userId, userId, TaskStatus.IN_PROGRESS);
+        long blocked = fixtures.task(userId, userId, TaskStatus.WAITING);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskDependencies.add(first, blocked);
+            taskDependencies.add(second, blocked);
+        });
+        assertFalse(fixtures.unblocked(blocked));
+
+        transactionTemplate.executeWithoutResult(status -> complete(first));
+        assertFalse(fixtures.unblocked(blocked));
+
+        transactionTemplate.executeWithoutResult(status -> taskDependencies.remove(second, blocked));
+        assertTrue(fixtures.unblocked(blocked));
+    }
+
+    @Test
+    @DisplayName("✅ Связь, добавленная во время завершения блокирующей задачи, не оставляет задачу заблокированной")
+    void add_ConcurrentWithBlockerCompletion_EndsUnblocked() throws Exception {
+        long blocker = fixtures.task(userId, userId, TaskStatus.IN_PROGRESS);
+        long blocked = fixtures.task(userId, userId, TaskStatus.WAITING);
+        CountDownLatch statusWritten = new CountDownLatch(1);
+
+        CompletableFuture<Void> completion = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            // Строка блокирующей задачи удерживается до фиксации, как при смене статуса через сервис
+            jdbcTemplate.queryForList("SELECT id FROM tasks WHERE id = ? FOR UPDATE", Long.class, blocker);
+            complete(blocker);
+            statusWritten.countDown();
+            sleep(500);
+        }));
+        assertTrue(statusWritten.await(10, TimeUnit.SECONDS));
+        transactionTemplate.executeWithoutResult(status -> taskDependencies.add(blocker, blocked));
+        completion.get(10, TimeUnit.SECONDS);
+
+        assertTrue(fixtures.unblocked(blocked));
+    }
+
+    @Test
+    @DisplayName("❌ Связь, замыкающая цикл, отклоняется с 409")
+    void add_RejectsCycle() {
+        long a = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long b = fixtures.task(userId, userId, TaskStatus.WAITING);
+        long c = fixtures.task(userId, userId, TaskStatus.WAITING);
+        transactionTemplate.executeWithoutResult(status -> {
+            taskDependencies.add(a, b);
+            taskDependencies.add(b, c);
+        });
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> taskDependencies.add(c, a)));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertTrue(fixtures.unblocked(a));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
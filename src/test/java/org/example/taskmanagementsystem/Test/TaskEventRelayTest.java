@@ -0,0 +1,80 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.example.taskmanagementsystem.events.TaskEventLog;
+import org.example.taskmanagementsystem.events.TaskEventRelay;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"task-events.poll-interval-ms=3600000", "task-events.file.enabled=false"})
+@RecordApplicationEvents
+class TaskEventRelayTest {
+    @Autowired
+    private TaskEventLog taskEventLog;
+    @Autowired
+    private TaskEventRelay taskEventRelay;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    @DisplayName("✅ События публикуются по порядку и только один раз")
+    void relay_PublishesEventsOnce() {
+        long taskId = -ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskEventLog.append(taskId, 1L, 2L, TaskStatus.WAITING, TaskEventType.TASK_CREATED, 1L,
+                    Map.of("status", TaskStatus.WAITING));
+            taskEventLog.append(taskId, 1L, 2L, TaskStatus.IN_PROGRESS, TaskEventType.STATUS_CHANGED, 2L,
+                    Map.of("status", TaskStatus.IN_PROGRESS));
+        });
+
+        drain();
+        List<TaskEvent> events = published(taskId);
+        assertEquals(2, events.size());
+        assertEquals(TaskEventType.TASK_CREATED, events.get(0).type());
+        assertEquals(TaskEventType.STATUS_CHANGED, events.get(1).type());
+        assertTrue(events.get(1).payload().contains("IN_PROGRESS"));
+
+        applicationEvents.clear();
+        drain();
+        assertEquals(0, published(taskId).size());
+    }
+
+    @Test
+    @DisplayName("❌ Событие не пишется вне транзакции изменения")
+    void append_RequiresTransaction() {
+        assertThrows(RuntimeException.class,
+                () -> taskEventLog.append(-1L, 1L, 2L, TaskStatus.WAITING, TaskEventType.TASK_CREATED, 1L, null));
+    }
+
+    private void drain() {
+        while (taskEventRelay.relayBatch() > 0) {
+            // публикуем все накопившиеся события
+        }
+    }
+
+    private List<TaskEvent> published(long taskId) {
+        return applicationEvents.stream(TaskEvent.class)
+                .filter(event -> event.taskId() == taskId)
+                .toList();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.entity.TaskEventType;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.events.TaskEvent;
+import org.example.taskmanagementsystem.events.TaskEventStreamHub;
+import org.example.taskmanagementsystem.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"sse.max-connections-per-user=2", "task-events.poll-interval-ms=3600000"})
+@AutoConfigureMockMvc
+class TaskEventStreamHubTest {
+    private static final long AUTHOR_ID = 9_100_001L;
+    private static final long EXECUTOR_ID = 9_100_002L;
+    private static final long OUTSIDER_ID = 9_100_003L;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TaskEventStreamHub taskEventStreamHub;
+    @MockBean
+    private UserService userService;
+
+    @Test
+    @DisplayName("✅ Событие приходит в потоки автора и исполнителя и не приходит посторонним")
+    @WithMockUser(username = "author@example.com")
+    void onTaskEvent_DeliversToParticipants() throws Exception {
+        MvcResult author = open(AUTHOR_ID);
+        MvcResult executor = open(EXECUTOR_ID);
+        MvcResult outsider = open(OUTSIDER_ID);
+
+        taskEventStreamHub.onTaskEvent(new TaskEvent(9_100_042L, 1L, TaskEventType.STATUS_CHANGED, EXECUTOR_ID,
+                AUTHOR_ID, EXECUTOR_ID, TaskStatus.IN_PROGRESS, "{\"status\":\"IN_PROGRESS\"}", LocalDateTime.now()));
+
+        assertTrue(awaitContent(author, "id:9100042"));
+        assertTrue(awaitContent(executor, "id:9100042"));
+        String body = author.getResponse().getContentAsString();
+        assertTrue(body.contains("event:STATUS_CHANGED"));
+        assertTrue(body.contains("IN_PROGRESS"));
+        assertFalse(outsider.getResponse().getContentAsString().contains("id:9100042"));
+    }
+
+    @Test
+    @DisplayName("✅ События одного потока приходят в порядке публикации")
+    @WithMockUser(username = "author@example.com")
+    void onTaskEvent_KeepsOrder() throws Exception {
+        MvcResult author = open(AUTHOR_ID + 10);
+        for (long id = 1; id <= 50; id++) {
+            taskEventStreamHub.onTaskEvent(new TaskEvent(9_200_000L + id, 1L, TaskEventType.TASK_UPDATED, AUTHOR_ID + 10,
+                    AUTHOR_ID + 10, null, TaskStatus.WAITING, "{}", LocalDateTime.now()));
+        }
+
+        assertTrue(awaitContent(author, "id:9200050"));
+        String body = author.getResponse().getContentAsString();
+        int previous = -1;
+        for (long id = 1; id <= 50; id++) {
+            int position = body.indexOf("id:" + (9_200_000L + id) + "\n");
+            assertTrue(position > previous);
+            previous = position;
+        }
+    }
+
+    @Test
+    @DisplayName("❌ Подписки сверх лимита на пользователя отклоняются (429 Too Many Requests)")
+    void subscribe_OverLimit_TooManyRequests() {
+        long userId = 9_100_100L;
+        int before = taskEventStreamHub.connectionCount();
+        taskEventStreamHub.subscribe(userId);
+        taskEventStreamHub.subscribe(userId);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> taskEventStreamHub.subscribe(userId));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatusCode());
+        assertEquals(before + 2, taskEventStreamHub.connectionCount());
+    }
+
+    private MvcResult open(long userId) throws Exception {
+        when(userService.getCurrentUserId()).thenReturn(userId);
+        return mockMvc.perform(get("/tasks/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /** Запись в поток делает пул писателей, поэтому содержимое ответа появляется не сразу. */
+    private static boolean awaitContent(MvcResult result, String expected) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (result.getResponse().getContentAsString().contains(expected)) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Строки пользователей и задач для тестов против настоящей БД. Каждый вызов создает новые строки
+ * с уникальными email, поэтому тесты не зависят от остального содержимого базы.
+ */
+final class TaskFixtures {
+    private final JdbcTemplate jdbcTemplate;
+
+    TaskFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    long user() {
+        return jdbcTemplate.queryForObject("INSERT INTO users (email, role, is_verified, digest_enabled) " +
+                "VALUES (?, 'ROLE_USER', true, false) RETURNING id", Long.class, UUID.randomUUID() + "@example.com");
+    }
+
+    long task(long authorId, Long executorId, TaskStatus status) {
+        return task(authorId, executorId, status, null);
+    }
+
+    long task(long authorId, Long executorId, TaskStatus status, Long parentId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.queryForObject("INSERT INTO tasks (title, status, priority, author_id, executor_id, parent_id, " +
+                        "created_at, status_changed_at, comment_count, unblocked) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, true) RETURNING id",
+                Long.class, "Задача " + UUID.randomUUID(), status.name(), TaskPriority.MEDIUM.name(), authorId, executorId,
+                parentId, now, now);
+    }
+
+    boolean unblocked(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT unblocked FROM tasks WHERE id = ?", Boolean.class, taskId);
+    }
+}
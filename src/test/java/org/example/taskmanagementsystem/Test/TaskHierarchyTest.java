@@ -0,0 +1,175 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeDTO;
+import org.example.taskmanagementsystem.dto.response.TaskSubtreeNodeDTO;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.hierarchy.TaskHierarchy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class)
+class TaskHierarchyTest {
+    @Autowired
+    private TaskHierarchy taskHierarchy;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private TaskFixtures fixtures;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        fixtures = new TaskFixtures(jdbcTemplate);
+        userId = fixtures.user();
+    }
+
+    @Test
+    @DisplayName("✅ Перенос под другую задачу переносит всё поддерево с новыми глубинами")
+    void move_UnderAnotherTask() {
+        long root = task(null);
+        long middle = task(root);
+        long leaf = task(middle);
+        long newParent = task(null);
+
+        assertTrue(transactionTemplate.execute(status -> taskHierarchy.move(middle, newParent)));
+
+        assertEquals(newParent, parentId(middle));
+        assertEquals(Map.of(newParent, 1), ancestors(middle));
+        assertEquals(Map.of(middle, 1, newParent, 2), ancestors(leaf));
+        assertEquals(Map.of(), descendants(root));
+    }
+
+    @Test
+    @DisplayName("✅ Перенос в корень убирает всех внешних предков поддерева")
+    void move_ToRoot() {
+        long root = task(null);
+        long middle = task(root);
+        long leaf = task(middle);
+
+        assertTrue(transactionTemplate.execute(status -> taskHierarchy.move(middle, null)));
+
+        assertNull(parentId(middle));
+        assertEquals(Map.of(), ancestors(middle));
+        assertEquals(Map.of(middle, 1), ancestors(leaf));
+        assertFalse(transactionTemplate.execute(status -> taskHierarchy.move(middle, null)));
+    }
+
+    @Test
+    @DisplayName("❌ Перенос задачи в её собственное поддерево - 409, иерархия не меняется")
+    void move_IntoOwnSubtree_Conflict() {
+        long root = task(null);
+        long middle = task(root);
+        long leaf = task(middle);
+
+        for (long target : List.of(root, leaf)) {
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> transactionTemplate.execute(status -> taskHierarchy.move(root, target)));
+            assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        }
+        assertEquals(Map.of(middle, 1, root, 2), ancestors(leaf));
+    }
+
+    @Test
+    @DisplayName("✅ Удаление промежуточной задачи переподчиняет детей её родителю и уменьшает глубины")
+    void removeTask_Middle() {
+        long root = task(null);
+        long middle = task(root);
+        long child = task(middle);
+        long grandchild = task(child);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskHierarchy.removeTask(middle);
+            jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", middle);
+        });
+
+        assertEquals(root, parentId(child));
+        assertEquals(child, parentId(grandchild));
+        assertEquals(Map.of(root, 1), ancestors(child));
+        assertEquals(Map.of(child, 1, root, 2), ancestors(grandchild));
+        assertEquals(Map.of(child, 1, grandchild, 2), descendants(root));
+    }
+
+    @Test
+    @DisplayName("✅ Сводный прогресс считается по всем уровням поддерева")
+    void subtree_Rollup() {
+        long root = task(null);
+        long done = task(root, TaskStatus.COMPLETED);
+        task(done, TaskStatus.IN_PROGRESS);
+        task(done, TaskStatus.COMPLETED);
+        task(root, TaskStatus.WAITING);
+
+        TaskSubtreeDTO subtree = taskHierarchy.subtree(root, 10);
+
+        assertEquals(4, subtree.getTotal());
+        assertEquals(2, subtree.getCompleted());
+        assertEquals(50, subtree.getCompletionPercent());
+        assertFalse(subtree.isTruncated());
+        assertEquals(List.of(0, 1, 1, 2, 2), subtree.getNodes().stream().map(TaskSubtreeNodeDTO::getDepth).toList());
+
+        TaskSubtreeDTO truncated = taskHierarchy.subtree(root, 2);
+        assertTrue(truncated.isTruncated());
+        assertEquals(3, truncated.getNodes().size());
+        assertEquals(4, truncated.getTotal());
+        assertEquals(100, taskHierarchy.subtree(task(null, TaskStatus.COMPLETED), 10).getCompletionPercent());
+    }
+
+    private long task(Long parentId) {
+        return task(parentId, TaskStatus.WAITING);
+    }
+
+    /** Задача создается так же, как в сервисе: строка и пары предков в одной транзакции. */
+    private long task(Long parentId, TaskStatus status) {
+        return transactionTemplate.execute(tx -> {
+            long taskId = fixtures.task(userId, userId, status, parentId);
+            if (parentId != null) {
+                taskHierarchy.attachNew(taskId, parentId);
+            }
+            return taskId;
+        });
+    }
+
+    private Long parentId(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT parent_id FROM tasks WHERE id = ?", Long.class, taskId);
+    }
+
+    private Map<Long, Integer> ancestors(long taskId) {
+        Map<Long, Integer> depths = new HashMap<>();
+        jdbcTemplate.query("SELECT ancestor_id, depth FROM task_closure WHERE descendant_id = ?",
+                rs -> {
+                    depths.put(rs.getLong(1), rs.getInt(2));
+                }, taskId);
+        return depths;
+    }
+
+    private Map<Long, Integer> descendants(long taskId) {
+        Map<Long, Integer> depths = new HashMap<>();
+        jdbcTemplate.query("SELECT descendant_id, depth FROM task_closure WHERE ancestor_id = ?",
+                rs -> {
+                    depths.put(rs.getLong(1), rs.getInt(2));
+                }, taskId);
+        return depths;
+    }
+}
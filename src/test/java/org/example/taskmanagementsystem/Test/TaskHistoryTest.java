@@ -0,0 +1,110 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.response.TaskHistoryEntryDTO;
+import org.example.taskmanagementsystem.entity.TaskStatus;
+import org.example.taskmanagementsystem.history.TaskHistoryChange;
+import org.example.taskmanagementsystem.history.TaskHistoryLog;
+import org.example.taskmanagementsystem.history.TaskHistoryPartitions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class)
+class TaskHistoryTest {
+    // Месяц, секцию которого приложение само никогда не создаст
+    private static final YearMonth STRAY_MONTH = YearMonth.of(2001, 1);
+    private static final String STRAY_PARTITION = "task_history_y2001m01";
+
+    @Autowired
+    private TaskHistoryLog taskHistoryLog;
+    @Autowired
+    private TaskHistoryPartitions taskHistoryPartitions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private long userId;
+    private long taskId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        TaskFixtures fixtures = new TaskFixtures(jdbcTemplate);
+        userId = fixtures.user();
+        taskId = fixtures.task(userId, userId, TaskStatus.WAITING);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + STRAY_PARTITION);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM task_history WHERE task_id = ?", taskId);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + STRAY_PARTITION);
+    }
+
+    @Test
+    @DisplayName("✅ Записи журнала читаются страницами по курсору от новых к старым")
+    void findPage_CursorPagination() {
+        transactionTemplate.executeWithoutResult(status -> taskHistoryLog.append(taskId, userId, List.of(
+                TaskHistoryChange.of("title", "Старое", "Новое"),
+                TaskHistoryChange.of("status", TaskStatus.WAITING, TaskStatus.IN_PROGRESS),
+                TaskHistoryChange.of("executor", null, userId))));
+
+        List<TaskHistoryEntryDTO> first = taskHistoryLog.findPage(taskId, null, 2);
+        assertEquals(List.of("executor", "status"), first.stream().map(TaskHistoryEntryDTO::getField).toList());
+        assertNull(first.get(0).getOldValue());
+        assertEquals(String.valueOf(userId), first.get(0).getNewValue());
+        assertEquals(userId, first.get(0).getActorId());
+
+        List<TaskHistoryEntryDTO> second = taskHistoryLog.findPage(taskId, first.get(1).getId(), 2);
+        assertEquals(1, second.size());
+        assertEquals("title", second.get(0).getField());
+        assertEquals("Старое", second.get(0).getOldValue());
+    }
+
+    @Test
+    @DisplayName("✅ Запись текущего месяца попадает в его секцию")
+    void append_LandsInCurrentMonthPartition() {
+        transactionTemplate.executeWithoutResult(status -> taskHistoryLog.append(taskId, userId,
+                List.of(TaskHistoryChange.of("priority", "LOW", "HIGH"))));
+
+        YearMonth current = YearMonth.now();
+        assertEquals(String.format("task_history_y%04dm%02d", current.getYear(), current.getMonthValue()),
+                partitionOf(taskId));
+    }
+
+    @Test
+    @DisplayName("✅ Строки месяца без секции попадают в секцию по умолчанию и переносятся при её создании")
+    void ensurePartition_MovesRowsFromDefault() {
+        jdbcTemplate.update("INSERT INTO task_history (task_id, field, old_value, new_value, actor_id, changed_at) " +
+                "VALUES (?, 'status', 'WAITING', 'COMPLETED', ?, ?)", taskId, userId,
+                Timestamp.valueOf(LocalDateTime.of(2001, 1, 15, 12, 0)));
+        assertEquals("task_history_default", partitionOf(taskId));
+
+        taskHistoryPartitions.ensurePartition(STRAY_MONTH);
+
+        assertEquals(STRAY_PARTITION, partitionOf(taskId));
+        assertEquals(1, taskHistoryLog.findPage(taskId, null, 10).size());
+    }
+
+    private String partitionOf(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT DISTINCT tableoid::regclass::text FROM task_history WHERE task_id = ?",
+                String.class, taskId);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.taskmanagementsystem.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.dto.request.TaskTemplateCreateDTO;
+import org.example.taskmanagementsystem.dto.response.TaskTemplateDTO;
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.entity.TaskPriority;
+import org.example.taskmanagementsystem.service.TaskTemplateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class)
+@AutoConfigureMockMvc
+class TaskTemplateControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private TaskTemplateService taskTemplateService;
+
+    @Test
+    @DisplayName("✅ Шаблон повторяющейся задачи создан (201 Created)")
+    @WithMockUser(username = "author@example.com")
+    void createTemplate_Success() throws Exception {
+        LocalDateTime startAt = LocalDateTime.of(2030, 1, 1, 9, 0);
+        TaskTemplateCreateDTO request = newRequest(startAt);
+        when(taskTemplateService.createTemplate(any(TaskTemplateCreateDTO.class)))
+                .thenReturn(new TaskTemplateDTO(5L, "Стендап", null, TaskPriority.MEDIUM, "executor@example.com",
+                        RecurrenceFrequency.DAILY, 1, startAt, null, 30, startAt));
+
+        mockMvc.perform(post("/task-templates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(5))
+                .andExpect(jsonPath("$.frequency").value("DAILY"));
+    }
+
+    @Test
+    @DisplayName("❌ Ошибка: нулевой интервал повторения (400 Bad Request)")
+    @WithMockUser(username = "author@example.com")
+    void createTemplate_ZeroInterval() throws Exception {
+        TaskTemplateCreateDTO request = newRequest(LocalDateTime.of(2030, 1, 1, 9, 0));
+        request.setInterval(0);
+
+        mockMvc.perform(post("/task-templates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verify(taskTemplateService, never()).createTemplate(any());
+    }
+
+    private static TaskTemplateCreateDTO newRequest(LocalDateTime startAt) {
+        TaskTemplateCreateDTO request = new TaskTemplateCreateDTO();
+        request.setTitle("Стендап");
+        request.setPriority(TaskPriority.MEDIUM);
+        request.setExecutorEmail("executor@example.com");
+        request.setFrequency(RecurrenceFrequency.DAILY);
+        request.setStartAt(startAt);
+        request.setDueAfterMinutes(30);
+        return request;
+    }
+}
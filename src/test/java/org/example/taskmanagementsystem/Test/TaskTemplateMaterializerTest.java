@@ -0,0 +1,140 @@
+package org.example.taskmanagementsystem.Test;
+
+import org.example.taskmanagementsystem.TaskManagementSystemApplication;
+import org.example.taskmanagementsystem.entity.RecurrenceFrequency;
+import org.example.taskmanagementsystem.recurrence.TaskTemplateMaterializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = TaskManagementSystemApplication.class,
+        properties = {"recurrence.interval-ms=3600000", "recurrence.horizon=14d"})
+class TaskTemplateMaterializerTest {
+    private static final int DUE_AFTER_MINUTES = 2 * 24 * 60;
+
+    @Autowired
+    private TaskTemplateMaterializer materializer;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+    private LocalDateTime firstRun;
+
+    @BeforeEach
+    void setUp() {
+        userId = new TaskFixtures(jdbcTemplate).user();
+        // Первое повторение через час: все повторения горизонта еще в будущем, и напоминания ставятся всем
+        firstRun = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusHours(1);
+    }
+
+    @Test
+    @DisplayName("✅ Создаются все повторения горизонта, next_run_at сдвигается на первое несозданное")
+    void materialize_FillsHorizon() {
+        long templateId = template(RecurrenceFrequency.DAILY, 1, null);
+
+        materializer.materialize();
+
+        List<LocalDateTime> occurrences = occurrences(templateId);
+        assertEquals(14, occurrences.size());
+        for (int i = 0; i < occurrences.size(); i++) {
+            assertEquals(firstRun.plusDays(i), occurrences.get(i));
+        }
+        assertEquals(firstRun.plusDays(14), nextRunAt(templateId));
+    }
+
+    @Test
+    @DisplayName("✅ Шаг в неделях с интервалом берется из шаблона")
+    void materialize_WeeklyInterval() {
+        long templateId = template(RecurrenceFrequency.WEEKLY, 1, null);
+
+        materializer.materialize();
+
+        assertEquals(List.of(firstRun, firstRun.plusDays(7)), occurrences(templateId));
+        assertEquals(firstRun.plusDays(14), nextRunAt(templateId));
+    }
+
+    @Test
+    @DisplayName("✅ Повторения заканчиваются на endAt включительно, next_run_at становится NULL")
+    void materialize_StopsAtEndAt() {
+        long templateId = template(RecurrenceFrequency.DAILY, 1, firstRun.plusDays(3));
+
+        materializer.materialize();
+
+        assertEquals(4, occurrences(templateId).size());
+        assertEquals(firstRun.plusDays(3), occurrences(templateId).get(3));
+        assertNull(nextRunAt(templateId));
+    }
+
+    @Test
+    @DisplayName("✅ Созданные задачи получают счетчики, события TASK_CREATED и напоминания о сроке")
+    void materialize_WritesBookkeeping() {
+        long templateId = template(RecurrenceFrequency.DAILY, 2, null);
+
+        materializer.materialize();
+
+        assertEquals(7, occurrences(templateId).size());
+        assertBookkeeping(templateId, 7);
+        assertEquals(firstRun.plusMinutes(DUE_AFTER_MINUTES), jdbcTemplate.queryForObject(
+                "SELECT due_at FROM tasks WHERE template_id = ? AND occurrence_at = ?", Timestamp.class,
+                templateId, Timestamp.valueOf(firstRun)).toLocalDateTime());
+    }
+
+    @Test
+    @DisplayName("✅ Повторный проход по уже созданным повторениям ничего не дублирует")
+    void materialize_RerunIsHarmless() {
+        long templateId = template(RecurrenceFrequency.DAILY, 1, null);
+        materializer.materialize();
+
+        // Как после падения до сдвига next_run_at: те же повторения проходят еще раз
+        jdbcTemplate.update("UPDATE task_templates SET next_run_at = ? WHERE id = ?", Timestamp.valueOf(firstRun), templateId);
+        materializer.materialize();
+
+        assertEquals(14, occurrences(templateId).size());
+        assertBookkeeping(templateId, 14);
+        assertEquals(firstRun.plusDays(14), nextRunAt(templateId));
+    }
+
+    private void assertBookkeeping(long templateId, int tasks) {
+        assertEquals(tasks, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(sum(task_count), 0) FROM task_counters WHERE executor_id = ? AND status = 'WAITING'",
+                Long.class, userId));
+        assertEquals(tasks, jdbcTemplate.queryForObject("SELECT count(*) FROM task_events e JOIN tasks t ON t.id = e.task_id " +
+                "WHERE t.template_id = ? AND e.type = 'TASK_CREATED'", Long.class, templateId));
+        assertEquals(2L * tasks, jdbcTemplate.queryForObject("SELECT count(*) FROM task_reminders r JOIN tasks t ON t.id = r.task_id " +
+                "WHERE t.template_id = ?", Long.class, templateId));
+    }
+
+    private long template(RecurrenceFrequency frequency, int interval, LocalDateTime endAt) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.queryForObject("INSERT INTO task_templates (title, priority, author_id, executor_id, frequency, " +
+                        "interval_count, start_at, end_at, due_after_minutes, next_run_at, created_at) " +
+                        "VALUES ('Шаблон', 'MEDIUM', ?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id",
+                Long.class, userId, userId, frequency.name(), interval, Timestamp.valueOf(firstRun),
+                new SqlParameterValue(Types.TIMESTAMP, endAt != null ? Timestamp.valueOf(endAt) : null),
+                DUE_AFTER_MINUTES, Timestamp.valueOf(firstRun), now);
+    }
+
+    private List<LocalDateTime> occurrences(long templateId) {
+        return jdbcTemplate.query("SELECT occurrence_at FROM tasks WHERE template_id = ? ORDER BY occurrence_at",
+                (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(), templateId);
+    }
+
+    private LocalDateTime nextRunAt(long templateId) {
+        Timestamp nextRunAt = jdbcTemplate.queryForObject("SELECT next_run_at FROM task_templates WHERE id = ?",
+                Timestamp.class, templateId);
+        return nextRunAt != null ? nextRunAt.toLocalDateTime() : null;
+    }
+}